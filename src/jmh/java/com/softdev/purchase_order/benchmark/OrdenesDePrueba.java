@@ -0,0 +1,62 @@
+package com.softdev.purchase_order.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.softdev.purchase_order.domain.entities.DetalleOrden;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.domain.entities.MetodoPago;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.use_cases.dto.request.MetodoPagoRequest;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+public final class OrdenesDePrueba {
+
+    private OrdenesDePrueba() {
+    }
+
+    /**
+     * Crea una orden con el número de líneas indicado.
+     *
+     * @param lineas Número de líneas del carrito.
+     * @return La orden creada.
+     */
+    public static Orden crearOrden(final int lineas) {
+        UUID id = UUID.randomUUID();
+        List<DetalleOrden> detalles = new ArrayList<>(lineas);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lineas; i++) {
+            DetalleOrden detalle = new DetalleOrden("Producto " + i, i % 5 + 1, BigDecimal.valueOf(1000 + i, 2), id.toString());
+            detalles.add(detalle);
+            total = total.add(detalle.getSubtotal());
+        }
+        return new Orden(
+                id,
+                "cliente@correo.com",
+                "Cliente Benchmark",
+                "12345678",
+                "Calle 1 # 2-3",
+                detalles,
+                new MetodoPago("VISA", "1234567812345678", "12/30", "123", "Cliente Benchmark"),
+                total,
+                LocalDateTime.now(),
+                EstadoOrden.CREADA);
+    }
+
+    /**
+     * Crea un método de pago válido, con fecha de expiración en el futuro.
+     *
+     * @return El método de pago.
+     */
+    public static MetodoPagoRequest crearMetodoPago() {
+        String expiracion = YearMonth.now().plusYears(2).format(DateTimeFormatter.ofPattern("MM/yy"));
+        return new MetodoPagoRequest("VISA", "1234567812345678", expiracion, "123", "Cliente Benchmark");
+    }
+}
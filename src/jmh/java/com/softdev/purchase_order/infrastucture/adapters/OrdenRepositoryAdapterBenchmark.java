@@ -0,0 +1,58 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.softdev.purchase_order.benchmark.OrdenesDePrueba;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.infrastucture.entities.OrdenEntity;
+
+/**
+ * Mide el mapeo entre la orden de dominio y la entidad JPA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrdenRepositoryAdapterBenchmark {
+
+    /**
+     * Número de líneas del carrito.
+     */
+    @Param({"1", "10", "100"})
+    public int lineas;
+
+    private OrdenRepositoryAdapter adapter;
+    private Orden orden;
+    private OrdenEntity entity;
+
+    @Setup
+    public void setUp() {
+        adapter = new OrdenRepositoryAdapter(null, null);
+        orden = OrdenesDePrueba.crearOrden(lineas);
+        entity = adapter.mapToEntity(orden);
+    }
+
+    @Benchmark
+    public OrdenEntity mapToEntity() {
+        return adapter.mapToEntity(orden);
+    }
+
+    @Benchmark
+    public Orden mapToDomain() {
+        return adapter.mapToDomain(entity);
+    }
+}
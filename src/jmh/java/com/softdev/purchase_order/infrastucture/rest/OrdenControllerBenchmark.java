@@ -0,0 +1,61 @@
+package com.softdev.purchase_order.infrastucture.rest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.softdev.purchase_order.benchmark.OrdenesDePrueba;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.use_cases.dto.request.MetodoPagoRequest;
+import com.softdev.purchase_order.use_cases.dto.response.OrdenResponse;
+
+/**
+ * Mide el mapeo de la respuesta y la validación del método de pago del controlador de órdenes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrdenControllerBenchmark {
+
+    /**
+     * Número de líneas del carrito.
+     */
+    @Param({"1", "10", "100"})
+    public int lineas;
+
+    private OrdenController controller;
+    private Orden orden;
+    private MetodoPagoRequest metodoPago;
+
+    @Setup
+    public void setUp() {
+        controller = new OrdenController(null, null, null, null, null, null);
+        orden = OrdenesDePrueba.crearOrden(lineas);
+        metodoPago = OrdenesDePrueba.crearMetodoPago();
+    }
+
+    @Benchmark
+    public OrdenResponse mapearRespuesta() {
+        return controller.mapearRespuesta(orden);
+    }
+
+    @Benchmark
+    public void validarMetodoPago(final Blackhole blackhole) {
+        controller.validarMetodoPago(metodoPago);
+        blackhole.consume(metodoPago);
+    }
+}
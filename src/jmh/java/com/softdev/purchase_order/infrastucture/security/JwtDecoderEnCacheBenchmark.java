@@ -0,0 +1,74 @@
+package com.softdev.purchase_order.infrastucture.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Mide la decodificación de un token HS512 repetido, con y sin la caché de tokens validados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecoderEnCacheBenchmark {
+
+    private JwtDecoder sinCache;
+    private JwtDecoder conCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKey clave = new SecretKeySpec(new byte[64], MacAlgorithm.HS512.getName());
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("cliente@correo.com")
+                .claim("rol", List.of("CLIENTE"))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(Duration.ofHours(1)))
+                .build();
+        token = new NimbusJwtEncoder(new ImmutableSecret<>(clave))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS512).build(), claims))
+                .getTokenValue();
+        sinCache = NimbusJwtDecoder.withSecretKey(clave).macAlgorithm(MacAlgorithm.HS512).build();
+        conCache = new JwtDecoderEnCache(sinCache, new SimpleMeterRegistry(), Duration.ofMinutes(5), 10_000);
+    }
+
+    @Benchmark
+    public Jwt decodificarSinCache() {
+        return sinCache.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodificarConCache() {
+        return conCache.decode(token);
+    }
+}
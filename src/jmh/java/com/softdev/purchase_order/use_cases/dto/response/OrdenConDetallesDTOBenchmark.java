@@ -0,0 +1,58 @@
+package com.softdev.purchase_order.use_cases.dto.response;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.benchmark.OrdenesDePrueba;
+import com.softdev.purchase_order.domain.entities.Orden;
+
+/**
+ * Mide la construcción del DTO de la orden y su serialización en JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrdenConDetallesDTOBenchmark {
+
+    /**
+     * Número de líneas del carrito.
+     */
+    @Param({"1", "10", "100"})
+    public int lineas;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private Orden orden;
+    private OrdenConDetallesDTO dto;
+
+    @Setup
+    public void setUp() {
+        orden = OrdenesDePrueba.crearOrden(lineas);
+        dto = OrdenConDetallesDTO.from(orden);
+    }
+
+    @Benchmark
+    public OrdenConDetallesDTO from() {
+        return OrdenConDetallesDTO.from(orden);
+    }
+
+    @Benchmark
+    public byte[] serializarJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+}
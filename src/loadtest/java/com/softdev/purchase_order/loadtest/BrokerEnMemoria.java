@@ -0,0 +1,59 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Sustituto de RabbitMQ para la prueba de carga.
+ * Serializa los mensajes con el convertidor de la aplicación, igual que el template real, pero en lugar
+ * de enviarlos al broker solo los cuenta y confirma de inmediato las publicaciones correlacionadas.
+ */
+public class BrokerEnMemoria extends RabbitTemplate {
+
+    private final LongAdder mensajes = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * Crea el sustituto. La fábrica de conexiones nunca se usa para publicar.
+     *
+     * @param connectionFactory Fábrica de conexiones de la aplicación.
+     * @param messageConverter Convertidor de mensajes de la aplicación.
+     */
+    public BrokerEnMemoria(final ConnectionFactory connectionFactory, final MessageConverter messageConverter) {
+        super(connectionFactory);
+        setMessageConverter(messageConverter);
+    }
+
+    @Override
+    public void send(final String exchange, final String routingKey, final Message message,
+                     final CorrelationData correlationData) {
+        mensajes.increment();
+        bytes.add(message.getBody().length);
+        if (correlationData != null) {
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+    }
+
+    /**
+     * Número de mensajes publicados.
+     *
+     * @return Mensajes publicados.
+     */
+    public long mensajes() {
+        return mensajes.sum();
+    }
+
+    /**
+     * Bytes publicados.
+     *
+     * @return Bytes publicados.
+     */
+    public long bytes() {
+        return bytes.sum();
+    }
+}
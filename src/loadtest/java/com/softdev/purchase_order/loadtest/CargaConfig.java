@@ -0,0 +1,53 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.time.Duration;
+
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.infrastucture.messaging.OrdenOutboxRelay;
+import com.softdev.purchase_order.infrastucture.messaging.OrdenPublicadorPipeline;
+import com.softdev.purchase_order.infrastucture.messaging.OrdenPublisherService;
+import com.softdev.purchase_order.infrastucture.repositories.OrdenOutboxJpaRepository;
+
+/**
+ * Beans adicionales para la prueba de carga: el relay de la bandeja de salida publica en el
+ * sustituto en memoria de RabbitMQ. Requiere ordenes.outbox.relay.enabled=false para reemplazar
+ * al relay de la aplicación.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CargaConfig {
+
+    /**
+     * Sustituto en memoria de RabbitMQ.
+     *
+     * @param connectionFactory Fábrica de conexiones de la aplicación.
+     * @param messageConverter Convertidor de mensajes de la aplicación.
+     * @return El sustituto.
+     */
+    @Bean
+    public BrokerEnMemoria brokerEnMemoria(final ConnectionFactory connectionFactory, final MessageConverter messageConverter) {
+        return new BrokerEnMemoria(connectionFactory, messageConverter);
+    }
+
+    /**
+     * Relay de la bandeja de salida que publica en el sustituto en memoria.
+     *
+     * @param repository Repositorio de la bandeja de salida.
+     * @param broker Sustituto en memoria de RabbitMQ.
+     * @param pipeline Publicador con confirmaciones asíncronas, si está habilitado.
+     * @param objectMapper Mapper de la aplicación.
+     * @return El relay.
+     */
+    @Bean
+    public OrdenOutboxRelay relayCarga(final OrdenOutboxJpaRepository repository, final BrokerEnMemoria broker,
+                                       final ObjectProvider<OrdenPublicadorPipeline> pipeline,
+                                       final ObjectMapper objectMapper) {
+        return new OrdenOutboxRelay(repository, new OrdenPublisherService(broker), pipeline, objectMapper,
+                100, 10, Duration.ofSeconds(10));
+    }
+}
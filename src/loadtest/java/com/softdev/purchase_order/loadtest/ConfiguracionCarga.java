@@ -0,0 +1,131 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de argumentos con la forma clave=valor.
+ *
+ * @param concurrencia Número de clientes simultáneos.
+ * @param calentamiento Duración del calentamiento, cuyas mediciones se descartan.
+ * @param duracion Duración de la medición.
+ * @param clientes Número de clientes distintos (correos) que realizan órdenes.
+ * @param catalogo Número de productos distintos del catálogo simulado.
+ * @param mezcla Peso de cada tamaño de carrito: número de líneas a peso relativo.
+ * @param productos Comportamiento del servicio de productos simulado.
+ * @param usuarios Comportamiento del servicio de usuarios simulado.
+ * @param modo Modelo de ejecución de la aplicación bajo prueba.
+ */
+public record ConfiguracionCarga(
+        int concurrencia,
+        Duration calentamiento,
+        Duration duracion,
+        int clientes,
+        int catalogo,
+        Map<Integer, Integer> mezcla,
+        ComportamientoStub productos,
+        ComportamientoStub usuarios,
+        Modo modo) {
+
+    /**
+     * Modelo de ejecución de la aplicación bajo prueba.
+     */
+    public enum Modo {
+        /**
+         * POST /ordenes/realizarOrden con el grupo de hilos de plataforma de Tomcat.
+         */
+        PLATAFORMA,
+        /**
+         * POST /ordenes/realizarOrden con hilos virtuales (spring.threads.virtual.enabled=true).
+         */
+        VIRTUAL,
+        /**
+         * POST /ordenes/reactivo/realizarOrden, que no ocupa un hilo mientras espera a los servicios.
+         */
+        REACTIVO
+    }
+
+    /**
+     * Comportamiento de un servicio simulado.
+     *
+     * @param latencia Latencia base de cada respuesta.
+     * @param variacion Variación aleatoria máxima que se suma a la latencia base.
+     * @param tasaError Fracción de respuestas que fallan con 503, entre 0 y 1.
+     */
+    public record ComportamientoStub(Duration latencia, Duration variacion, double tasaError) {
+    }
+
+    /**
+     * Crea la configuración a partir de los argumentos de línea de comandos.
+     * Argumentos admitidos, con sus valores por defecto:
+     * concurrencia=32, calentamiento=10s, duracion=30s, clientes=100, catalogo=500,
+     * mezcla=1:50,5:35,20:15, productos.latencia=20ms, productos.variacion=10ms, productos.error=0,
+     * usuarios.latencia=10ms, usuarios.variacion=5ms, usuarios.error=0, modo=plataforma
+     * (plataforma, virtual o reactivo).
+     *
+     * @param args Argumentos con la forma clave=valor.
+     * @return La configuración.
+     */
+    public static ConfiguracionCarga desdeArgumentos(final String[] args) {
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separador = arg.indexOf('=');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Argumento inválido, se esperaba clave=valor: " + arg);
+            }
+            valores.put(arg.substring(0, separador), arg.substring(separador + 1));
+        }
+        return new ConfiguracionCarga(
+                Integer.parseInt(valores.getOrDefault("concurrencia", "32")),
+                duracion(valores.getOrDefault("calentamiento", "10s")),
+                duracion(valores.getOrDefault("duracion", "30s")),
+                Integer.parseInt(valores.getOrDefault("clientes", "100")),
+                Integer.parseInt(valores.getOrDefault("catalogo", "500")),
+                mezcla(valores.getOrDefault("mezcla", "1:50,5:35,20:15")),
+                new ComportamientoStub(
+                        duracion(valores.getOrDefault("productos.latencia", "20ms")),
+                        duracion(valores.getOrDefault("productos.variacion", "10ms")),
+                        Double.parseDouble(valores.getOrDefault("productos.error", "0"))),
+                new ComportamientoStub(
+                        duracion(valores.getOrDefault("usuarios.latencia", "10ms")),
+                        duracion(valores.getOrDefault("usuarios.variacion", "5ms")),
+                        Double.parseDouble(valores.getOrDefault("usuarios.error", "0"))),
+                Modo.valueOf(valores.getOrDefault("modo", "plataforma").toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Interpreta una duración con sufijo ms, s o m.
+     *
+     * @param valor La duración, por ejemplo 250ms, 30s o 2m.
+     * @return La duración.
+     */
+    private static Duration duracion(final String valor) {
+        if (valor.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(valor.substring(0, valor.length() - 2)));
+        }
+        if (valor.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(valor.substring(0, valor.length() - 1)));
+        }
+        if (valor.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(valor.substring(0, valor.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(valor));
+    }
+
+    /**
+     * Interpreta la mezcla de carritos, por ejemplo 1:50,5:35,20:15.
+     *
+     * @param valor La mezcla con la forma lineas:peso separada por comas.
+     * @return El peso de cada número de líneas.
+     */
+    private static Map<Integer, Integer> mezcla(final String valor) {
+        Map<Integer, Integer> mezcla = new LinkedHashMap<>();
+        for (String entrada : valor.split(",")) {
+            String[] partes = entrada.trim().split(":");
+            mezcla.put(Integer.parseInt(partes[0]), Integer.parseInt(partes[1]));
+        }
+        return mezcla;
+    }
+}
@@ -0,0 +1,62 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Genera una clave HS512 aleatoria y firma con ella tokens de clientes, con los mismos claims
+ * que espera la configuración de seguridad de la aplicación.
+ */
+public final class GeneradorTokens {
+
+    private final byte[] clave = new byte[64];
+
+    /**
+     * Crea el generador con una clave aleatoria.
+     */
+    public GeneradorTokens() {
+        new SecureRandom().nextBytes(clave);
+    }
+
+    /**
+     * Clave en Base64, tal como la espera la propiedad jwt.secret.
+     *
+     * @return La clave codificada.
+     */
+    public String claveBase64() {
+        return Base64.getEncoder().encodeToString(clave);
+    }
+
+    /**
+     * Firma un token de cliente válido durante una hora.
+     *
+     * @param email Correo del cliente, que va en el claim sub.
+     * @return El token serializado.
+     */
+    public String tokenCliente(final String email) {
+        Instant ahora = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(email)
+                .claim("rol", "CLIENTE")
+                .issueTime(Date.from(ahora))
+                .expirationTime(Date.from(ahora.plus(1, ChronoUnit.HOURS)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), claims);
+        try {
+            jwt.sign(new MACSigner(clave));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("No se pudo firmar el token de prueba", e);
+        }
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,177 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.softdev.purchase_order.PurchaseOrderApplication;
+
+/**
+ * Prueba de carga de extremo a extremo de POST /ordenes/realizarOrden.
+ * Levanta la aplicación contra servicios de productos y usuarios simulados en proceso, una base H2
+ * en memoria y un sustituto en memoria de RabbitMQ, sin Eureka ni red externa. Luego envía órdenes
+ * desde varios clientes simultáneos durante un tiempo fijo y reporta el rendimiento y los percentiles
+ * de latencia, junto con el número de hilos de plataforma de la JVM durante la medición, para comparar
+ * los modelos de ejecución (ver {@link ConfiguracionCarga.Modo}).
+ *
+ * <p>Se ejecuta con: {@code ./mvnw -Ploadtest test-compile exec:exec -Dcarga.args="concurrencia=64 duracion=60s"}.
+ * Ver {@link ConfiguracionCarga#desdeArgumentos(String[])} para los argumentos disponibles.</p>
+ */
+public final class PruebaDeCarga {
+
+    private PruebaDeCarga() {
+    }
+
+    /**
+     * Punto de entrada de la prueba de carga.
+     *
+     * @param args Argumentos con la forma clave=valor.
+     * @throws Exception Si la prueba no se puede ejecutar.
+     */
+    public static void main(final String[] args) throws Exception {
+        ConfiguracionCarga config = ConfiguracionCarga.desdeArgumentos(args);
+        GeneradorTokens tokens = new GeneradorTokens();
+
+        try (ServicioSimulado productos = ServiciosSimulados.productos(config.productos());
+             ServicioSimulado usuarios = ServiciosSimulados.usuarios(config.usuarios());
+             ConfigurableApplicationContext aplicacion = iniciarAplicacion(productos, usuarios, tokens, config.modo())) {
+
+            int puerto = ((WebServerApplicationContext) aplicacion).getWebServer().getPort();
+            String ruta = config.modo() == ConfiguracionCarga.Modo.REACTIVO
+                    ? "/ordenes/reactivo/realizarOrden" : "/ordenes/realizarOrden";
+            URI endpoint = URI.create("http://127.0.0.1:" + puerto + ruta);
+            List<String> tokensClientes = new ArrayList<>(config.clientes());
+            for (int i = 0; i < config.clientes(); i++) {
+                tokensClientes.add(tokens.tokenCliente("cliente" + i + "@carga.local"));
+            }
+
+            System.out.printf("Modo: %s, calentamiento: %s, medición: %s, %d clientes simultáneos%n",
+                    config.modo(), config.calentamiento(), config.duracion(), config.concurrencia());
+            ejecutar(config, endpoint, tokensClientes, config.calentamiento(), null);
+            ReporteCarga reporte = new ReporteCarga(config.concurrencia());
+            // Los hilos virtuales no se cuentan en ThreadMXBean: solo se miden los hilos de plataforma
+            ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+            hilos.resetPeakThreadCount();
+            ejecutar(config, endpoint, tokensClientes, config.duracion(), reporte);
+            int hilosAlFinal = hilos.getThreadCount();
+            int picoHilos = hilos.getPeakThreadCount();
+
+            BrokerEnMemoria broker = aplicacion.getBean(BrokerEnMemoria.class);
+            System.out.println();
+            System.out.print(reporte.generar(config.duracion()));
+            System.out.printf("Servicio de productos: %d peticiones, %d errores inyectados%n",
+                    productos.peticiones(), productos.errores());
+            System.out.printf("Servicio de usuarios: %d peticiones, %d errores inyectados%n",
+                    usuarios.peticiones(), usuarios.errores());
+            System.out.printf("Broker en memoria: %d mensajes, %d bytes%n", broker.mensajes(), broker.bytes());
+            System.out.printf("Hilos de plataforma (incluye %d clientes de carga): pico %d, al final %d%n",
+                    config.concurrencia(), picoHilos, hilosAlFinal);
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacion(final ServicioSimulado productos,
+                                                                    final ServicioSimulado usuarios,
+                                                                    final GeneradorTokens tokens,
+                                                                    final ConfiguracionCarga.Modo modo) {
+        SpringApplication aplicacion = new SpringApplication(PurchaseOrderApplication.class, CargaConfig.class);
+        return aplicacion.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + (modo == ConfiguracionCarga.Modo.VIRTUAL),
+                "--jwt.secret=" + tokens.claveBase64(),
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.product-service[0].uri=" + productos.url(),
+                "--spring.cloud.discovery.client.simple.instances.user-service[0].uri=" + usuarios.url(),
+                "--spring.datasource.url=jdbc:h2:mem:carga;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.hikari.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database=h2",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--management.health.rabbit.enabled=false",
+                "--ordenes.outbox.relay.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.cloud.loadbalancer=WARN",
+                "--logging.level.org.springframework.cloud.netflix.eureka=WARN",
+                "--logging.level.org.springframework.web.reactive.function.client=WARN");
+    }
+
+    private static void ejecutar(final ConfiguracionCarga config, final URI endpoint, final List<String> tokensClientes,
+                                 final Duration duracion, final ReporteCarga reporte) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long fin = System.nanoTime() + duracion.toNanos();
+        try (ExecutorService clientes = Executors.newFixedThreadPool(config.concurrencia())) {
+            for (int i = 0; i < config.concurrencia(); i++) {
+                ReporteCarga.Registro registro = reporte != null ? reporte.registro(i) : null;
+                clientes.execute(() -> {
+                    while (System.nanoTime() < fin) {
+                        String token = tokensClientes.get(ThreadLocalRandom.current().nextInt(tokensClientes.size()));
+                        HttpRequest peticion = HttpRequest.newBuilder(endpoint)
+                                .header("Authorization", "Bearer " + token)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(crearOrden(config)))
+                                .build();
+                        long inicio = System.nanoTime();
+                        int estado;
+                        try {
+                            estado = http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            estado = -1;
+                        }
+                        if (registro != null) {
+                            registro.agregar(System.nanoTime() - inicio);
+                            reporte.contarEstado(estado);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private static String crearOrden(final ConfiguracionCarga config) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int lineas = elegirLineas(config.mezcla(), random);
+        StringBuilder json = new StringBuilder("{\"productos\": [");
+        for (int i = 0; i < lineas; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"producto\": \"Producto-").append(random.nextInt(config.catalogo()))
+                    .append("\", \"cantidad\": ").append(random.nextInt(1, 4)).append('}');
+        }
+        String expiracion = YearMonth.now().plusYears(2).format(DateTimeFormatter.ofPattern("MM/yy"));
+        return json.append("], \"metodoPago\": {\"metodoPago\": \"VISA\", \"numeroTarjeta\": \"1234567812345678\",")
+                .append(" \"fechaExpiracion\": \"").append(expiracion).append("\", \"cvv\": \"123\",")
+                .append(" \"nombreTitular\": \"Cliente de carga\"}}")
+                .toString();
+    }
+
+    private static int elegirLineas(final Map<Integer, Integer> mezcla, final ThreadLocalRandom random) {
+        int total = mezcla.values().stream().mapToInt(Integer::intValue).sum();
+        int valor = random.nextInt(total);
+        for (Map.Entry<Integer, Integer> entrada : mezcla.entrySet()) {
+            valor -= entrada.getValue();
+            if (valor < 0) {
+                return entrada.getKey();
+            }
+        }
+        return mezcla.keySet().iterator().next();
+    }
+}
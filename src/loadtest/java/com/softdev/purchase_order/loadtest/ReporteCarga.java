@@ -0,0 +1,107 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula las latencias y los códigos de respuesta de la prueba de carga y calcula el reporte.
+ * Cada cliente simultáneo registra en su propio buffer para no competir por un bloqueo.
+ */
+public final class ReporteCarga {
+
+    /**
+     * Latencias registradas por un cliente, en nanosegundos.
+     */
+    public static final class Registro {
+        private long[] latencias = new long[1024];
+        private int total;
+
+        /**
+         * Registra la latencia de una petición.
+         *
+         * @param nanos Latencia en nanosegundos.
+         */
+        public void agregar(final long nanos) {
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = nanos;
+        }
+    }
+
+    private final Registro[] registros;
+    private final Map<Integer, LongAdder> estados = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el reporte con un registro por cliente simultáneo.
+     *
+     * @param clientes Número de clientes simultáneos.
+     */
+    public ReporteCarga(final int clientes) {
+        registros = new Registro[clientes];
+        for (int i = 0; i < clientes; i++) {
+            registros[i] = new Registro();
+        }
+    }
+
+    /**
+     * Registro del cliente indicado.
+     *
+     * @param cliente Índice del cliente.
+     * @return Su registro.
+     */
+    public Registro registro(final int cliente) {
+        return registros[cliente];
+    }
+
+    /**
+     * Cuenta una respuesta con el código de estado indicado; -1 indica un error de conexión.
+     *
+     * @param estado Código de estado HTTP.
+     */
+    public void contarEstado(final int estado) {
+        estados.computeIfAbsent(estado, e -> new LongAdder()).increment();
+    }
+
+    /**
+     * Genera el texto del reporte.
+     *
+     * @param duracion Duración de la medición.
+     * @return El reporte.
+     */
+    public String generar(final Duration duracion) {
+        int total = 0;
+        for (Registro registro : registros) {
+            total += registro.total;
+        }
+        long[] todas = new long[total];
+        int posicion = 0;
+        for (Registro registro : registros) {
+            System.arraycopy(registro.latencias, 0, todas, posicion, registro.total);
+            posicion += registro.total;
+        }
+        Arrays.sort(todas);
+
+        StringBuilder reporte = new StringBuilder();
+        double segundos = duracion.toMillis() / 1000.0;
+        reporte.append(String.format("Peticiones: %d en %.1f s (%.1f ord/s)%n", total, segundos, total / segundos));
+        Map<Integer, Long> porEstado = new TreeMap<>();
+        estados.forEach((estado, cuenta) -> porEstado.put(estado, cuenta.sum()));
+        reporte.append("Respuestas por estado: ").append(porEstado).append(System.lineSeparator());
+        if (total > 0) {
+            reporte.append(String.format("Latencia (ms): p50=%.2f p90=%.2f p95=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                    percentil(todas, 50), percentil(todas, 90), percentil(todas, 95),
+                    percentil(todas, 99), percentil(todas, 99.9), todas[total - 1] / 1e6));
+        }
+        return reporte.toString();
+    }
+
+    private static double percentil(final long[] ordenadas, final double percentil) {
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,142 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servicio HTTP simulado en proceso, con latencia y errores configurables.
+ * Atiende cada petición en un hilo virtual, de modo que la latencia simulada no limita la concurrencia.
+ */
+public final class ServicioSimulado implements AutoCloseable {
+
+    /**
+     * Respuesta de un manejador: código de estado y cuerpo JSON, vacío si no hay cuerpo.
+     *
+     * @param estado Código de estado HTTP.
+     * @param cuerpo Cuerpo JSON de la respuesta.
+     */
+    public record Respuesta(int estado, String cuerpo) {
+    }
+
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConfiguracionCarga.ComportamientoStub comportamiento;
+    private final LongAdder peticiones = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+
+    /**
+     * Crea el servicio en un puerto libre de localhost.
+     *
+     * @param comportamientoParam Latencia y tasa de error del servicio.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public ServicioSimulado(final ConfiguracionCarga.ComportamientoStub comportamientoParam) throws IOException {
+        this.comportamiento = comportamientoParam;
+        this.servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.servidor.setExecutor(ejecutor);
+    }
+
+    /**
+     * Registra un manejador para las rutas que empiezan por el prefijo indicado.
+     *
+     * @param prefijo Prefijo de la ruta.
+     * @param manejador Función que recibe la petición y devuelve la respuesta.
+     * @return Este servicio.
+     */
+    public ServicioSimulado ruta(final String prefijo, final Function<HttpExchange, Respuesta> manejador) {
+        servidor.createContext(prefijo, exchange -> atender(exchange, manejador));
+        return this;
+    }
+
+    /**
+     * Inicia el servicio.
+     *
+     * @return Este servicio.
+     */
+    public ServicioSimulado iniciar() {
+        servidor.start();
+        return this;
+    }
+
+    /**
+     * URL base del servicio.
+     *
+     * @return La URL, por ejemplo http://127.0.0.1:41234.
+     */
+    public String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    /**
+     * Número de peticiones atendidas.
+     *
+     * @return Peticiones atendidas.
+     */
+    public long peticiones() {
+        return peticiones.sum();
+    }
+
+    /**
+     * Número de errores inyectados.
+     *
+     * @return Errores inyectados.
+     */
+    public long errores() {
+        return errores.sum();
+    }
+
+    private void atender(final HttpExchange exchange, final Function<HttpExchange, Respuesta> manejador) throws IOException {
+        peticiones.increment();
+        try (exchange) {
+            esperarLatencia();
+            Respuesta respuesta;
+            if (ThreadLocalRandom.current().nextDouble() < comportamiento.tasaError()) {
+                errores.increment();
+                respuesta = new Respuesta(503, "");
+            } else {
+                respuesta = manejador.apply(exchange);
+            }
+            byte[] cuerpo = respuesta.cuerpo().getBytes(StandardCharsets.UTF_8);
+            if (cuerpo.length > 0) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+            }
+            exchange.sendResponseHeaders(respuesta.estado(), cuerpo.length > 0 ? cuerpo.length : -1);
+            if (cuerpo.length > 0) {
+                try (OutputStream salida = exchange.getResponseBody()) {
+                    salida.write(cuerpo);
+                }
+            }
+        }
+    }
+
+    private void esperarLatencia() {
+        long latencia = comportamiento.latencia().toNanos();
+        long variacion = comportamiento.variacion().toNanos();
+        if (variacion > 0) {
+            latencia += ThreadLocalRandom.current().nextLong(variacion);
+        }
+        if (latencia > 0) {
+            try {
+                Thread.sleep(latencia / 1_000_000, (int) (latencia % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        ejecutor.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.softdev.purchase_order.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Crea los servicios de productos y usuarios simulados con las rutas que usan los adaptadores.
+ * Todos los productos existen, tienen stock de sobra y cuestan lo mismo, de modo que las órdenes
+ * solo fallan por los errores inyectados.
+ */
+public final class ServiciosSimulados {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String PRECIO = "10.50";
+    private static final int STOCK = 1_000_000;
+
+    private ServiciosSimulados() {
+    }
+
+    /**
+     * Crea e inicia el servicio de productos simulado.
+     *
+     * @param comportamiento Latencia y tasa de error del servicio.
+     * @return El servicio iniciado.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public static ServicioSimulado productos(final ConfiguracionCarga.ComportamientoStub comportamiento) throws IOException {
+        return new ServicioSimulado(comportamiento)
+                .ruta("/producto/cotizar", ServiciosSimulados::cotizar)
+                .ruta("/producto/existe/", exchange -> new ServicioSimulado.Respuesta(200, "{\"existe\": true}"))
+                .ruta("/producto/stock/reservar", exchange -> new ServicioSimulado.Respuesta(200,
+                        "{\"idReserva\": \"" + UUID.randomUUID() + "\"}"))
+                .ruta("/producto/stock/reservas/", exchange -> new ServicioSimulado.Respuesta(200, ""))
+                .ruta("/producto/stock/actualizar", exchange -> new ServicioSimulado.Respuesta(200, ""))
+                .ruta("/producto/stock/", exchange -> new ServicioSimulado.Respuesta(200, "{\"stock\": " + STOCK + "}"))
+                .ruta("/producto/precio/", exchange -> new ServicioSimulado.Respuesta(200,
+                        "{\"nombre\": \"" + ultimoSegmento(exchange) + "\", \"precio\": " + PRECIO + "}"))
+                .iniciar();
+    }
+
+    /**
+     * Crea e inicia el servicio de usuarios simulado.
+     *
+     * @param comportamiento Latencia y tasa de error del servicio.
+     * @return El servicio iniciado.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public static ServicioSimulado usuarios(final ConfiguracionCarga.ComportamientoStub comportamiento) throws IOException {
+        return new ServicioSimulado(comportamiento)
+                .ruta("/usuario/buscar/", exchange -> {
+                    String email = ultimoSegmento(exchange);
+                    return new ServicioSimulado.Respuesta(200, "{\"email\": \"" + email + "\", \"nombre\": \"Cliente de carga\","
+                            + " \"dni\": \"12345678\", \"direccion\": \"Calle 1 # 2-3\"}");
+                })
+                .iniciar();
+    }
+
+    private static ServicioSimulado.Respuesta cotizar(final HttpExchange exchange) {
+        try (InputStream cuerpo = exchange.getRequestBody()) {
+            List<Map<String, Object>> lineas = MAPPER.readValue(cuerpo, new TypeReference<>() { });
+            StringBuilder json = new StringBuilder("[");
+            for (Map<String, Object> linea : lineas) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append("{\"nombre\": \"").append(linea.get("nombre"))
+                        .append("\", \"existe\": true, \"stock\": ").append(STOCK)
+                        .append(", \"precio\": ").append(PRECIO).append('}');
+            }
+            return new ServicioSimulado.Respuesta(200, json.append(']').toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String ultimoSegmento(final HttpExchange exchange) {
+        String ruta = exchange.getRequestURI().getPath();
+        return ruta.substring(ruta.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Prueba de carga de extremo a extremo del endpoint de órdenes, con servicios simulados en proceso.
+ */
+package com.softdev.purchase_order.loadtest;
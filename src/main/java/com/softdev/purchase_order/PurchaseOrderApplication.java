@@ -2,8 +2,10 @@ package com.softdev.purchase_order;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PurchaseOrderApplication {
     /**
      * Método principal que inicia purchase-order.
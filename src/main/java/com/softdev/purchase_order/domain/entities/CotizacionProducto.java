@@ -0,0 +1,40 @@
+package com.softdev.purchase_order.domain.entities;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Clase que representa la cotización de un producto: existencia, stock disponible y precio.
+ */
+@AllArgsConstructor
+@Data
+public class CotizacionProducto {
+    /**
+     * Nombre del producto cotizado.
+     */
+    private String nombreProducto;
+    /**
+     * Indica si el producto existe en el catálogo.
+     */
+    private boolean existe;
+    /**
+     * Stock disponible del producto al momento de la cotización.
+     */
+    private int stockDisponible;
+    /**
+     * Precio unitario del producto.
+     */
+    private BigDecimal precioUnitario;
+
+    /**
+     * Verifica si el stock disponible alcanza para la cantidad solicitada.
+     *
+     * @param cantidad Cantidad solicitada.
+     * @return true si el producto existe y hay suficiente stock, false en caso contrario.
+     */
+    public boolean tieneStockPara(final int cantidad) {
+        return existe && stockDisponible >= cantidad;
+    }
+}
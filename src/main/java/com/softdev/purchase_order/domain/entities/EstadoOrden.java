@@ -4,6 +4,14 @@ package com.softdev.purchase_order.domain.entities;
  * Enum que representa los diferentes estados de una orden.
  */
 public enum EstadoOrden {
+    /**
+     * Orden aceptada y pendiente de validar y reservar su stock en segundo plano.
+     */
+    PENDIENTE,
+    /**
+     * Orden aceptada en segundo plano que no se pudo completar.
+     */
+    RECHAZADA,
     /**
      * Orden creada pero no procesada.
      */
@@ -0,0 +1,16 @@
+package com.softdev.purchase_order.domain.repositories;
+
+import com.softdev.purchase_order.domain.entities.Orden;
+
+/**
+ * Interfaz que define la bandeja de salida de eventos de órdenes.
+ * Los eventos se registran en la misma transacción que la orden y se publican después.
+ */
+public interface OrdenOutboxPort {
+    /**
+     * Registra el evento de una orden creada para publicarlo después de confirmar la transacción.
+     *
+     * @param orden La orden creada.
+     */
+    void registrarOrdenCreada(Orden orden);
+}
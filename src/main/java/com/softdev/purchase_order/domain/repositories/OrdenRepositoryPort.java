@@ -1,6 +1,8 @@
 package com.softdev.purchase_order.domain.repositories;
 
 import com.softdev.purchase_order.domain.entities.Orden;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,6 +18,13 @@ public interface OrdenRepositoryPort {
      * @return La orden guardada.
      */
     Orden save(Orden orden);
+    /**
+     * Actualiza una orden existente, reemplazando sus datos y sus detalles.
+     *
+     * @param orden La orden con los datos actualizados.
+     * @return La orden actualizada.
+     */
+    Orden actualizar(Orden orden);
     /**
      * Busca una orden por su ID.
      *
@@ -23,4 +32,27 @@ public interface OrdenRepositoryPort {
      * @return Un objeto Optional que contiene la orden si se encuentra, o vacío si no se encuentra.
      */
     Optional<Orden> findById(UUID id);
+    /**
+     * Busca una orden por su ID junto con sus detalles, en una sola consulta.
+     *
+     * @param id El ID de la orden a buscar.
+     * @return Un objeto Optional que contiene la orden con sus detalles, o vacío si no se encuentra.
+     */
+    Optional<Orden> findConDetallesById(UUID id);
+    /**
+     * Busca la versión de una orden, que cambia cada vez que la orden se actualiza, sin cargar la orden.
+     *
+     * @param id El ID de la orden a buscar.
+     * @return Un objeto Optional que contiene la versión de la orden, o vacío si no se encuentra.
+     */
+    Optional<Long> findVersionById(UUID id);
+    /**
+     * Busca las órdenes que siguen pendientes desde antes de la fecha indicada, de la más antigua a la
+     * más reciente.
+     *
+     * @param antesDe Fecha límite del pedido.
+     * @param limite Número máximo de órdenes a devolver.
+     * @return Los IDs de las órdenes pendientes.
+     */
+    List<UUID> findIdsPendientes(LocalDateTime antesDe, int limite);
 }
@@ -1,6 +1,9 @@
 package com.softdev.purchase_order.domain.repositories;
 
 import java.math.BigDecimal;
+import java.util.Map;
+
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
 
 /**
  * Interfaz que define el caso de uso para verificar y actualizar el stock de productos.
@@ -35,4 +38,32 @@ public interface ProductoServicePort {
      * @return El precio del producto.
      */
     BigDecimal obtenerPrecio(String nombreProducto);
+    /**
+     * Cotiza en una sola llamada la existencia, el stock y el precio de varios productos.
+     *
+     * @param cantidades Cantidad solicitada por nombre de producto.
+     * @return Las cotizaciones de los productos, indexadas por nombre.
+     */
+    Map<String, CotizacionProducto> cotizarProductos(Map<String, Integer> cantidades);
+    /**
+     * Reserva en una sola operación el stock de todos los productos de una orden.
+     * La reserva es atómica: si algún producto no tiene stock suficiente no se reserva ninguno.
+     *
+     * @param cantidades Cantidad a reservar por nombre de producto.
+     * @return El identificador de la reserva.
+     * @throws RuntimeException Si no se puede reservar el stock de todos los productos.
+     */
+    String reservarStock(Map<String, Integer> cantidades);
+    /**
+     * Confirma una reserva, descontando definitivamente el stock reservado.
+     *
+     * @param idReserva El identificador de la reserva.
+     */
+    void confirmarReserva(String idReserva);
+    /**
+     * Libera una reserva, devolviendo el stock reservado.
+     *
+     * @param idReserva El identificador de la reserva.
+     */
+    void liberarReserva(String idReserva);
 }
@@ -0,0 +1,42 @@
+package com.softdev.purchase_order.domain.repositories;
+
+import java.util.Map;
+
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión no bloqueante de las operaciones de {@link ProductoServicePort} usadas al realizar una orden.
+ * Los resultados se entregan cuando responde el servicio de productos, sin ocupar un hilo mientras tanto.
+ */
+public interface ProductoServiceReactivoPort {
+    /**
+     * Cotiza en una sola llamada la existencia, el stock y el precio de varios productos.
+     *
+     * @param cantidades Cantidad solicitada por nombre de producto.
+     * @return Las cotizaciones de los productos, indexadas por nombre.
+     */
+    Mono<Map<String, CotizacionProducto>> cotizarProductosReactivo(Map<String, Integer> cantidades);
+    /**
+     * Reserva en una sola operación el stock de todos los productos de una orden.
+     *
+     * @param cantidades Cantidad a reservar por nombre de producto.
+     * @return El identificador de la reserva, o un error si no se puede reservar el stock de todos los productos.
+     */
+    Mono<String> reservarStockReactivo(Map<String, Integer> cantidades);
+    /**
+     * Confirma una reserva, descontando definitivamente el stock reservado.
+     *
+     * @param idReserva El identificador de la reserva.
+     * @return Una señal de finalización.
+     */
+    Mono<Void> confirmarReservaReactivo(String idReserva);
+    /**
+     * Libera una reserva, devolviendo el stock reservado.
+     *
+     * @param idReserva El identificador de la reserva.
+     * @return Una señal de finalización.
+     */
+    Mono<Void> liberarReservaReactivo(String idReserva);
+}
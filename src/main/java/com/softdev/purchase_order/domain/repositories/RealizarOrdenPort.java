@@ -3,6 +3,8 @@ package com.softdev.purchase_order.domain.repositories;
 import com.softdev.purchase_order.domain.entities.Orden;
 import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
 
+import java.util.UUID;
+
 /**
  * Interfaz que define el caso de uso para realizar una orden.
  */
@@ -15,4 +17,31 @@ public interface RealizarOrdenPort {
      * @return La orden realizada.
      */
     Orden realizarOrden(RealizarOrdenRequest request, String emailCliente);
+
+    /**
+     * Acepta una orden sin consultar otros servicios y la guarda en estado pendiente,
+     * para completarla después con {@link #procesarOrdenPendiente(UUID)}.
+     *
+     * @param request La solicitud para realizar la orden.
+     * @param emailCliente El correo electrónico del cliente que realiza la orden.
+     * @return La orden pendiente guardada.
+     */
+    Orden aceptarOrden(RealizarOrdenRequest request, String emailCliente);
+
+    /**
+     * Completa una orden pendiente: valida los productos, reserva el stock y registra su evento.
+     * Si la orden no se puede completar queda rechazada.
+     *
+     * @param idOrden El ID de la orden pendiente.
+     * @return La orden creada o rechazada.
+     */
+    Orden procesarOrdenPendiente(UUID idOrden);
+
+    /**
+     * Rechaza una orden que sigue pendiente, por ejemplo porque no se pudo completar dentro del plazo.
+     *
+     * @param idOrden El ID de la orden pendiente.
+     * @return La orden rechazada, o la orden actual si ya no estaba pendiente.
+     */
+    Orden rechazarOrdenPendiente(UUID idOrden);
 }
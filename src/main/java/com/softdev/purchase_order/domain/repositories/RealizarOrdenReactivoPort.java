@@ -0,0 +1,20 @@
+package com.softdev.purchase_order.domain.repositories;
+
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Interfaz que define el caso de uso no bloqueante para realizar una orden.
+ */
+public interface RealizarOrdenReactivoPort {
+    /**
+     * Realiza una orden y la guarda en el repositorio sin bloquear el hilo que la solicita.
+     *
+     * @param request La solicitud para realizar la orden.
+     * @param emailCliente El correo electrónico del cliente que realiza la orden.
+     * @return La orden realizada.
+     */
+    Mono<Orden> realizarOrden(RealizarOrdenRequest request, String emailCliente);
+}
@@ -0,0 +1,18 @@
+package com.softdev.purchase_order.domain.repositories;
+
+import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión no bloqueante de {@link UsuarioServicePort}.
+ */
+public interface UsuarioServiceReactivoPort {
+    /**
+     * Obtiene la información de un usuario por su correo electrónico.
+     *
+     * @param email El correo electrónico del usuario.
+     * @return La información del usuario, o vacío si el servicio no la devuelve.
+     */
+    Mono<UsuarioResponse> obtenerUsuarioReactivo(String email);
+}
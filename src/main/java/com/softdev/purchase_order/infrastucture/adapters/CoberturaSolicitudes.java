@@ -0,0 +1,241 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Solicitudes con cobertura para lecturas idempotentes.
+ * Si la solicitud no responde dentro de un retraso igual a un percentil de las latencias recientes,
+ * se envía una segunda solicitud igual y se usa la primera respuesta; la otra se cancela. Con el
+ * balanceador por turnos, la segunda solicitud va a otra instancia del servicio, de modo que una
+ * instancia lenta no domina la latencia de cola. Las coberturas están limitadas a una fracción de
+ * las solicitudes para no duplicar la carga cuando todo el servicio está lento.
+ */
+public final class CoberturaSolicitudes {
+
+    /**
+     * Número de latencias recientes usadas para calcular el percentil.
+     */
+    private static final int MUESTRAS = 512;
+    /**
+     * Cada cuántas muestras se recalcula el retraso.
+     */
+    private static final int RECALCULO = 64;
+    /**
+     * Valor de un permiso de cobertura en milésimas.
+     */
+    private static final long PERMISO = 1000;
+    /**
+     * Máximo de permisos acumulados, para limitar las ráfagas de coberturas.
+     */
+    private static final long MAX_PERMISOS = 10 * PERMISO;
+    /**
+     * Percentil por defecto, el mismo de la propiedad productos.cobertura.percentil.
+     */
+    static final double PERCENTIL_POR_DEFECTO = 0.95;
+    /**
+     * Nanosegundos en un milisegundo, para publicar el retraso en milisegundos.
+     */
+    private static final double NANOS_POR_MILISEGUNDO = 1_000_000.0;
+
+    /**
+     * Indica si la cobertura está habilitada.
+     */
+    private final boolean habilitada;
+    /**
+     * Percentil de las latencias usado como retraso, entre 0 y 1.
+     */
+    private final double percentil;
+    /**
+     * Retraso mínimo antes de enviar una cobertura, en nanosegundos.
+     */
+    private final long retrasoMinimo;
+    /**
+     * Milésimas de permiso que aporta cada solicitud: la fracción máxima de solicitudes con cobertura.
+     */
+    private final long aportePorSolicitud;
+    /**
+     * Latencias recientes en nanosegundos, en un búfer circular.
+     */
+    private final AtomicLongArray latencias = new AtomicLongArray(MUESTRAS);
+    /**
+     * Número total de latencias registradas.
+     */
+    private final AtomicLong registradas = new AtomicLong();
+    /**
+     * Permisos de cobertura disponibles, en milésimas.
+     */
+    private final AtomicLong permisos = new AtomicLong(MAX_PERMISOS);
+    /**
+     * Retraso actual antes de enviar una cobertura, en nanosegundos.
+     */
+    private volatile long retraso;
+    /**
+     * Número de coberturas enviadas.
+     */
+    private final Counter enviadas;
+    /**
+     * Número de coberturas que respondieron antes que la solicitud original.
+     */
+    private final Counter ganadas;
+
+    /**
+     * Constructor que inicializa la cobertura y registra sus métricas.
+     *
+     * @param registry Registro de métricas de Micrometer, o null para no publicarlas.
+     * @param nombre Prefijo de las métricas.
+     * @param habilitadaParam Indica si la cobertura está habilitada.
+     * @param percentilParam Percentil de las latencias usado como retraso, entre 0 y 1.
+     * @param retrasoInicial Retraso usado hasta reunir suficientes latencias.
+     * @param retrasoMinimoParam Retraso mínimo antes de enviar una cobertura.
+     * @param tasaMaxima Fracción máxima de solicitudes con cobertura, entre 0 y 1.
+     */
+    public CoberturaSolicitudes(final MeterRegistry registry, final String nombre, final boolean habilitadaParam,
+                                final double percentilParam, final Duration retrasoInicial,
+                                final Duration retrasoMinimoParam, final double tasaMaxima) {
+        this.habilitada = habilitadaParam;
+        this.percentil = Math.min(1.0, Math.max(0.0, percentilParam));
+        this.retrasoMinimo = retrasoMinimoParam.toNanos();
+        this.retraso = Math.max(retrasoInicial.toNanos(), retrasoMinimo);
+        this.aportePorSolicitud = Math.round(Math.min(1.0, Math.max(0.0, tasaMaxima)) * PERMISO);
+        MeterRegistry metricas = registry != null ? registry : new SimpleMeterRegistry();
+        this.enviadas = Counter.builder(nombre + ".cobertura.enviadas")
+                .description("Solicitudes repetidas por no responder dentro del retraso de cobertura")
+                .register(metricas);
+        this.ganadas = Counter.builder(nombre + ".cobertura.ganadas")
+                .description("Solicitudes repetidas que respondieron antes que la original")
+                .register(metricas);
+        Gauge.builder(nombre + ".cobertura.retraso", this, c -> c.retraso / NANOS_POR_MILISEGUNDO)
+                .description("Retraso actual antes de repetir una solicitud, en milisegundos")
+                .register(metricas);
+    }
+
+    /**
+     * Crea una cobertura deshabilitada, que ejecuta cada solicitud una sola vez. El percentil no se usa
+     * mientras la cobertura está deshabilitada; la cobertura configurada lo lee de productos.cobertura.percentil.
+     *
+     * @return La cobertura deshabilitada.
+     */
+    public static CoberturaSolicitudes deshabilitada() {
+        return new CoberturaSolicitudes(null, "deshabilitada", false, PERCENTIL_POR_DEFECTO, Duration.ZERO,
+                Duration.ZERO, 0);
+    }
+
+    /**
+     * Ejecuta una lectura con cobertura. Los errores de la solicitud original antes del retraso se
+     * propagan de inmediato; después, se usa la primera respuesta exitosa de cualquiera de las dos.
+     *
+     * @param lectura Proveedor de la solicitud; se invoca una vez por intento.
+     * @param <T> Tipo del resultado.
+     * @return La lectura con cobertura.
+     */
+    public <T> Mono<T> ejecutar(final Supplier<Mono<T>> lectura) {
+        if (!habilitada) {
+            return lectura.get();
+        }
+        return Mono.defer(() -> {
+            acumularPermiso();
+            long inicio = System.nanoTime();
+            Sinks.One<Boolean> terminada = Sinks.one();
+            Mono<T> original = lectura.get()
+                    .doFinally(senal -> {
+                        terminada.tryEmitValue(true);
+                        if (senal != SignalType.ON_ERROR) {
+                            registrarLatencia(System.nanoTime() - inicio);
+                        }
+                    });
+            Mono<T> cobertura = Mono.delay(Duration.ofNanos(retraso))
+                    .takeUntilOther(terminada.asMono())
+                    .filter(t -> tomarPermiso())
+                    .flatMap(t -> {
+                        enviadas.increment();
+                        return lectura.get().doOnNext(valor -> ganadas.increment());
+                    });
+            return Mono.firstWithValue(original, cobertura)
+                    .onErrorResume(NoSuchElementException.class, CoberturaSolicitudes::primerError);
+        });
+    }
+
+    /**
+     * Obtiene el retraso actual antes de enviar una cobertura.
+     *
+     * @return El retraso.
+     */
+    public Duration getRetraso() {
+        return Duration.ofNanos(retraso);
+    }
+
+    /**
+     * Registra la latencia de una solicitud original y recalcula el retraso periódicamente.
+     * Las solicitudes canceladas porque ganó la cobertura se registran con el tiempo transcurrido,
+     * para que el percentil refleje a las instancias lentas.
+     *
+     * @param nanos Latencia en nanosegundos.
+     */
+    void registrarLatencia(final long nanos) {
+        long indice = registradas.getAndIncrement();
+        latencias.set((int) (indice % MUESTRAS), nanos);
+        if ((indice + 1) % RECALCULO == 0) {
+            recalcularRetraso(Math.min(indice + 1, MUESTRAS));
+        }
+    }
+
+    /**
+     * Cuando ningún intento responde con un valor, propaga el error de la solicitud original,
+     * o termina vacío si los intentos terminaron sin valor.
+     *
+     * @param e El error de la carrera entre intentos.
+     * @param <T> Tipo del resultado.
+     * @return El error original, o vacío.
+     */
+    private static <T> Mono<T> primerError(final NoSuchElementException e) {
+        List<Throwable> errores = new ArrayList<>(Exceptions.unwrapMultiple(e.getCause()));
+        errores.addAll(Arrays.asList(e.getSuppressed()));
+        for (Throwable error : errores) {
+            if (!(error instanceof NoSuchElementException)) {
+                return Mono.error(error);
+            }
+        }
+        return Mono.empty();
+    }
+
+    private void recalcularRetraso(final long disponibles) {
+        long[] copia = new long[(int) disponibles];
+        for (int i = 0; i < copia.length; i++) {
+            copia[i] = latencias.get(i);
+        }
+        Arrays.sort(copia);
+        int posicion = (int) Math.min(copia.length - 1, Math.ceil(percentil * copia.length) - 1);
+        retraso = Math.max(retrasoMinimo, copia[Math.max(0, posicion)]);
+    }
+
+    private void acumularPermiso() {
+        permisos.accumulateAndGet(aportePorSolicitud, (actual, aporte) -> Math.min(MAX_PERMISOS, actual + aporte));
+    }
+
+    private boolean tomarPermiso() {
+        long actual = permisos.get();
+        while (actual >= PERMISO) {
+            if (permisos.compareAndSet(actual, actual - PERMISO)) {
+                return true;
+            }
+            actual = permisos.get();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Indica si el error de una llamada cuenta como fallo del servicio para su circuit breaker.
+ * Solo cuentan los errores 5xx, los errores de conexión y los tiempos agotados: las respuestas 4xx
+ * (producto inexistente, stock insuficiente) son respuestas válidas de un servicio sano.
+ * Se configura en resilience4j.circuitbreaker.configs.default.record-failure-predicate.
+ */
+public class FalloDeServicio implements Predicate<Throwable> {
+
+    /**
+     * Evalúa un error de una llamada.
+     *
+     * @param error El error de la llamada.
+     * @return true si el error cuenta como fallo del servicio.
+     */
+    @Override
+    public boolean test(final Throwable error) {
+        if (error instanceof WebClientResponseException respuesta) {
+            return respuesta.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,61 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
+import com.softdev.purchase_order.infrastucture.entities.OrdenOutboxEntity;
+import com.softdev.purchase_order.infrastucture.repositories.OrdenOutboxJpaRepository;
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Adaptador para la bandeja de salida de eventos de órdenes.
+ * Guarda el mensaje de la orden en la tabla orden_outbox, dentro de la transacción en curso.
+ */
+@Component
+public class OrdenOutboxAdapter implements OrdenOutboxPort {
+
+    /**
+     * Repositorio JPA de la bandeja de salida.
+     */
+    private final OrdenOutboxJpaRepository repository;
+    /**
+     * Mapper para serializar el mensaje en JSON.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor que inicializa el adaptador.
+     *
+     * @param repositoryParam Repositorio JPA de la bandeja de salida.
+     * @param objectMapperParam Mapper para serializar el mensaje en JSON.
+     */
+    public OrdenOutboxAdapter(final OrdenOutboxJpaRepository repositoryParam, final ObjectMapper objectMapperParam) {
+        this.repository = repositoryParam;
+        this.objectMapper = objectMapperParam;
+    }
+
+    /**
+     * Registra el mensaje de una orden creada en la bandeja de salida.
+     *
+     * @param orden La orden creada.
+     */
+    @Override
+    public void registrarOrdenCreada(final Orden orden) {
+        OrdenOutboxEntity entity = new OrdenOutboxEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setOrdenId(orden.getId());
+        entity.setFechaCreacion(LocalDateTime.now());
+        try {
+            entity.setPayload(objectMapper.writeValueAsString(OrdenConDetallesDTO.from(orden)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error al serializar el evento de la orden " + orden.getId(), e);
+        }
+        repository.save(entity);
+    }
+}
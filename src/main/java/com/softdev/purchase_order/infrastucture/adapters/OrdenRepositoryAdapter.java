@@ -5,14 +5,22 @@ import com.softdev.purchase_order.domain.entities.MetodoPago;
 import com.softdev.purchase_order.domain.entities.Orden;
 import com.softdev.purchase_order.domain.entities.EstadoOrden;
 import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
+import com.softdev.purchase_order.infrastucture.cache.FacturaCache;
 import com.softdev.purchase_order.infrastucture.entities.DetalleOrdenEntity;
 import com.softdev.purchase_order.infrastucture.entities.MetodoPagoEmbeddable;
 import com.softdev.purchase_order.infrastucture.entities.OrdenEntity;
 import com.softdev.purchase_order.infrastucture.repositories.SpringDataOrdenRepository;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -30,16 +38,28 @@ public class OrdenRepositoryAdapter implements OrdenRepositoryPort {
     private final SpringDataOrdenRepository repository;
 
     /**
-     * Constructor que inicializa el adaptador con el repositorio de Spring Data.
+     * Caché de facturas que se invalida al actualizar una orden, o null si no hay caché de facturas.
+     */
+    private final FacturaCache facturaCache;
+
+    /**
+     * Constructor que inicializa el adaptador con el repositorio de Spring Data y la caché de facturas,
+     * que es opcional.
      *
      * @param repositoryParam Repositorio de Spring Data para la entidad Orden.
+     * @param facturaCacheParam Caché de facturas, o null si no hay caché de facturas.
      */
-    public OrdenRepositoryAdapter(final SpringDataOrdenRepository repositoryParam) {
+    @Autowired
+    public OrdenRepositoryAdapter(final SpringDataOrdenRepository repositoryParam,
+                                  final @Nullable FacturaCache facturaCacheParam) {
         this.repository = repositoryParam;
+        this.facturaCache = facturaCacheParam;
     }
 
     /**
-     * Guarda una orden en la base de datos.
+     * Guarda una orden nueva en la base de datos.
+     * La entidad mapeada es nueva, así que se inserta sin consultarla antes: un INSERT de la orden y un
+     * lote JDBC con los INSERT de sus detalles.
      *
      * @param orden La orden a guardar.
      * @return La orden guardada.
@@ -51,6 +71,31 @@ public class OrdenRepositoryAdapter implements OrdenRepositoryPort {
         return mapToDomain(savedEntity);
     }
 
+    /**
+     * Actualiza una orden existente en la base de datos, reemplazando sus detalles, e invalida su factura
+     * guardada.
+     *
+     * @param orden La orden con los datos actualizados.
+     * @return La orden actualizada.
+     */
+    @Override
+    public Orden actualizar(final Orden orden) {
+        OrdenEntity entity = repository.findById(orden.getId())
+                .orElseThrow(() -> new IllegalArgumentException("No existe la orden " + orden.getId()));
+        OrdenEntity cambios = mapToEntity(orden);
+        entity.setNombreCliente(cambios.getNombreCliente());
+        entity.setDniCliente(cambios.getDniCliente());
+        entity.setDireccion(cambios.getDireccion());
+        entity.setValorTotal(cambios.getValorTotal());
+        entity.setEstado(cambios.getEstado());
+        entity.setMetodoPago(cambios.getMetodoPago());
+        entity.getDetalles().clear();
+        cambios.getDetalles().forEach(entity::addDetalle);
+        Orden actualizada = mapToDomain(repository.save(entity));
+        invalidarFactura(orden.getId());
+        return actualizada;
+    }
+
     /**
      * Busca una orden por su ID.
      *
@@ -62,13 +107,70 @@ public class OrdenRepositoryAdapter implements OrdenRepositoryPort {
         return repository.findById(id).map(this::mapToDomain);
     }
 
+    /**
+     * Busca una orden por su ID junto con sus detalles, en una sola consulta con fetch join.
+     *
+     * @param id El ID de la orden a buscar.
+     * @return Un Optional que contiene la orden con sus detalles, o vacío si no existe.
+     */
+    @Override
+    public Optional<Orden> findConDetallesById(final UUID id) {
+        return repository.findConDetallesById(id).map(this::mapToDomain);
+    }
+
+    /**
+     * Busca la versión de una orden con una consulta de una sola columna.
+     *
+     * @param id El ID de la orden a buscar.
+     * @return Un Optional que contiene la versión de la orden, o vacío si no existe.
+     */
+    @Override
+    public Optional<Long> findVersionById(final UUID id) {
+        return repository.findVersionById(id);
+    }
+
+    /**
+     * Busca las órdenes que siguen pendientes desde antes de la fecha indicada.
+     *
+     * @param antesDe Fecha límite del pedido.
+     * @param limite Número máximo de órdenes a devolver.
+     * @return Los IDs de las órdenes pendientes, de la más antigua a la más reciente.
+     */
+    @Override
+    public List<UUID> findIdsPendientes(final LocalDateTime antesDe, final int limite) {
+        return repository.findIdsPorEstado(EstadoOrden.PENDIENTE.name(), antesDe, PageRequest.of(0, limite));
+    }
+
+    /**
+     * Invalida la factura guardada de la orden. Si hay una transacción en curso, la invalida también al
+     * terminar la transacción, porque una consulta concurrente pudo volver a guardar la factura anterior
+     * antes del commit.
+     *
+     * @param ordenId El ID de la orden.
+     */
+    private void invalidarFactura(final UUID ordenId) {
+        if (facturaCache == null) {
+            return;
+        }
+        facturaCache.invalidar(ordenId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    facturaCache.invalidar(ordenId);
+                }
+            });
+        }
+    }
+
     /**
      * Mapea una orden de dominio a una entidad de base de datos.
+     * Tiene visibilidad de paquete para poder medirlo en los benchmarks.
      *
      * @param orden La orden de dominio a mapear.
      * @return La entidad correspondiente.
      */
-    private OrdenEntity mapToEntity(final Orden orden) {
+    OrdenEntity mapToEntity(final Orden orden) {
         OrdenEntity entity = new OrdenEntity();
         entity.setId(orden.getId());
         entity.setEmailCliente(orden.getEmailCliente());
@@ -104,11 +206,12 @@ public class OrdenRepositoryAdapter implements OrdenRepositoryPort {
 
     /**
      * Mapea una entidad de orden a un objeto de dominio.
+     * Tiene visibilidad de paquete para poder medirlo en los benchmarks.
      *
      * @param entity La entidad de orden a mapear.
      * @return El objeto de dominio correspondiente.
      */
-    private Orden mapToDomain(final OrdenEntity entity) {
+    Orden mapToDomain(final OrdenEntity entity) {
         // Mapear detalles
         var detalles = entity.getDetalles().stream()
             .map(det -> new DetalleOrden(
@@ -1,22 +1,47 @@
 package com.softdev.purchase_order.infrastucture.adapters;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
 import com.softdev.purchase_order.domain.repositories.ProductoServicePort;
+import com.softdev.purchase_order.domain.repositories.ProductoServiceReactivoPort;
+import com.softdev.purchase_order.infrastucture.cache.ProductoCache;
+import com.softdev.purchase_order.infrastucture.security.JwtUtils;
+import com.softdev.purchase_order.use_cases.exceptions.OrdenRechazadaException;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Adaptador para la interfaz de servicio de productos.
  * Implementa la interfaz ProductoServicePort y utiliza WebClient para realizar llamadas HTTP.
+ * Cada llamada pasa por el circuit breaker y el bulkhead del servicio de productos.
  */
 @Component
-public class ProductoServiceAdapter implements ProductoServicePort {
+public class ProductoServiceAdapter implements ProductoServicePort, ProductoServiceReactivoPort {
+
+    /**
+     * Máximo de consultas simultáneas por orden cuando no se configura otro valor.
+     */
+    private static final int MAX_CONCURRENCIA_POR_DEFECTO = 8;
+    /**
+     * Nombre del servicio de productos en el registro de servicios y en Resilience4j.
+     */
+    static final String NOMBRE_SERVICIO = "product-service";
 
     /**
      * Cliente WebClient para realizar llamadas HTTP.
@@ -26,6 +51,26 @@ public class ProductoServiceAdapter implements ProductoServicePort {
      * URL base del servicio de productos.
      */
     private final String productoServiceUrl = "lb://product-service/producto";
+    /**
+     * Caché local de precios y existencia de productos.
+     */
+    private final ProductoCache productoCache;
+    /**
+     * Indica si se usa el endpoint de cotización en lote del servicio de productos.
+     */
+    private final boolean cotizacionEnLote;
+    /**
+     * Máximo de productos consultados en paralelo por orden cuando no se cotiza en lote.
+     */
+    private final int maxConcurrencia;
+    /**
+     * Circuit breaker, bulkhead y tiempo máximo de las llamadas al servicio de productos.
+     */
+    private final ProteccionServicio proteccion;
+    /**
+     * Cobertura de las consultas idempotentes de existencia, stock y precio.
+     */
+    private final CoberturaSolicitudes cobertura;
 
     // public ProductoServiceAdapter(final WebClient.Builder webClientBuilder) {
     //     this.productoServiceUrl = "lb://product-service/producto";
@@ -36,9 +81,76 @@ public class ProductoServiceAdapter implements ProductoServicePort {
      * Constructor que inicializa el adaptador con el cliente WebClient.
      *
      * @param client Cliente WebClient.
+     * @param cache Caché local de precios y existencia de productos.
      */
-    public ProductoServiceAdapter(final WebClient client) {
+    public ProductoServiceAdapter(final WebClient client, final ProductoCache cache) {
+        this(client, cache, true, MAX_CONCURRENCIA_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor que inicializa el adaptador con el cliente WebClient y la estrategia de cotización.
+     *
+     * @param client Cliente WebClient.
+     * @param cache Caché local de precios y existencia de productos.
+     * @param cotizacionEnLoteParam true para usar el endpoint de cotización en lote.
+     * @param maxConcurrenciaParam Máximo de productos consultados en paralelo por orden.
+     */
+    public ProductoServiceAdapter(final WebClient client,
+                                  final ProductoCache cache,
+                                  final boolean cotizacionEnLoteParam,
+                                  final int maxConcurrenciaParam) {
+        this(client, cache, cotizacionEnLoteParam, maxConcurrenciaParam, ProteccionServicio.porDefecto(NOMBRE_SERVICIO),
+                CoberturaSolicitudes.deshabilitada());
+    }
+
+    /**
+     * Constructor usado por Spring. El circuit breaker y el bulkhead del servicio se configuran en
+     * las propiedades de Resilience4j con el nombre {@value #NOMBRE_SERVICIO}.
+     *
+     * @param client Cliente WebClient.
+     * @param cache Caché local de precios y existencia de productos.
+     * @param cotizacionEnLoteParam true para usar el endpoint de cotización en lote.
+     * @param maxConcurrenciaParam Máximo de productos consultados en paralelo por orden.
+     * @param circuitBreakers Registro de circuit breakers.
+     * @param bulkheads Registro de bulkheads.
+     * @param timeout Tiempo máximo de cada llamada al servicio de productos.
+     * @param coberturaParam Cobertura de las consultas de existencia, stock y precio.
+     */
+    @Autowired
+    public ProductoServiceAdapter(final @Qualifier("productoWebClient") WebClient client,
+                                  final ProductoCache cache,
+                                  final @Value("${productos.cotizacion.lote.enabled:true}") boolean cotizacionEnLoteParam,
+                                  final @Value("${productos.cotizacion.max-concurrencia:8}") int maxConcurrenciaParam,
+                                  final CircuitBreakerRegistry circuitBreakers,
+                                  final BulkheadRegistry bulkheads,
+                                  final @Value("${productos.timeout:3s}") Duration timeout,
+                                  final CoberturaSolicitudes coberturaParam) {
+        this(client, cache, cotizacionEnLoteParam, maxConcurrenciaParam,
+                ProteccionServicio.desde(NOMBRE_SERVICIO, circuitBreakers, bulkheads, timeout), coberturaParam);
+    }
+
+    /**
+     * Constructor que inicializa el adaptador con las protecciones indicadas.
+     *
+     * @param client Cliente WebClient.
+     * @param cache Caché local de precios y existencia de productos.
+     * @param cotizacionEnLoteParam true para usar el endpoint de cotización en lote.
+     * @param maxConcurrenciaParam Máximo de productos consultados en paralelo por orden.
+     * @param proteccionParam Circuit breaker, bulkhead y tiempo máximo de las llamadas.
+     * @param coberturaParam Cobertura de las consultas de existencia, stock y precio.
+     */
+    public ProductoServiceAdapter(final WebClient client,
+                                  final ProductoCache cache,
+                                  final boolean cotizacionEnLoteParam,
+                                  final int maxConcurrenciaParam,
+                                  final ProteccionServicio proteccionParam,
+                                  final CoberturaSolicitudes coberturaParam) {
         this.webClient = client;
+        this.productoCache = cache;
+        this.cotizacionEnLote = cotizacionEnLoteParam;
+        this.maxConcurrencia = Math.max(1, maxConcurrenciaParam);
+        this.proteccion = proteccionParam;
+        this.cobertura = coberturaParam;
     }
 
     /**
@@ -49,26 +161,7 @@ public class ProductoServiceAdapter implements ProductoServicePort {
      */
     @Override
     public boolean existeProducto(final String nombreProducto) {
-        ExisteResponse response = webClient.get()
-                .uri(productoServiceUrl + "/existe/{nombre}", nombreProducto)
-                .retrieve()
-                .bodyToMono(ExisteResponse.class)
-                .block();
-
-        return response != null && response.isExiste();
-    }
-
-    /**
-     * Función para acceder al token JWT.
-     * @return el token JWT
-     */
-    private String obtenerToken() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication instanceof JwtAuthenticationToken jwtAuthToken) {
-            Jwt jwt = jwtAuthToken.getToken();
-            return jwt.getTokenValue();
-        }
-        return null;
+        return Boolean.TRUE.equals(consultarExistencia(nombreProducto).block());
     }
 
     /**
@@ -80,14 +173,8 @@ public class ProductoServiceAdapter implements ProductoServicePort {
      */
     @Override
     public boolean verificarStock(final String nombreProducto, final int cantidad) {
-        StockResponse response = webClient.get()
-                .uri(productoServiceUrl + "/stock/{nombre}", nombreProducto)
-                .header("Authorization", "Bearer " + obtenerToken())
-                .retrieve()
-                .bodyToMono(StockResponse.class)
-                .block();
-
-        return response != null && response.getStock() >= cantidad;
+        Integer stock = consultarStock(nombreProducto, JwtUtils.getToken()).block();
+        return stock != null && stock >= cantidad;
     }
 
 
@@ -101,17 +188,104 @@ public class ProductoServiceAdapter implements ProductoServicePort {
     public void actualizarStock(final String nombreProducto, final int cantidad) {
         ActualizarStockRequest request = new ActualizarStockRequest(nombreProducto, cantidad);
 
-        webClient.put()
+        proteccion.proteger(webClient.put()
             .uri(productoServiceUrl + "/stock/actualizar")
-            .header("Authorization", "Bearer " + obtenerToken())
+            .header("Authorization", "Bearer " + JwtUtils.getToken())
             .bodyValue(Map.of("nombre", nombreProducto, "cantidad", cantidad))
             .retrieve()
-            .bodyToMono(Void.class)
+            .bodyToMono(Void.class))
             .block();
 
 
     }
 
+    /**
+     * Reserva el stock de todos los productos de una orden en una sola llamada.
+     *
+     * @param cantidades Cantidad a reservar por nombre de producto.
+     * @return Identificador de la reserva.
+     * @throws OrdenRechazadaException Si el servicio de productos rechaza la reserva por falta de stock.
+     */
+    @Override
+    public String reservarStock(final Map<String, Integer> cantidades) {
+        return reservarStockReactivo(cantidades).block();
+    }
+
+    /**
+     * Reserva el stock de todos los productos de una orden en una sola llamada, sin bloquear.
+     *
+     * @param cantidades Cantidad a reservar por nombre de producto.
+     * @return Identificador de la reserva, o un error si el servicio rechaza la reserva por falta de stock.
+     */
+    @Override
+    public Mono<String> reservarStockReactivo(final Map<String, Integer> cantidades) {
+        return JwtUtils.getTokenReactivo()
+            .flatMap(token -> proteccion.proteger(webClient.post()
+                .uri(productoServiceUrl + "/stock/reservar")
+                .header("Authorization", "Bearer " + token)
+                .bodyValue(lineasDeProductos(cantidades))
+                .retrieve()
+                .bodyToMono(ReservaResponse.class)))
+            .onErrorMap(WebClientResponseException.Conflict.class,
+                e -> new OrdenRechazadaException("No hay suficiente stock para reservar los productos de la orden", e))
+            .mapNotNull(ReservaResponse::getIdReserva)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException(
+                "El servicio de productos no devolvió el identificador de la reserva")));
+    }
+
+    /**
+     * Confirma una reserva de stock.
+     *
+     * @param idReserva Identificador de la reserva.
+     */
+    @Override
+    public void confirmarReserva(final String idReserva) {
+        confirmarReservaReactivo(idReserva).block();
+    }
+
+    /**
+     * Confirma una reserva de stock sin bloquear.
+     *
+     * @param idReserva Identificador de la reserva.
+     * @return Una señal de finalización.
+     */
+    @Override
+    public Mono<Void> confirmarReservaReactivo(final String idReserva) {
+        return JwtUtils.getTokenReactivo()
+            .flatMap(token -> proteccion.proteger(webClient.post()
+                .uri(productoServiceUrl + "/stock/reservas/{id}/confirmar", idReserva)
+                .header("Authorization", "Bearer " + token)
+                .retrieve()
+                .bodyToMono(Void.class)));
+    }
+
+    /**
+     * Libera una reserva de stock. Liberar una reserva inexistente o ya liberada no es un error.
+     *
+     * @param idReserva Identificador de la reserva.
+     */
+    @Override
+    public void liberarReserva(final String idReserva) {
+        liberarReservaReactivo(idReserva).block();
+    }
+
+    /**
+     * Libera una reserva de stock sin bloquear. Liberar una reserva inexistente o ya liberada no es un error.
+     *
+     * @param idReserva Identificador de la reserva.
+     * @return Una señal de finalización.
+     */
+    @Override
+    public Mono<Void> liberarReservaReactivo(final String idReserva) {
+        return JwtUtils.getTokenReactivo()
+            .flatMap(token -> proteccion.proteger(webClient.delete()
+                .uri(productoServiceUrl + "/stock/reservas/{id}", idReserva)
+                .header("Authorization", "Bearer " + token)
+                .retrieve()
+                .bodyToMono(Void.class)))
+            .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
     /**
      * Obtiene el precio de un producto.
      *
@@ -120,14 +294,210 @@ public class ProductoServiceAdapter implements ProductoServicePort {
      */
     @Override
     public BigDecimal obtenerPrecio(final String nombreProducto) {
-        ProductoResponse response = webClient.get()
-                .uri(productoServiceUrl + "/precio/{nombre}", nombreProducto)
-                .header("Authorization", "Bearer " + obtenerToken())
+        return consultarPrecio(nombreProducto, JwtUtils.getToken()).block();
+    }
+
+    /**
+     * Cotiza varios productos. Por defecto usa el endpoint de cotización en lote; si está
+     * deshabilitado o el servicio de productos no lo expone, consulta los productos en paralelo.
+     *
+     * @param cantidades Cantidad solicitada por nombre de producto.
+     * @return Cotizaciones indexadas por nombre de producto, en el orden recibido.
+     */
+    @Override
+    public Map<String, CotizacionProducto> cotizarProductos(final Map<String, Integer> cantidades) {
+        return cotizarProductosReactivo(cantidades).block();
+    }
+
+    /**
+     * Cotiza varios productos sin bloquear, con la misma estrategia que {@link #cotizarProductos(Map)}.
+     *
+     * @param cantidades Cantidad solicitada por nombre de producto.
+     * @return Cotizaciones indexadas por nombre de producto, en el orden recibido.
+     */
+    @Override
+    public Mono<Map<String, CotizacionProducto>> cotizarProductosReactivo(final Map<String, Integer> cantidades) {
+        return JwtUtils.getTokenReactivo().flatMap(token -> cotizacionEnLote
+                ? cotizarEnLote(cantidades, token)
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> cotizarEnParalelo(cantidades, token))
+                : cotizarEnParalelo(cantidades, token));
+    }
+
+    /**
+     * Cotiza varios productos en una sola llamada al servicio de productos.
+     * Los productos con precio y existencia en la caché se cotizan sin consultarlos: su stock se da por
+     * suficiente y lo confirma la reserva en lote, que rechaza la orden si no alcanza. Solo los productos
+     * restantes se envían al servicio, y si todos están en la caché no se hace ninguna llamada.
+     * Los productos que el servicio no devuelve se consideran inexistentes.
+     *
+     * @param cantidades Cantidad solicitada por nombre de producto.
+     * @param token Token JWT del cliente.
+     * @return Cotizaciones indexadas por nombre de producto, en el orden recibido.
+     */
+    private Mono<Map<String, CotizacionProducto>> cotizarEnLote(final Map<String, Integer> cantidades, final String token) {
+        Map<String, CotizacionProducto> enCache = new HashMap<>();
+        Map<String, Integer> faltantes = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> linea : cantidades.entrySet()) {
+            CotizacionProducto cotizacion = cotizacionEnCache(linea.getKey(), linea.getValue());
+            if (cotizacion != null) {
+                enCache.put(linea.getKey(), cotizacion);
+            } else {
+                faltantes.put(linea.getKey(), linea.getValue());
+            }
+        }
+
+        Mono<List<CotizacionResponse>> respuesta = faltantes.isEmpty()
+                ? Mono.just(List.of())
+                : proteccion.proteger(webClient.post()
+                        .uri(productoServiceUrl + "/cotizar")
+                        .header("Authorization", "Bearer " + token)
+                        .bodyValue(lineasDeProductos(faltantes))
+                        .retrieve()
+                        .bodyToFlux(CotizacionResponse.class)
+                        .collectList());
+        return respuesta.map(response -> {
+            Map<String, CotizacionProducto> cotizaciones = new LinkedHashMap<>();
+            for (String nombreProducto : cantidades.keySet()) {
+                cotizaciones.put(nombreProducto, enCache.getOrDefault(nombreProducto,
+                        new CotizacionProducto(nombreProducto, false, 0, BigDecimal.ZERO)));
+            }
+            for (CotizacionResponse c : response) {
+                if (faltantes.containsKey(c.getNombre())) {
+                    cotizaciones.put(c.getNombre(), new CotizacionProducto(
+                            c.getNombre(),
+                            c.isExiste(),
+                            c.getStock(),
+                            c.getPrecio() != null ? c.getPrecio() : BigDecimal.ZERO));
+                    productoCache.guardarExistencia(c.getNombre(), c.isExiste());
+                    productoCache.guardarPrecio(c.getNombre(), c.getPrecio());
+                }
+            }
+            return cotizaciones;
+        });
+    }
+
+    /**
+     * Arma la cotización de un producto con los datos de la caché.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @param cantidad Cantidad solicitada, que se toma como stock disponible hasta la reserva.
+     * @return La cotización, o null si la caché no tiene el precio o la existencia del producto.
+     */
+    private CotizacionProducto cotizacionEnCache(final String nombreProducto, final int cantidad) {
+        BigDecimal precio = productoCache.obtenerPrecio(nombreProducto);
+        if (precio == null || !productoCache.existeProducto(nombreProducto)) {
+            return null;
+        }
+        return new CotizacionProducto(nombreProducto, true, cantidad, precio);
+    }
+
+    /**
+     * Convierte las cantidades por producto en el cuerpo que espera el servicio de productos.
+     *
+     * @param cantidades Cantidad por nombre de producto.
+     * @return Lista de líneas con nombre y cantidad.
+     */
+    private List<Map<String, Object>> lineasDeProductos(final Map<String, Integer> cantidades) {
+        return cantidades.entrySet().stream()
+                .map(e -> Map.<String, Object>of("nombre", e.getKey(), "cantidad", e.getValue()))
+                .toList();
+    }
+
+    /**
+     * Cotiza los productos consultando existencia, stock y precio de todos ellos en paralelo,
+     * con un máximo de {@code maxConcurrencia} productos en vuelo.
+     * Se detiene en cuanto un producto no existe o no tiene stock suficiente, cancelando las
+     * consultas pendientes; en ese caso el resultado solo contiene las cotizaciones completadas.
+     *
+     * @param cantidades Cantidad solicitada por nombre de producto.
+     * @param token Token JWT del cliente.
+     * @return Cotizaciones indexadas por nombre de producto, en el orden recibido.
+     */
+    private Mono<Map<String, CotizacionProducto>> cotizarEnParalelo(final Map<String, Integer> cantidades, final String token) {
+        return Flux.fromIterable(cantidades.keySet())
+                .flatMap(nombreProducto -> cotizarProducto(nombreProducto, token), maxConcurrencia)
+                .takeUntil(c -> !c.tieneStockPara(cantidades.get(c.getNombreProducto())))
+                .collectMap(CotizacionProducto::getNombreProducto)
+                .map(recibidas -> {
+                    Map<String, CotizacionProducto> cotizaciones = new LinkedHashMap<>();
+                    for (String nombreProducto : cantidades.keySet()) {
+                        if (recibidas.containsKey(nombreProducto)) {
+                            cotizaciones.put(nombreProducto, recibidas.get(nombreProducto));
+                        }
+                    }
+                    return cotizaciones;
+                });
+    }
+
+    /**
+     * Consulta en paralelo la existencia, el stock y el precio de un producto.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @param token Token JWT del cliente.
+     * @return La cotización del producto.
+     */
+    private Mono<CotizacionProducto> cotizarProducto(final String nombreProducto, final String token) {
+        return Mono.zip(
+                        consultarExistencia(nombreProducto).defaultIfEmpty(false),
+                        consultarStock(nombreProducto, token).defaultIfEmpty(0),
+                        consultarPrecio(nombreProducto, token))
+                .map(t -> new CotizacionProducto(nombreProducto, t.getT1(), t.getT2(), t.getT3()));
+    }
+
+    /**
+     * Consulta si un producto existe, usando la caché local cuando es posible.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @return true si el producto existe.
+     */
+    private Mono<Boolean> consultarExistencia(final String nombreProducto) {
+        if (productoCache.existeProducto(nombreProducto)) {
+            return Mono.just(true);
+        }
+        return cobertura.ejecutar(() -> proteccion.proteger(webClient.get()
+                .uri(productoServiceUrl + "/existe/{nombre}", nombreProducto)
+                .retrieve()
+                .bodyToMono(ExisteResponse.class)))
+                .map(ExisteResponse::isExiste)
+                .doOnNext(existe -> productoCache.guardarExistencia(nombreProducto, existe));
+    }
+
+    /**
+     * Consulta el stock disponible de un producto.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @param token Token JWT del cliente.
+     * @return Stock disponible del producto.
+     */
+    private Mono<Integer> consultarStock(final String nombreProducto, final String token) {
+        return cobertura.ejecutar(() -> proteccion.proteger(webClient.get()
+                .uri(productoServiceUrl + "/stock/{nombre}", nombreProducto)
+                .header("Authorization", "Bearer " + token)
                 .retrieve()
-                .bodyToMono(ProductoResponse.class)
-                .block();
+                .bodyToMono(StockResponse.class)))
+                .map(StockResponse::getStock);
+    }
 
-        return response != null ? response.getPrecio() : BigDecimal.ZERO;
+    /**
+     * Consulta el precio de un producto, usando la caché local cuando es posible.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @param token Token JWT del cliente.
+     * @return Precio del producto, o cero si el servicio no lo informa.
+     */
+    private Mono<BigDecimal> consultarPrecio(final String nombreProducto, final String token) {
+        BigDecimal precio = productoCache.obtenerPrecio(nombreProducto);
+        if (precio != null) {
+            return Mono.just(precio);
+        }
+        return cobertura.ejecutar(() -> proteccion.proteger(webClient.get()
+                .uri(productoServiceUrl + "/precio/{nombre}", nombreProducto)
+                .header("Authorization", "Bearer " + token)
+                .retrieve()
+                .bodyToMono(ProductoResponse.class)))
+                .mapNotNull(ProductoResponse::getPrecio)
+                .doOnNext(p -> productoCache.guardarPrecio(nombreProducto, p))
+                .defaultIfEmpty(BigDecimal.ZERO);
     }
 
     /**
@@ -325,4 +695,126 @@ public class ProductoServiceAdapter implements ProductoServicePort {
         }
 }
 
+    /**
+     * Clase interna para representar la cotización de un producto devuelta por el servicio.
+     */
+    private static class CotizacionResponse {
+        /**
+         * Nombre del producto.
+         */
+        private String nombre;
+        /**
+         * Indica si el producto existe.
+         */
+        private boolean existe;
+        /**
+         * Cantidad de stock disponible del producto.
+         */
+        private int stock;
+        /**
+         * Precio del producto.
+         */
+        private BigDecimal precio;
+
+        /**
+         * Obtiene el nombre del producto.
+         *
+         * @return Nombre del producto.
+         */
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * Establece el nombre del producto.
+         *
+         * @param nombreParam Nombre del producto.
+         */
+        public void setNombre(final String nombreParam) {
+            this.nombre = nombreParam;
+        }
+
+        /**
+         * Indica si el producto existe.
+         *
+         * @return true si el producto existe.
+         */
+        public boolean isExiste() {
+            return existe;
+        }
+
+        /**
+         * Establece si el producto existe.
+         *
+         * @param existeParam Indica si el producto existe.
+         */
+        public void setExiste(final boolean existeParam) {
+            this.existe = existeParam;
+        }
+
+        /**
+         * Obtiene la cantidad de stock disponible del producto.
+         *
+         * @return Cantidad de stock disponible.
+         */
+        public int getStock() {
+            return stock;
+        }
+
+        /**
+         * Establece la cantidad de stock disponible del producto.
+         *
+         * @param stockParam Cantidad de stock disponible.
+         */
+        public void setStock(final int stockParam) {
+            this.stock = stockParam;
+        }
+
+        /**
+         * Obtiene el precio del producto.
+         *
+         * @return Precio del producto.
+         */
+        public BigDecimal getPrecio() {
+            return precio;
+        }
+
+        /**
+         * Establece el precio del producto.
+         *
+         * @param precioParam Precio del producto.
+         */
+        public void setPrecio(final BigDecimal precioParam) {
+            this.precio = precioParam;
+        }
+    }
+
+    /**
+     * Clase interna para representar la respuesta de una reserva de stock.
+     */
+    private static class ReservaResponse {
+        /**
+         * Identificador de la reserva.
+         */
+        private String idReserva;
+
+        /**
+         * Obtiene el identificador de la reserva.
+         *
+         * @return Identificador de la reserva.
+         */
+        public String getIdReserva() {
+            return idReserva;
+        }
+
+        /**
+         * Establece el identificador de la reserva.
+         *
+         * @param idReservaParam Identificador de la reserva.
+         */
+        public void setIdReserva(final String idReservaParam) {
+            this.idReserva = idReservaParam;
+        }
+    }
+
 }
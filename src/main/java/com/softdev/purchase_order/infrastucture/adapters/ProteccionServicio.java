@@ -0,0 +1,114 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import java.time.Duration;
+
+import com.softdev.purchase_order.use_cases.exceptions.ServicioNoDisponibleException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Protecciones de las llamadas HTTP a un servicio externo: un bulkhead que limita las llamadas en
+ * curso, un tiempo máximo por llamada y un circuit breaker que deja de llamar al servicio mientras
+ * falla. Las llamadas rechazadas por el bulkhead o el circuit breaker fallan de inmediato con
+ * {@link ServicioNoDisponibleException}, en lugar de esperar a un servicio saturado.
+ */
+public final class ProteccionServicio {
+
+    /**
+     * Nombre del servicio protegido.
+     */
+    private final String nombre;
+    /**
+     * Circuit breaker del servicio.
+     */
+    private final CircuitBreaker circuitBreaker;
+    /**
+     * Bulkhead que limita las llamadas en curso al servicio.
+     */
+    private final Bulkhead bulkhead;
+    /**
+     * Tiempo máximo de cada llamada, o null para no limitarlo.
+     */
+    private final Duration timeout;
+
+    /**
+     * Constructor que inicializa las protecciones del servicio.
+     *
+     * @param nombreParam Nombre del servicio protegido.
+     * @param circuitBreakerParam Circuit breaker del servicio.
+     * @param bulkheadParam Bulkhead del servicio.
+     * @param timeoutParam Tiempo máximo de cada llamada, o null para no limitarlo.
+     */
+    public ProteccionServicio(final String nombreParam, final CircuitBreaker circuitBreakerParam,
+                              final Bulkhead bulkheadParam, final Duration timeoutParam) {
+        this.nombre = nombreParam;
+        this.circuitBreaker = circuitBreakerParam;
+        this.bulkhead = bulkheadParam;
+        this.timeout = timeoutParam;
+    }
+
+    /**
+     * Crea las protecciones de un servicio con la configuración por defecto de Resilience4j, contando
+     * como fallos solo los definidos por {@link FalloDeServicio}, y sin tiempo máximo por llamada.
+     *
+     * @param nombre Nombre del servicio protegido.
+     * @return Las protecciones del servicio.
+     */
+    public static ProteccionServicio porDefecto(final String nombre) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom().recordException(new FalloDeServicio()).build();
+        return new ProteccionServicio(nombre, CircuitBreaker.of(nombre, config), Bulkhead.ofDefaults(nombre), null);
+    }
+
+    /**
+     * Crea las protecciones de un servicio con la configuración de los registros, que se lee de las
+     * propiedades resilience4j.circuitbreaker.instances.{nombre} y resilience4j.bulkhead.instances.{nombre}.
+     *
+     * @param nombre Nombre del servicio protegido.
+     * @param circuitBreakers Registro de circuit breakers.
+     * @param bulkheads Registro de bulkheads.
+     * @param timeout Tiempo máximo de cada llamada, o null para no limitarlo.
+     * @return Las protecciones del servicio.
+     */
+    public static ProteccionServicio desde(final String nombre, final CircuitBreakerRegistry circuitBreakers,
+                                           final BulkheadRegistry bulkheads, final Duration timeout) {
+        return new ProteccionServicio(nombre, circuitBreakers.circuitBreaker(nombre), bulkheads.bulkhead(nombre), timeout);
+    }
+
+    /**
+     * Aplica las protecciones a una llamada. La llamada solo se ejecuta si el circuit breaker está
+     * cerrado y el bulkhead tiene cupo.
+     *
+     * @param llamada La llamada al servicio.
+     * @param <T> Tipo del resultado.
+     * @return La llamada protegida.
+     */
+    public <T> Mono<T> proteger(final Mono<T> llamada) {
+        Mono<T> limitada = llamada.transformDeferred(BulkheadOperator.of(bulkhead));
+        if (timeout != null) {
+            limitada = limitada.timeout(timeout);
+        }
+        return limitada.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class,
+                        e -> new ServicioNoDisponibleException("El servicio " + nombre + " no está disponible", e))
+                .onErrorMap(BulkheadFullException.class,
+                        e -> new ServicioNoDisponibleException("El servicio " + nombre + " está saturado", e));
+    }
+
+    /**
+     * Obtiene el circuit breaker del servicio.
+     *
+     * @return El circuit breaker.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
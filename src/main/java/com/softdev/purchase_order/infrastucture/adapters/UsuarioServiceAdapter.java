@@ -1,20 +1,35 @@
 package com.softdev.purchase_order.infrastucture.adapters;
 
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.softdev.purchase_order.domain.repositories.UsuarioServicePort;
+import com.softdev.purchase_order.domain.repositories.UsuarioServiceReactivoPort;
+import com.softdev.purchase_order.infrastucture.cache.UsuarioCache;
+import com.softdev.purchase_order.infrastucture.security.JwtUtils;
 import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
 
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import reactor.core.publisher.Mono;
+
 /**
  * Adaptador para la interfaz de servicio de usuarios.
  * Implementa la interfaz UsuarioServicePort y utiliza WebClient para realizar llamadas HTTP.
+ * Cada llamada pasa por el circuit breaker y el bulkhead del servicio de usuarios.
  */
 @Component
-public class UsuarioServiceAdapter implements UsuarioServicePort {
+public class UsuarioServiceAdapter implements UsuarioServicePort, UsuarioServiceReactivoPort {
+
+    /**
+     * Nombre del servicio de usuarios en el registro de servicios y en Resilience4j.
+     */
+    static final String NOMBRE_SERVICIO = "user-service";
 
     /**
      * Cliente WebClient para realizar llamadas HTTP.
@@ -24,6 +39,14 @@ public class UsuarioServiceAdapter implements UsuarioServicePort {
      * URL base del servicio de usuarios.
      */
     private final String usuarioServiceUrl = "lb://user-service/usuario";
+    /**
+     * Caché local de usuarios por correo electrónico.
+     */
+    private final UsuarioCache usuarioCache;
+    /**
+     * Circuit breaker, bulkhead y tiempo máximo de las llamadas al servicio de usuarios.
+     */
+    private final ProteccionServicio proteccion;
 
     // public UsuarioServiceAdapter(final WebClient.Builder webClientBuilder) {
     //     this.usuarioServiceUrl = "lb://user-service/usuario";
@@ -34,39 +57,81 @@ public class UsuarioServiceAdapter implements UsuarioServicePort {
      * Constructor que inicializa el adaptador con el cliente WebClient.
      *
      * @param client Cliente WebClient.
+     * @param cache Caché local de usuarios.
      */
-    public UsuarioServiceAdapter(final WebClient client) {
-        this.webClient = client;
+    public UsuarioServiceAdapter(final WebClient client, final UsuarioCache cache) {
+        this(client, cache, ProteccionServicio.porDefecto(NOMBRE_SERVICIO));
     }
 
     /**
-     * Obtiene el token JWT desde el contexto de seguridad.
+     * Constructor usado por Spring. El circuit breaker y el bulkhead del servicio se configuran en
+     * las propiedades de Resilience4j con el nombre {@value #NOMBRE_SERVICIO}.
      *
-     * @return Token JWT.
-     * @throws Exception
+     * @param client Cliente WebClient.
+     * @param cache Caché local de usuarios.
+     * @param circuitBreakers Registro de circuit breakers.
+     * @param bulkheads Registro de bulkheads.
+     * @param timeout Tiempo máximo de cada llamada al servicio de usuarios.
      */
-    private String obtenerToken() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication instanceof JwtAuthenticationToken jwtAuthToken) {
-            Jwt jwt = jwtAuthToken.getToken();
-            return jwt.getTokenValue();
-        }
-        return null;
+    @Autowired
+    public UsuarioServiceAdapter(final @Qualifier("usuarioWebClient") WebClient client,
+                                 final UsuarioCache cache,
+                                 final CircuitBreakerRegistry circuitBreakers,
+                                 final BulkheadRegistry bulkheads,
+                                 final @Value("${usuarios.timeout:2s}") Duration timeout) {
+        this(client, cache, ProteccionServicio.desde(NOMBRE_SERVICIO, circuitBreakers, bulkheads, timeout));
+    }
+
+    /**
+     * Constructor que inicializa el adaptador con las protecciones indicadas.
+     *
+     * @param client Cliente WebClient.
+     * @param cache Caché local de usuarios.
+     * @param proteccionParam Circuit breaker, bulkhead y tiempo máximo de las llamadas.
+     */
+    public UsuarioServiceAdapter(final WebClient client, final UsuarioCache cache,
+                                 final ProteccionServicio proteccionParam) {
+        this.webClient = client;
+        this.usuarioCache = cache;
+        this.proteccion = proteccionParam;
     }
 
     /**
      * Obtiene la información de un usuario por su correo electrónico.
+     * Usa la caché local y comparte la llamada con otras consultas concurrentes del mismo correo.
      *
      * @param email Correo electrónico del usuario.
      * @return Información del usuario.
      */
     @Override
     public UsuarioResponse obtenerUsuario(final String email) {
-        return webClient.get()
+        return obtenerUsuarioReactivo(email).block();
+    }
+
+    /**
+     * Obtiene la información de un usuario sin bloquear, con la misma caché que {@link #obtenerUsuario(String)}.
+     *
+     * @param email Correo electrónico del usuario.
+     * @return Información del usuario.
+     */
+    @Override
+    public Mono<UsuarioResponse> obtenerUsuarioReactivo(final String email) {
+        return JwtUtils.getTokenReactivo().flatMap(token ->
+                Mono.fromFuture(usuarioCache.obtener(email, e -> consultarUsuario(e, token).toFuture()), true));
+    }
+
+    /**
+     * Consulta un usuario en el servicio de usuarios.
+     *
+     * @param email Correo electrónico del usuario.
+     * @param token Token JWT del cliente.
+     * @return Información del usuario.
+     */
+    private Mono<UsuarioResponse> consultarUsuario(final String email, final String token) {
+        return proteccion.proteger(webClient.get()
                 .uri(usuarioServiceUrl + "/buscar/{email}", email)
-                .header("Authorization", "Bearer " + obtenerToken())
+                .header("Authorization", "Bearer " + token)
                 .retrieve()
-                .bodyToMono(UsuarioResponse.class)
-                .block();
+                .bodyToMono(UsuarioResponse.class));
     }
 }
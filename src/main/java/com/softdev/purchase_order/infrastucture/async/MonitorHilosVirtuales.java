@@ -0,0 +1,118 @@
+package com.softdev.purchase_order.infrastucture.async;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Detecta hilos virtuales que se bloquean sin liberar su hilo de plataforma.
+ * En Java 21 un hilo virtual que se bloquea dentro de un bloque synchronized o de una llamada nativa
+ * queda fijado a su hilo de plataforma; si ocurre con frecuencia, las solicitudes vuelven a quedar
+ * limitadas por el número de núcleos. El monitor escucha el evento de JFR jdk.VirtualThreadPinned,
+ * registra la duración de cada fijación en la métrica jvm.hilos.virtuales.fijados y escribe en el log
+ * el primer método de la aplicación de la traza, para reemplazar ese bloque por un ReentrantLock.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class MonitorHilosVirtuales {
+
+    /**
+     * Evento de JFR emitido cuando un hilo virtual se bloquea fijado a su hilo de plataforma.
+     */
+    static final String EVENTO_FIJADO = "jdk.VirtualThreadPinned";
+    /**
+     * Prefijo de los paquetes de la aplicación.
+     */
+    private static final String PAQUETE_APLICACION = "com.softdev.purchase_order";
+
+    /**
+     * Duración de las fijaciones detectadas.
+     */
+    private final Timer fijaciones;
+    /**
+     * Duración mínima de una fijación para registrarla.
+     */
+    private final Duration umbral;
+    /**
+     * Flujo de eventos de JFR, o null si el monitor no está iniciado.
+     */
+    private RecordingStream eventos;
+
+    /**
+     * Constructor que registra la métrica de fijaciones.
+     *
+     * @param registry Registro de métricas de Micrometer.
+     * @param umbralParam Duración mínima de una fijación para registrarla.
+     */
+    public MonitorHilosVirtuales(final MeterRegistry registry,
+                                 final @Value("${hilos-virtuales.fijacion.umbral:20ms}") Duration umbralParam) {
+        this.umbral = umbralParam;
+        this.fijaciones = Timer.builder("jvm.hilos.virtuales.fijados")
+                .description("Tiempo que los hilos virtuales estuvieron bloqueados fijados a su hilo de plataforma")
+                .register(registry);
+    }
+
+    /**
+     * Empieza a escuchar los eventos de fijación en segundo plano.
+     */
+    @PostConstruct
+    public void iniciar() {
+        eventos = new RecordingStream();
+        eventos.enable(EVENTO_FIJADO).withThreshold(umbral).withStackTrace();
+        eventos.onEvent(EVENTO_FIJADO, evento -> registrar(evento.getDuration(), ubicar(evento.getStackTrace())));
+        eventos.startAsync();
+    }
+
+    /**
+     * Deja de escuchar los eventos de fijación.
+     */
+    @PreDestroy
+    public void detener() {
+        if (eventos != null) {
+            eventos.close();
+        }
+    }
+
+    /**
+     * Registra una fijación detectada.
+     *
+     * @param duracion Tiempo que el hilo virtual estuvo fijado.
+     * @param ubicacion Método donde ocurrió la fijación.
+     */
+    void registrar(final Duration duracion, final String ubicacion) {
+        fijaciones.record(duracion);
+        System.err.println("Hilo virtual fijado a su hilo de plataforma durante "
+                + duracion.toMillis() + " ms en " + ubicacion);
+    }
+
+    /**
+     * Obtiene el primer método de la aplicación de la traza, o el primer método si no hay ninguno.
+     *
+     * @param traza La traza del evento.
+     * @return El método con la forma clase.metodo:linea.
+     */
+    private static String ubicar(final RecordedStackTrace traza) {
+        if (traza == null || traza.getFrames().isEmpty()) {
+            return "ubicación desconocida";
+        }
+        RecordedFrame elegido = traza.getFrames().get(0);
+        for (RecordedFrame marco : traza.getFrames()) {
+            if (marco.isJavaFrame() && marco.getMethod().getType().getName().startsWith(PAQUETE_APLICACION)) {
+                elegido = marco;
+                break;
+            }
+        }
+        return elegido.getMethod().getType().getName() + "." + elegido.getMethod().getName()
+                + ":" + elegido.getLineNumber();
+    }
+}
@@ -0,0 +1,312 @@
+package com.softdev.purchase_order.infrastucture.async;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
+import com.softdev.purchase_order.domain.repositories.RealizarOrdenPort;
+import com.softdev.purchase_order.infrastucture.security.CredencialServicio;
+import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Acepta órdenes en estado pendiente y las completa en segundo plano con un número fijo de hilos.
+ * El número de órdenes aceptadas sin completar está acotado: cuando se alcanza el límite, las nuevas
+ * órdenes se rechazan antes de guardarse para que el cliente reintente más tarde.
+ * Las tareas se ejecutan con el contexto de seguridad de la solicitud que aceptó la orden,
+ * necesario para que los adaptadores reenvíen el token JWT del cliente.
+ * Las órdenes aceptadas solo se programan en memoria, así que un barrido periódico vuelve a programar
+ * las que siguen pendientes tras un reinicio o un fallo transitorio. Esas órdenes ya no tienen el token
+ * del cliente y se procesan con el token del servicio; sin un token de servicio válido no se vuelven a
+ * programar. Las órdenes que siguen pendientes después del plazo máximo se rechazan, para no
+ * reintentarlas indefinidamente.
+ */
+@Component
+@ConditionalOnProperty(name = "ordenes.asincrono.enabled", havingValue = "true")
+public class ProcesadorOrdenesPendientes {
+
+    /**
+     * Tiempo máximo de espera de las órdenes en proceso al detener la aplicación.
+     */
+    private static final Duration ESPERA_AL_DETENER = Duration.ofSeconds(30);
+    /**
+     * Número máximo de órdenes vencidas que se rechazan en cada barrido.
+     */
+    private static final int LOTE_VENCIDAS = 100;
+
+    /**
+     * Caso de uso que acepta y completa las órdenes.
+     */
+    private final RealizarOrdenPort realizarOrdenPort;
+    /**
+     * Repositorio donde se buscan las órdenes pendientes para volver a programarlas.
+     */
+    private final OrdenRepositoryPort ordenRepository;
+    /**
+     * Hilos donde se completan las órdenes pendientes.
+     */
+    private final ExecutorService executor;
+    /**
+     * Cupos de órdenes aceptadas sin completar.
+     */
+    private final Semaphore cupos;
+    /**
+     * IDs de las órdenes programadas en esta instancia y todavía sin completar.
+     */
+    private final Set<UUID> enCurso = ConcurrentHashMap.newKeySet();
+    /**
+     * Tiempo que una orden debe llevar pendiente para que el barrido la vuelva a programar.
+     */
+    private final Duration antiguedadBarrido;
+    /**
+     * Tiempo desde el pedido tras el cual una orden que sigue pendiente se rechaza.
+     */
+    private final Duration plazoMaximo;
+    /**
+     * Credencial con la que se procesan las órdenes que programa el barrido.
+     */
+    private final CredencialServicio credencialServicio;
+
+    /**
+     * Constructor que crea el grupo de hilos y registra sus métricas.
+     *
+     * @param realizarOrdenPortParam Caso de uso que acepta y completa las órdenes.
+     * @param ordenRepositoryParam Repositorio donde se buscan las órdenes pendientes.
+     * @param registry Registro de métricas de Micrometer.
+     * @param hilos Número de órdenes que se completan a la vez.
+     * @param capacidad Número máximo de órdenes aceptadas sin completar, incluidas las que están en proceso.
+     * @param hilosVirtuales Indica si las órdenes se completan en hilos virtuales.
+     * @param antiguedadBarridoParam Tiempo que una orden debe llevar pendiente para volver a programarla.
+     * @param plazoMaximoParam Tiempo desde el pedido tras el cual una orden pendiente se rechaza.
+     * @param credencialServicioParam Credencial con la que se procesan las órdenes del barrido.
+     */
+    @Autowired
+    public ProcesadorOrdenesPendientes(final RealizarOrdenPort realizarOrdenPortParam,
+                                       final OrdenRepositoryPort ordenRepositoryParam,
+                                       final MeterRegistry registry,
+                                       final @Value("${ordenes.asincrono.hilos:8}") int hilos,
+                                       final @Value("${ordenes.asincrono.capacidad:1000}") int capacidad,
+                                       final @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales,
+                                       final @Value("${ordenes.asincrono.barrido.antiguedad:5m}") Duration antiguedadBarridoParam,
+                                       final @Value("${ordenes.asincrono.barrido.plazo-maximo:1h}") Duration plazoMaximoParam,
+                                       final CredencialServicio credencialServicioParam) {
+        this(realizarOrdenPortParam, ordenRepositoryParam, crearExecutor(registry, hilos, hilosVirtuales), capacidad,
+                antiguedadBarridoParam, plazoMaximoParam, credencialServicioParam);
+    }
+
+    /**
+     * Constructor que usa el ejecutor indicado.
+     *
+     * @param realizarOrdenPortParam Caso de uso que acepta y completa las órdenes.
+     * @param ordenRepositoryParam Repositorio donde se buscan las órdenes pendientes.
+     * @param executorParam Ejecutor donde se completan las órdenes pendientes.
+     * @param capacidad Número máximo de órdenes aceptadas sin completar.
+     * @param antiguedadBarridoParam Tiempo que una orden debe llevar pendiente para volver a programarla.
+     * @param plazoMaximoParam Tiempo desde el pedido tras el cual una orden pendiente se rechaza.
+     * @param credencialServicioParam Credencial con la que se procesan las órdenes del barrido.
+     */
+    public ProcesadorOrdenesPendientes(final RealizarOrdenPort realizarOrdenPortParam,
+                                       final OrdenRepositoryPort ordenRepositoryParam,
+                                       final ExecutorService executorParam,
+                                       final int capacidad,
+                                       final Duration antiguedadBarridoParam,
+                                       final Duration plazoMaximoParam,
+                                       final CredencialServicio credencialServicioParam) {
+        this.realizarOrdenPort = realizarOrdenPortParam;
+        this.ordenRepository = ordenRepositoryParam;
+        this.executor = executorParam;
+        this.cupos = new Semaphore(capacidad);
+        this.antiguedadBarrido = antiguedadBarridoParam;
+        this.plazoMaximo = plazoMaximoParam;
+        this.credencialServicio = credencialServicioParam;
+    }
+
+    /**
+     * Guarda la orden en estado pendiente y programa su procesamiento en segundo plano.
+     *
+     * @param request La solicitud para realizar la orden.
+     * @param emailCliente El correo electrónico del cliente.
+     * @return La orden pendiente guardada.
+     * @throws RejectedExecutionException Si se alcanzó el número máximo de órdenes pendientes.
+     */
+    public Orden aceptar(final RealizarOrdenRequest request, final String emailCliente) {
+        if (!cupos.tryAcquire()) {
+            throw new RejectedExecutionException("Se alcanzó el número máximo de órdenes pendientes");
+        }
+        Orden orden;
+        try {
+            orden = realizarOrdenPort.aceptarOrden(request, emailCliente);
+        } catch (RuntimeException e) {
+            cupos.release();
+            throw e;
+        }
+        programar(orden.getId(), null);
+        return orden;
+    }
+
+    /**
+     * Vuelve a programar las órdenes que llevan pendientes más de la antigüedad configurada y no están
+     * en proceso en esta instancia, por ejemplo porque la aplicación se reinició antes de completarlas
+     * o porque un servicio no respondió. Solo toma tantas órdenes como cupos haya disponibles.
+     * Las órdenes se procesan con el token del servicio; si no hay un token de servicio válido no se
+     * programa ninguna, porque los otros servicios rechazarían las consultas.
+     *
+     * @return El número de órdenes programadas.
+     */
+    @Scheduled(initialDelayString = "${ordenes.asincrono.barrido.retraso-inicial:30s}",
+            fixedDelayString = "${ordenes.asincrono.barrido.intervalo:1m}")
+    public int reprogramarPendientes() {
+        int disponibles = cupos.availablePermits();
+        if (disponibles == 0) {
+            return 0;
+        }
+        Optional<SecurityContext> contexto = credencialServicio.crearContexto();
+        if (contexto.isEmpty()) {
+            System.err.println("Sin un token de servicio válido (seguridad.servicio.token) no se vuelven a programar "
+                    + "las órdenes pendientes");
+            return 0;
+        }
+        List<UUID> pendientes = ordenRepository.findIdsPendientes(LocalDateTime.now().minus(antiguedadBarrido),
+                disponibles + enCurso.size());
+        int programadas = 0;
+        for (UUID id : pendientes) {
+            if (enCurso.contains(id)) {
+                continue;
+            }
+            if (!cupos.tryAcquire()) {
+                break;
+            }
+            if (programar(id, contexto.get())) {
+                programadas++;
+            }
+        }
+        if (programadas > 0) {
+            System.err.println("Se volvieron a programar " + programadas + " órdenes pendientes");
+        }
+        return programadas;
+    }
+
+    /**
+     * Rechaza las órdenes que siguen pendientes después del plazo máximo desde su pedido y no están en
+     * proceso en esta instancia. Una orden que no se completa en ese tiempo no se reintenta más.
+     *
+     * @return El número de órdenes rechazadas.
+     */
+    @Scheduled(initialDelayString = "${ordenes.asincrono.barrido.retraso-inicial:30s}",
+            fixedDelayString = "${ordenes.asincrono.barrido.intervalo:1m}")
+    public int rechazarPendientesVencidas() {
+        List<UUID> vencidas = ordenRepository.findIdsPendientes(LocalDateTime.now().minus(plazoMaximo), LOTE_VENCIDAS);
+        int rechazadas = 0;
+        for (UUID id : vencidas) {
+            if (enCurso.contains(id)) {
+                continue;
+            }
+            try {
+                realizarOrdenPort.rechazarOrdenPendiente(id);
+                rechazadas++;
+            } catch (RuntimeException e) {
+                System.err.println("No se pudo rechazar la orden pendiente vencida " + id + ": " + e.getMessage());
+            }
+        }
+        if (rechazadas > 0) {
+            System.err.println("Se rechazaron " + rechazadas + " órdenes pendientes después de " + plazoMaximo);
+        }
+        return rechazadas;
+    }
+
+    /**
+     * Número de órdenes que todavía se pueden aceptar.
+     *
+     * @return Cupos disponibles.
+     */
+    public int cuposDisponibles() {
+        return cupos.availablePermits();
+    }
+
+    /**
+     * Espera a que se completen las órdenes aceptadas antes de detener la aplicación.
+     * Las órdenes que no alcancen a completarse quedan en estado pendiente.
+     *
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(ESPERA_AL_DETENER.toMillis(), TimeUnit.MILLISECONDS)) {
+            System.err.println("Quedaron órdenes pendientes sin completar al detener la aplicación");
+        }
+    }
+
+    /**
+     * Programa una orden en los hilos de procesamiento. El cupo de la orden ya debe estar tomado;
+     * si la orden ya está en proceso o el ejecutor la rechaza, el cupo se devuelve.
+     *
+     * @param id El ID de la orden.
+     * @param contexto Contexto de seguridad con el que se procesa la orden, o null para usar el del hilo actual.
+     * @return true si la orden se programó.
+     */
+    private boolean programar(final UUID id, final SecurityContext contexto) {
+        if (!enCurso.add(id)) {
+            cupos.release();
+            return false;
+        }
+        try {
+            executor.execute(DelegatingSecurityContextRunnable.create(() -> procesar(id), contexto));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // La orden sigue pendiente y el barrido la vuelve a programar
+            enCurso.remove(id);
+            cupos.release();
+            System.err.println("No se pudo programar la orden pendiente " + id + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void procesar(final UUID id) {
+        try {
+            realizarOrdenPort.procesarOrdenPendiente(id);
+        } catch (Exception e) {
+            System.err.println("Error al procesar la orden pendiente " + id + ", se reintentará: " + e.getMessage());
+        } finally {
+            enCurso.remove(id);
+            cupos.release();
+        }
+    }
+
+    private static ExecutorService crearExecutor(final MeterRegistry registry, final int hilos,
+                                                 final boolean hilosVirtuales) {
+        // Con hilos virtuales el número de hilos sigue acotando las órdenes que usan la base de datos a la vez
+        ThreadFactory fabrica = hilosVirtuales
+                ? Thread.ofVirtual().name("orden-pendiente-", 0).factory()
+                : Thread.ofPlatform().name("orden-pendiente-", 0).factory();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), fabrica);
+        return new DelegatingSecurityContextExecutorService(
+                ExecutorServiceMetrics.monitor(registry, executor, "ordenes.pendientes"));
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Paquete que contiene el procesamiento en segundo plano de las órdenes aceptadas y la supervisión
+ * de los hilos virtuales.
+ */
+package com.softdev.purchase_order.infrastucture.async;
@@ -0,0 +1,334 @@
+package com.softdev.purchase_order.infrastucture.balanceo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Balanceador que elige la instancia según la latencia observada y las solicitudes en curso.
+ * Por cada solicitud toma dos instancias al azar y usa la de menor costo, calculado como la latencia
+ * media móvil exponencial de la instancia multiplicada por sus solicitudes en curso más uno. La media
+ * sube de inmediato ante una respuesta lenta y decae con el tiempo, así que una instancia en una pausa
+ * de recolección de basura deja de recibir tráfico tras las primeras respuestas lentas y vuelve a
+ * recibirlo cuando se recupera. Las latencias se registran como ciclo de vida del balanceador, alrededor
+ * de cada llamada de los adaptadores a través del WebClient balanceado. Las llamadas canceladas, por
+ * tiempo agotado o porque ganó una cobertura, no notifican su fin; se dejan de contar como en curso
+ * después del tiempo de abandono.
+ */
+public final class BalanceadorLatencia implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    /**
+     * Costo de una instancia sin latencias registradas que ya tiene solicitudes en curso, en nanosegundos.
+     * Evita que una instancia nueva reciba todas las solicitudes antes de su primera respuesta.
+     */
+    static final double PENALIZACION = Duration.ofSeconds(1).toNanos();
+
+    /**
+     * Nombre del servicio balanceado.
+     */
+    private final String servicio;
+    /**
+     * Proveedor de las instancias disponibles del servicio.
+     */
+    private final ObjectProvider<ServiceInstanceListSupplier> proveedorInstancias;
+    /**
+     * Tiempo de decaimiento de la media de latencia, en nanosegundos.
+     */
+    private final double decaimiento;
+    /**
+     * Tiempo tras el cual una solicitud sin fin notificado deja de contarse como en curso, en nanosegundos.
+     */
+    private final long abandono;
+    /**
+     * Reloj en nanosegundos.
+     */
+    private final LongSupplier reloj;
+    /**
+     * Estado observado de cada instancia, por identificador.
+     */
+    private final Map<String, EstadoInstancia> estados = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor que inicializa el balanceador con el reloj del sistema.
+     *
+     * @param servicioParam Nombre del servicio balanceado.
+     * @param proveedorInstanciasParam Proveedor de las instancias disponibles del servicio.
+     * @param decaimientoParam Tiempo en que la media de latencia olvida las respuestas anteriores.
+     * @param abandonoParam Tiempo tras el cual una solicitud sin fin notificado deja de contarse como en curso.
+     */
+    public BalanceadorLatencia(final String servicioParam,
+                               final ObjectProvider<ServiceInstanceListSupplier> proveedorInstanciasParam,
+                               final Duration decaimientoParam, final Duration abandonoParam) {
+        this(servicioParam, proveedorInstanciasParam, decaimientoParam, abandonoParam, System::nanoTime);
+    }
+
+    /**
+     * Constructor que inicializa el balanceador con un reloj dado.
+     *
+     * @param servicioParam Nombre del servicio balanceado.
+     * @param proveedorInstanciasParam Proveedor de las instancias disponibles del servicio.
+     * @param decaimientoParam Tiempo en que la media de latencia olvida las respuestas anteriores.
+     * @param abandonoParam Tiempo tras el cual una solicitud sin fin notificado deja de contarse como en curso.
+     * @param relojParam Reloj en nanosegundos.
+     */
+    BalanceadorLatencia(final String servicioParam,
+                        final ObjectProvider<ServiceInstanceListSupplier> proveedorInstanciasParam,
+                        final Duration decaimientoParam, final Duration abandonoParam,
+                        final LongSupplier relojParam) {
+        this.servicio = servicioParam;
+        this.proveedorInstancias = proveedorInstanciasParam;
+        this.decaimiento = Math.max(1, decaimientoParam.toNanos());
+        this.abandono = abandonoParam.toNanos();
+        this.reloj = relojParam;
+    }
+
+    /**
+     * Elige una instancia del servicio para la solicitud.
+     *
+     * @param request La solicitud a balancear.
+     * @return La instancia elegida, o una respuesta vacía si no hay instancias.
+     */
+    @Override
+    public Mono<Response<ServiceInstance>> choose(final Request request) {
+        ServiceInstanceListSupplier instancias = proveedorInstancias.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return instancias.get(request).next().map(lista -> {
+            Response<ServiceInstance> respuesta = elegir(lista);
+            if (instancias instanceof SelectedInstanceCallback callback && respuesta.hasServer()) {
+                callback.selectedServiceInstance(respuesta.getServer());
+            }
+            return respuesta;
+        });
+    }
+
+    /**
+     * Indica si el ciclo de vida aplica a la solicitud; aplica a cualquier solicitud a una instancia.
+     *
+     * @param requestContextClass Clase del contexto de la solicitud.
+     * @param responseClass Clase de la respuesta.
+     * @param serverTypeClass Clase de la instancia elegida.
+     * @return true si la instancia elegida es un ServiceInstance.
+     */
+    @Override
+    public boolean supports(final Class requestContextClass, final Class responseClass, final Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    /**
+     * No registra nada antes de elegir la instancia.
+     *
+     * @param request La solicitud a balancear.
+     */
+    @Override
+    public void onStart(final Request<Object> request) {
+        // La instancia todavía no está elegida.
+    }
+
+    /**
+     * Cuenta la solicitud como en curso en la instancia elegida y registra el momento de inicio.
+     *
+     * @param request La solicitud balanceada.
+     * @param lbResponse La instancia elegida.
+     */
+    @Override
+    public void onStartRequest(final Request<Object> request, final Response<ServiceInstance> lbResponse) {
+        if (request == null || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        estado(lbResponse.getServer()).enCurso.put(new Solicitud(request), reloj.getAsLong());
+    }
+
+    /**
+     * Termina la solicitud en la instancia elegida y registra su latencia. Una solicitud fallida se
+     * registra con al menos la penalización, para que una instancia que falla rápido no parezca rápida.
+     *
+     * @param completionContext El resultado de la solicitud.
+     */
+    @Override
+    public void onComplete(final CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        Request<Object> request = completionContext.getLoadBalancerRequest();
+        EstadoInstancia estado = estado(lbResponse.getServer());
+        Long inicio = request != null ? estado.enCurso.remove(new Solicitud(request)) : null;
+        if (inicio == null) {
+            return;
+        }
+        long ahora = reloj.getAsLong();
+        double latencia = ahora - inicio;
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            latencia = Math.max(latencia, PENALIZACION);
+        }
+        estado.registrar(latencia, ahora, decaimiento);
+    }
+
+    /**
+     * Calcula el costo actual de una instancia: su latencia media por sus solicitudes en curso más uno.
+     *
+     * @param instancia La instancia del servicio.
+     * @return El costo en nanosegundos.
+     */
+    double costo(final ServiceInstance instancia) {
+        return estado(instancia).costo(reloj.getAsLong(), decaimiento, abandono);
+    }
+
+    private Response<ServiceInstance> elegir(final List<ServiceInstance> instancias) {
+        if (instancias.isEmpty()) {
+            System.err.println("No hay instancias disponibles del servicio " + servicio);
+            return new EmptyResponse();
+        }
+        if (instancias.size() == 1) {
+            return new DefaultResponse(instancias.get(0));
+        }
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int primera = aleatorio.nextInt(instancias.size());
+        int segunda = aleatorio.nextInt(instancias.size() - 1);
+        if (segunda >= primera) {
+            segunda++;
+        }
+        ServiceInstance a = instancias.get(primera);
+        ServiceInstance b = instancias.get(segunda);
+        return new DefaultResponse(costo(a) <= costo(b) ? a : b);
+    }
+
+    private EstadoInstancia estado(final ServiceInstance instancia) {
+        String id = instancia.getInstanceId() != null
+                ? instancia.getInstanceId()
+                : instancia.getHost() + ":" + instancia.getPort();
+        return estados.computeIfAbsent(id, k -> new EstadoInstancia());
+    }
+
+    /**
+     * Latencia media y solicitudes en curso de una instancia.
+     */
+    private static final class EstadoInstancia {
+
+        /**
+         * Solicitudes enviadas a la instancia que aún no terminan, con su momento de inicio en nanosegundos.
+         */
+        private final Map<Solicitud, Long> enCurso = new ConcurrentHashMap<>();
+        /**
+         * Protege la media y el momento de su última actualización.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+        /**
+         * Latencia media móvil exponencial, en nanosegundos.
+         */
+        private double media;
+        /**
+         * Momento de la última actualización de la media, en nanosegundos.
+         */
+        private long ultimaActualizacion;
+
+        /**
+         * Registra una latencia. Si es mayor que la media la reemplaza, para reaccionar de inmediato a
+         * una instancia lenta; si no, la combina con un peso que depende del tiempo transcurrido.
+         *
+         * @param latencia Latencia de la solicitud, en nanosegundos.
+         * @param ahora Momento actual, en nanosegundos.
+         * @param decaimiento Tiempo de decaimiento de la media, en nanosegundos.
+         */
+        void registrar(final double latencia, final long ahora, final double decaimiento) {
+            lock.lock();
+            try {
+                double actual = decaer(ahora, decaimiento);
+                if (latencia > actual) {
+                    media = latencia;
+                } else {
+                    double peso = Math.exp(-Math.max(0, ahora - ultimaActualizacion) / decaimiento);
+                    media = media * peso + latencia * (1 - peso);
+                }
+                ultimaActualizacion = ahora;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Calcula el costo de la instancia, descartando antes las solicitudes abandonadas.
+         *
+         * @param ahora Momento actual, en nanosegundos.
+         * @param decaimiento Tiempo de decaimiento de la media, en nanosegundos.
+         * @param abandono Tiempo tras el cual una solicitud deja de contarse como en curso, en nanosegundos.
+         * @return El costo en nanosegundos.
+         */
+        double costo(final long ahora, final double decaimiento, final long abandono) {
+            enCurso.values().removeIf(inicio -> ahora - inicio > abandono);
+            int pendientes = enCurso.size();
+            double actual;
+            lock.lock();
+            try {
+                actual = decaer(ahora, decaimiento);
+            } finally {
+                lock.unlock();
+            }
+            if (actual == 0 && pendientes > 0) {
+                return PENALIZACION + pendientes;
+            }
+            return actual * (pendientes + 1);
+        }
+
+        /**
+         * Media decaída hacia cero según el tiempo sin respuestas, para que una instancia que dejó de
+         * recibir tráfico por lenta vuelva a probarse.
+         *
+         * @param ahora Momento actual, en nanosegundos.
+         * @param decaimiento Tiempo de decaimiento de la media, en nanosegundos.
+         * @return La media decaída, en nanosegundos.
+         */
+        private double decaer(final long ahora, final double decaimiento) {
+            if (media == 0) {
+                return 0;
+            }
+            return media * Math.exp(-Math.max(0, ahora - ultimaActualizacion) / decaimiento);
+        }
+    }
+
+    /**
+     * Identifica una solicitud balanceada por referencia: dos solicitudes iguales en curso a la vez
+     * son llamadas distintas.
+     */
+    private static final class Solicitud {
+
+        /**
+         * La solicitud balanceada.
+         */
+        private final Request<?> request;
+
+        Solicitud(final Request<?> requestParam) {
+            this.request = requestParam;
+        }
+
+        @Override
+        public boolean equals(final Object otro) {
+            return otro instanceof Solicitud solicitud && solicitud.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
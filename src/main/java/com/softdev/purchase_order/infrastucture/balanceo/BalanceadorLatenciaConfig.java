@@ -0,0 +1,41 @@
+package com.softdev.purchase_order.infrastucture.balanceo;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuración del balanceador por latencia para cada cliente de servicio.
+ * Se registra con {@code @LoadBalancerClient} y se instancia en el contexto propio de cada servicio; no lleva
+ * {@code @Configuration} para que el escaneo de componentes no la aplique a todos los clientes. Con
+ * servicios.balanceador.latencia.enabled=false se usa el balanceador por turnos de Spring Cloud.
+ */
+public class BalanceadorLatenciaConfig {
+
+    /**
+     * Crea el balanceador por latencia del servicio del contexto.
+     *
+     * @param environment Entorno del contexto del servicio, con su nombre.
+     * @param loadBalancerClientFactory Fábrica de los contextos de los servicios.
+     * @param decaimiento Tiempo en que la media de latencia olvida las respuestas anteriores.
+     * @param abandono Tiempo tras el cual una solicitud sin fin notificado deja de contarse como en curso.
+     * @return El balanceador, que también registra las latencias como ciclo de vida.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "servicios.balanceador.latencia.enabled", havingValue = "true", matchIfMissing = true)
+    public BalanceadorLatencia balanceadorLatencia(
+            final Environment environment,
+            final LoadBalancerClientFactory loadBalancerClientFactory,
+            final @Value("${servicios.balanceador.latencia.decaimiento:10s}") Duration decaimiento,
+            final @Value("${servicios.balanceador.latencia.abandono:10s}") Duration abandono) {
+        String servicio = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new BalanceadorLatencia(servicio,
+                loadBalancerClientFactory.getLazyProvider(servicio, ServiceInstanceListSupplier.class),
+                decaimiento, abandono);
+    }
+}
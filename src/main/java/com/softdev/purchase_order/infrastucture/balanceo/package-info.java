@@ -0,0 +1,4 @@
+/**
+ * Paquete que contiene el balanceo de carga por latencia entre las instancias de los servicios.
+ */
+package com.softdev.purchase_order.infrastucture.balanceo;
@@ -0,0 +1,142 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché local de facturas ya serializadas, por ID de orden.
+ * La factura de una orden no cambia mientras la orden no se actualiza, así que se guarda el JSON de la
+ * respuesta junto con la versión de la orden: un acierto no consulta la base de datos ni serializa con
+ * Jackson, y la versión guardada sirve para el ETag. Las cargas concurrentes de la misma orden se agrupan,
+ * las órdenes inexistentes no se guardan y las entradas se invalidan cuando la orden se actualiza en esta
+ * instancia; las actualizaciones hechas en otra instancia se ven al vencer el tiempo de vida. Una entrada
+ * anterior a la versión pedida se vuelve a cargar, así el JSON nunca es más viejo que el ETag con el que
+ * se responde. Expone métricas de aciertos, fallos y desalojos en Micrometer.
+ */
+@Component
+public class FacturaCache {
+
+    /**
+     * JSON de la factura y versión de la orden, por ID de orden.
+     */
+    private final Cache<UUID, FacturaSerializada> facturas;
+    /**
+     * Serializador de las facturas.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Indica si la caché está habilitada.
+     */
+    private final boolean habilitada;
+
+    /**
+     * Constructor que crea la caché y registra sus métricas.
+     *
+     * @param registry Registro de métricas de Micrometer.
+     * @param objectMapperParam Serializador de las facturas.
+     * @param habilitadaParam Indica si la caché está habilitada.
+     * @param ttl Tiempo de vida de cada entrada.
+     * @param maxEntradas Número máximo de facturas guardadas.
+     */
+    public FacturaCache(final MeterRegistry registry, final ObjectMapper objectMapperParam,
+                        final @Value("${facturas.cache.enabled:true}") boolean habilitadaParam,
+                        final @Value("${facturas.cache.ttl:30m}") Duration ttl,
+                        final @Value("${facturas.cache.max-entradas:10000}") long maxEntradas) {
+        this.objectMapper = objectMapperParam;
+        this.habilitada = habilitadaParam;
+        this.facturas = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, facturas, "facturas");
+    }
+
+    /**
+     * Busca la factura guardada de una orden, sin cargarla si no está.
+     *
+     * @param ordenId El ID de la orden.
+     * @return El JSON de la factura y la versión de la orden con la que se cargó, o vacío si no está guardada.
+     */
+    public Optional<FacturaSerializada> buscar(final UUID ordenId) {
+        return habilitada ? Optional.ofNullable(facturas.getIfPresent(ordenId)) : Optional.empty();
+    }
+
+    /**
+     * Obtiene el JSON de la factura de una orden, cargándola y serializándola si no está guardada o si
+     * se guardó con una versión anterior de la orden.
+     *
+     * @param ordenId El ID de la orden.
+     * @param version La versión actual de la orden, leída antes de llamar a este método.
+     * @param cargador Función que carga la factura de la base de datos.
+     * @return El JSON de la factura, o vacío si la orden no existe.
+     */
+    public Optional<byte[]> obtener(final UUID ordenId, final long version,
+                                    final Function<UUID, Optional<OrdenConDetallesDTO>> cargador) {
+        if (!habilitada) {
+            return cargador.apply(ordenId).map(this::serializar);
+        }
+        // Caffeine no guarda los null, así que una orden inexistente se vuelve a consultar
+        FacturaSerializada factura = facturas.get(ordenId, id -> cargar(id, version, cargador));
+        if (factura != null && factura.version() < version) {
+            // Guardada por una consulta concurrente con la actualización de la orden
+            facturas.invalidate(ordenId);
+            factura = facturas.get(ordenId, id -> cargar(id, version, cargador));
+        }
+        return Optional.ofNullable(factura).map(FacturaSerializada::json);
+    }
+
+    /**
+     * Invalida la factura guardada de una orden.
+     *
+     * @param ordenId El ID de la orden.
+     */
+    public void invalidar(final UUID ordenId) {
+        facturas.invalidate(ordenId);
+    }
+
+    /**
+     * Invalida todas las facturas guardadas.
+     */
+    public void invalidarTodo() {
+        facturas.invalidateAll();
+    }
+
+    private FacturaSerializada cargar(final UUID ordenId, final long version,
+                                      final Function<UUID, Optional<OrdenConDetallesDTO>> cargador) {
+        return cargador.apply(ordenId)
+                .map(factura -> new FacturaSerializada(version, serializar(factura)))
+                .orElse(null);
+    }
+
+    private byte[] serializar(final OrdenConDetallesDTO factura) {
+        try {
+            return objectMapper.writeValueAsBytes(factura);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la factura " + factura.getId(), e);
+        }
+    }
+
+    /**
+     * JSON de una factura y versión de la orden leída antes de cargarla.
+     *
+     * @param version Versión de la orden; el JSON corresponde a esta versión o a una posterior.
+     * @param json JSON de la factura.
+     */
+    public record FacturaSerializada(long version, byte[] json) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.softdev.purchase_order.infrastucture.entities.OrdenIdempotenciaEntity;
+import com.softdev.purchase_order.infrastucture.repositories.OrdenIdempotenciaJpaRepository;
+import com.softdev.purchase_order.use_cases.dto.response.ErrorResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Almacén de respuestas de solicitudes de órdenes identificadas por una clave de idempotencia.
+ * Las respuestas se guardan en memoria y en la base de datos: los reintentos de una solicitud ya
+ * procesada reciben la respuesta guardada, y los duplicados concurrentes esperan a la solicitud en
+ * curso en lugar de procesar la orden otra vez. Solo se guardan las respuestas exitosas; los errores
+ * se liberan para que el cliente pueda reintentar. Una clave que quedó en proceso sin respuesta, porque
+ * la instancia se detuvo o no pudo liberarla, se puede reclamar cuando vence su reserva.
+ */
+@Component
+public class IdempotenciaCache {
+
+    /**
+     * Cabecera que se agrega a las respuestas repetidas.
+     */
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+
+    /**
+     * Respuestas por clave, guardadas como futuros para agrupar solicitudes concurrentes.
+     */
+    private final Cache<String, CompletableFuture<RespuestaGuardada>> respuestas;
+    /**
+     * Repositorio de claves de idempotencia.
+     */
+    private final OrdenIdempotenciaJpaRepository repository;
+    /**
+     * Mapper para serializar las solicitudes y las respuestas.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Tiempo de vida de cada clave.
+     */
+    private final Duration ttl;
+    /**
+     * Tiempo máximo que un duplicado espera a la solicitud en curso.
+     */
+    private final Duration espera;
+    /**
+     * Tiempo tras el cual una solicitud en proceso sin respuesta se considera abandonada.
+     */
+    private final Duration reserva;
+    /**
+     * Número de respuestas entregadas sin volver a procesar la orden.
+     */
+    private final Counter repetidas;
+
+    /**
+     * Respuesta guardada para una clave.
+     *
+     * @param estado Código HTTP de la respuesta.
+     * @param huella Huella del cuerpo de la solicitud original.
+     * @param cuerpo Cuerpo de la respuesta en JSON.
+     * @param definitiva Indica si la respuesta se conserva para futuros reintentos.
+     */
+    private record RespuestaGuardada(int estado, String huella, String cuerpo, boolean definitiva) {
+    }
+
+    /**
+     * Constructor que crea la caché y registra sus métricas.
+     *
+     * @param registry Registro de métricas de Micrometer.
+     * @param repositoryParam Repositorio de claves de idempotencia.
+     * @param objectMapperParam Mapper para serializar solicitudes y respuestas.
+     * @param ttlParam Tiempo de vida de cada clave.
+     * @param esperaParam Tiempo máximo que un duplicado espera a la solicitud en curso.
+     * @param reservaParam Tiempo tras el cual una solicitud en proceso sin respuesta se puede reclamar.
+     * @param maxEntradas Número máximo de claves guardadas en memoria.
+     */
+    public IdempotenciaCache(final MeterRegistry registry,
+                             final OrdenIdempotenciaJpaRepository repositoryParam,
+                             final ObjectMapper objectMapperParam,
+                             final @Value("${ordenes.idempotencia.ttl:24h}") Duration ttlParam,
+                             final @Value("${ordenes.idempotencia.espera:30s}") Duration esperaParam,
+                             final @Value("${ordenes.idempotencia.reserva:2m}") Duration reservaParam,
+                             final @Value("${ordenes.idempotencia.max-entradas:10000}") long maxEntradas) {
+        this.repository = repositoryParam;
+        this.objectMapper = objectMapperParam;
+        this.ttl = ttlParam;
+        this.espera = esperaParam;
+        this.reserva = reservaParam;
+        this.respuestas = Caffeine.newBuilder()
+                .expireAfterWrite(ttlParam)
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .build();
+        this.repetidas = Counter.builder("ordenes.idempotencia.repetidas")
+                .description("Solicitudes de orden respondidas con una respuesta guardada")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, respuestas, "ordenes.idempotencia");
+    }
+
+    /**
+     * Ejecuta una solicitud una sola vez por clave.
+     * Si la clave ya tiene una respuesta guardada, la devuelve sin ejecutar la acción. Si hay una
+     * solicitud en curso con la misma clave en esta instancia, espera su respuesta; si está en curso
+     * en otra instancia, responde 409. Si la solicitud en curso no respondió antes de vencer su
+     * reserva, se reclama la clave y se procesa de nuevo.
+     *
+     * @param clave Clave de idempotencia.
+     * @param solicitud Cuerpo de la solicitud, usado para detectar claves reutilizadas con otro contenido.
+     * @param accion Acción que procesa la solicitud.
+     * @return La respuesta de la acción, o la respuesta guardada para la clave.
+     */
+    public ResponseEntity<?> ejecutar(final String clave, final Object solicitud,
+                                      final Supplier<ResponseEntity<?>> accion) {
+        String huella = calcularHuella(solicitud);
+        CompletableFuture<RespuestaGuardada> propia = new CompletableFuture<>();
+        CompletableFuture<RespuestaGuardada> existente = respuestas.asMap().putIfAbsent(clave, propia);
+        if (existente != null) {
+            return esperar(existente, huella);
+        }
+
+        try {
+            Optional<OrdenIdempotenciaEntity> guardada = repository.findById(clave);
+            if (guardada.isPresent() && !reclamar(guardada.get(), huella)) {
+                RespuestaGuardada respuesta = desdeEntidad(guardada.get());
+                completar(clave, propia, respuesta);
+                return repetir(respuesta, huella);
+            }
+            if (guardada.isEmpty() && repository.reservar(clave, huella, LocalDateTime.now()) == 0) {
+                RespuestaGuardada respuesta = enCurso(huella);
+                completar(clave, propia, respuesta);
+                return repetir(respuesta, huella);
+            }
+
+            ResponseEntity<?> resultado;
+            try {
+                resultado = accion.get();
+            } catch (RuntimeException e) {
+                repository.deleteById(clave);
+                throw e;
+            }
+
+            boolean exitosa = resultado.getStatusCode().is2xxSuccessful();
+            RespuestaGuardada respuesta = new RespuestaGuardada(
+                    resultado.getStatusCode().value(), huella, serializar(resultado.getBody()), exitosa);
+            if (exitosa) {
+                repository.completar(clave, respuesta.estado(), respuesta.cuerpo());
+            } else {
+                repository.deleteById(clave);
+            }
+            completar(clave, propia, respuesta);
+            return resultado;
+        } catch (RuntimeException e) {
+            respuestas.asMap().remove(clave, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Elimina de la base de datos las claves que superaron su tiempo de vida.
+     */
+    @Scheduled(fixedDelayString = "${ordenes.idempotencia.purga:1h}")
+    public void purgarExpiradas() {
+        int eliminadas = repository.eliminarAnterioresA(LocalDateTime.now().minus(ttl));
+        if (eliminadas > 0) {
+            System.err.println("Claves de idempotencia expiradas eliminadas: " + eliminadas);
+        }
+    }
+
+    /**
+     * Reclama una clave que quedó en proceso sin respuesta después de vencer su reserva.
+     *
+     * @param entidad La clave guardada.
+     * @param huella Huella de la solicitud actual.
+     * @return true si esta solicitud reclamó la clave y debe procesarla.
+     */
+    private boolean reclamar(final OrdenIdempotenciaEntity entidad, final String huella) {
+        if (entidad.getEstadoHttp() != null || !entidad.getHuella().equals(huella)) {
+            return false;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime limite = ahora.minus(reserva);
+        LocalDateTime reservada = entidad.getFechaReserva() != null ? entidad.getFechaReserva() : entidad.getFechaCreacion();
+        if (reservada != null && !reservada.isBefore(limite)) {
+            return false;
+        }
+        boolean reclamada = repository.reclamar(entidad.getClave(), huella, ahora, limite) > 0;
+        if (reclamada) {
+            System.err.println("Clave de idempotencia abandonada reclamada: " + entidad.getClave());
+        }
+        return reclamada;
+    }
+
+    private void completar(final String clave, final CompletableFuture<RespuestaGuardada> futuro,
+                           final RespuestaGuardada respuesta) {
+        if (!respuesta.definitiva()) {
+            respuestas.asMap().remove(clave, futuro);
+        }
+        futuro.complete(respuesta);
+    }
+
+    private ResponseEntity<?> esperar(final CompletableFuture<RespuestaGuardada> enProceso, final String huella) {
+        try {
+            return repetir(enProceso.get(espera.toMillis(), TimeUnit.MILLISECONDS), huella);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return repetir(enCurso(huella), huella);
+        } catch (ExecutionException | TimeoutException e) {
+            return repetir(enCurso(huella), huella);
+        }
+    }
+
+    private ResponseEntity<?> repetir(final RespuestaGuardada respuesta, final String huella) {
+        if (!respuesta.huella().equals(huella)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(new ErrorResponse("Clave de idempotencia reutilizada",
+                            "La clave de idempotencia ya se usó con una solicitud diferente."));
+        }
+        if (respuesta.definitiva()) {
+            repetidas.increment();
+        }
+        return ResponseEntity.status(respuesta.estado())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CABECERA_REPETIDA, "true")
+                .body(respuesta.cuerpo());
+    }
+
+    private RespuestaGuardada desdeEntidad(final OrdenIdempotenciaEntity entidad) {
+        if (entidad.getEstadoHttp() == null) {
+            return enCurso(entidad.getHuella());
+        }
+        return new RespuestaGuardada(entidad.getEstadoHttp(), entidad.getHuella(), entidad.getRespuesta(), true);
+    }
+
+    private RespuestaGuardada enCurso(final String huella) {
+        return new RespuestaGuardada(HttpStatus.CONFLICT.value(), huella,
+                serializar(new ErrorResponse("Solicitud en curso",
+                        "Hay una solicitud en curso con la misma clave de idempotencia; reintente más tarde.")),
+                false);
+    }
+
+    private String serializar(final Object cuerpo) {
+        try {
+            return objectMapper.writeValueAsString(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta de la orden", e);
+        }
+    }
+
+    private String calcularHuella(final Object solicitud) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(serializar(solicitud).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
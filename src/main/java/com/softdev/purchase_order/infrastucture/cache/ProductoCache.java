@@ -0,0 +1,126 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché local de precios y existencia de productos.
+ * Evita consultar al servicio de productos por datos que cambian con poca frecuencia.
+ * Las entradas expiran por TTL, se desalojan por tamaño y exponen métricas de aciertos,
+ * fallos y desalojos en el registro de Micrometer.
+ */
+@Component
+public class ProductoCache {
+
+    /**
+     * Precios por nombre de producto.
+     */
+    private final Cache<String, BigDecimal> precios;
+    /**
+     * Productos que se sabe que existen. Solo se guardan respuestas positivas para no
+     * ocultar productos recién creados.
+     */
+    private final Cache<String, Boolean> existentes;
+    /**
+     * Indica si la caché está habilitada.
+     */
+    private final boolean habilitada;
+
+    /**
+     * Constructor que crea las cachés y registra sus métricas.
+     *
+     * @param registry Registro de métricas de Micrometer.
+     * @param habilitadaParam Indica si la caché está habilitada.
+     * @param ttl Tiempo de vida de cada entrada.
+     * @param maxEntradas Número máximo de entradas por caché.
+     */
+    public ProductoCache(final MeterRegistry registry,
+                         final @Value("${productos.cache.enabled:true}") boolean habilitadaParam,
+                         final @Value("${productos.cache.ttl:10m}") Duration ttl,
+                         final @Value("${productos.cache.max-entradas:10000}") long maxEntradas) {
+        this.habilitada = habilitadaParam;
+        this.precios = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .build();
+        this.existentes = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, precios, "productos.precios");
+        CaffeineCacheMetrics.monitor(registry, existentes, "productos.existencia");
+    }
+
+    /**
+     * Obtiene el precio guardado de un producto.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @return El precio, o null si no está en caché.
+     */
+    public BigDecimal obtenerPrecio(final String nombreProducto) {
+        return habilitada ? precios.getIfPresent(nombreProducto) : null;
+    }
+
+    /**
+     * Guarda el precio de un producto.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @param precio Precio del producto.
+     */
+    public void guardarPrecio(final String nombreProducto, final BigDecimal precio) {
+        if (habilitada && precio != null) {
+            precios.put(nombreProducto, precio);
+        }
+    }
+
+    /**
+     * Indica si se sabe que el producto existe.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @return true si la caché confirma que el producto existe, false si no hay dato.
+     */
+    public boolean existeProducto(final String nombreProducto) {
+        return habilitada && existentes.getIfPresent(nombreProducto) != null;
+    }
+
+    /**
+     * Registra la existencia de un producto. Las respuestas negativas no se guardan.
+     *
+     * @param nombreProducto Nombre del producto.
+     * @param existe Indica si el producto existe.
+     */
+    public void guardarExistencia(final String nombreProducto, final boolean existe) {
+        if (habilitada && existe) {
+            existentes.put(nombreProducto, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Invalida los datos guardados de un producto.
+     *
+     * @param nombreProducto Nombre del producto.
+     */
+    public void invalidar(final String nombreProducto) {
+        precios.invalidate(nombreProducto);
+        existentes.invalidate(nombreProducto);
+    }
+
+    /**
+     * Invalida todos los datos guardados.
+     */
+    public void invalidarTodo() {
+        precios.invalidateAll();
+        existentes.invalidateAll();
+    }
+}
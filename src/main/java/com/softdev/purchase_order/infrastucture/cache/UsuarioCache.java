@@ -0,0 +1,79 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché local de usuarios por correo electrónico.
+ * Las consultas concurrentes de un mismo correo comparten una única llamada en curso
+ * al servicio de usuarios. Las consultas fallidas no se guardan.
+ */
+@Component
+public class UsuarioCache {
+
+    /**
+     * Usuarios por correo electrónico, guardados como futuros para agrupar consultas concurrentes.
+     */
+    private final AsyncCache<String, UsuarioResponse> usuarios;
+    /**
+     * Indica si la caché está habilitada.
+     */
+    private final boolean habilitada;
+
+    /**
+     * Constructor que crea la caché y registra sus métricas.
+     *
+     * @param registry Registro de métricas de Micrometer.
+     * @param habilitadaParam Indica si la caché está habilitada.
+     * @param ttl Tiempo de vida de cada entrada.
+     * @param maxEntradas Número máximo de usuarios guardados.
+     */
+    public UsuarioCache(final MeterRegistry registry,
+                        final @Value("${usuarios.cache.enabled:true}") boolean habilitadaParam,
+                        final @Value("${usuarios.cache.ttl:1m}") Duration ttl,
+                        final @Value("${usuarios.cache.max-entradas:10000}") long maxEntradas) {
+        this.habilitada = habilitadaParam;
+        this.usuarios = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntradas)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, usuarios.synchronous(), "usuarios");
+    }
+
+    /**
+     * Obtiene un usuario de la caché o lo carga con la función indicada.
+     * Si ya hay una carga en curso para el mismo correo, se reutiliza.
+     *
+     * @param email Correo electrónico del usuario.
+     * @param cargador Función que consulta el usuario en el servicio de usuarios.
+     * @return Un futuro con el usuario, o con null si el servicio no lo encontró.
+     */
+    public CompletableFuture<UsuarioResponse> obtener(final String email,
+                                                      final Function<String, CompletableFuture<UsuarioResponse>> cargador) {
+        if (!habilitada) {
+            return cargador.apply(email);
+        }
+        return usuarios.get(email, (clave, executor) -> cargador.apply(clave));
+    }
+
+    /**
+     * Invalida el usuario guardado para un correo.
+     *
+     * @param email Correo electrónico del usuario.
+     */
+    public void invalidar(final String email) {
+        usuarios.synchronous().invalidate(email);
+    }
+}
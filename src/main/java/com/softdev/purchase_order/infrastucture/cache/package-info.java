@@ -0,0 +1,4 @@
+/**
+ * Paquete que contiene las cachés locales de la aplicación.
+ */
+package com.softdev.purchase_order.infrastucture.cache;
@@ -1,47 +1,160 @@
 package com.softdev.purchase_order.infrastucture.config;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
 import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
 import com.softdev.purchase_order.domain.repositories.ProductoServicePort;
+import com.softdev.purchase_order.domain.repositories.ProductoServiceReactivoPort;
 import com.softdev.purchase_order.domain.repositories.RealizarOrdenPort;
+import com.softdev.purchase_order.domain.repositories.RealizarOrdenReactivoPort;
 import com.softdev.purchase_order.domain.repositories.UsuarioServicePort;
+import com.softdev.purchase_order.domain.repositories.UsuarioServiceReactivoPort;
+import com.softdev.purchase_order.infrastucture.adapters.CoberturaSolicitudes;
+import com.softdev.purchase_order.infrastucture.balanceo.BalanceadorLatenciaConfig;
 import com.softdev.purchase_order.infrastucture.messaging.OrdenPublisherService;
+import com.softdev.purchase_order.use_cases.service.RealizarOrdenReactivoService;
 import com.softdev.purchase_order.use_cases.service.RealizarOrdenService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 /**
  * Configuración de beans para la aplicación.
  * Esta clase define los beans necesarios para la inyección de dependencias.
  */
 @Configuration
-@LoadBalancerClient(name = "product-service")
+@LoadBalancerClients({
+        @LoadBalancerClient(name = "product-service", configuration = BalanceadorLatenciaConfig.class),
+        @LoadBalancerClient(name = "user-service", configuration = BalanceadorLatenciaConfig.class)
+})
 public class BeanConfiguration {
 
     /**
-     * Crea un bean de WebClient.Builder para realizar llamadas HTTP.
+     * Crea un bean de WebClient.Builder para realizar llamadas HTTP, con tiempos máximos de conexión y de
+     * respuesta para que una llamada a un servicio lento no quede esperando indefinidamente.
      *
+     * @param timeoutConexion Tiempo máximo para establecer la conexión.
+     * @param timeoutRespuesta Tiempo máximo para recibir la respuesta.
      * @return Un WebClient.Builder configurado.
      */
     @Bean
     @LoadBalanced
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(
+            final @Value("${servicios.http.timeout-conexion:2s}") Duration timeoutConexion,
+            final @Value("${servicios.http.timeout-respuesta:5s}") Duration timeoutRespuesta) {
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(
+                crearHttpClient(HttpClient.create(), timeoutConexion, timeoutRespuesta)));
+    }
+
+    /**
+     * Crea el pool de conexiones hacia el servicio de productos.
+     *
+     * @param environment Entorno con las propiedades servicios.http.product-service.*.
+     * @return El pool de conexiones del servicio de productos.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider conexionesProductos(final Environment environment) {
+        return PoolConexionesServicio.desde(environment, "product-service").crearPool();
     }
 
     /**
-     * Crea un bean de WebClient para realizar llamadas HTTP.
+     * Crea el pool de conexiones hacia el servicio de usuarios.
      *
-     * @param builder El builder de WebClient.
+     * @param environment Entorno con las propiedades servicios.http.user-service.*.
+     * @return El pool de conexiones del servicio de usuarios.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider conexionesUsuarios(final Environment environment) {
+        return PoolConexionesServicio.desde(environment, "user-service").crearPool();
+    }
+
+    /**
+     * Crea la cobertura de las consultas de existencia, stock y precio al servicio de productos.
+     *
+     * @param registry Registro de métricas de Micrometer.
+     * @param habilitada Indica si la cobertura está habilitada.
+     * @param percentil Percentil de las latencias recientes usado como retraso antes de repetir la consulta.
+     * @param retrasoInicial Retraso usado hasta reunir suficientes latencias.
+     * @param retrasoMinimo Retraso mínimo antes de repetir la consulta.
+     * @param tasaMaxima Fracción máxima de consultas repetidas.
+     * @return La cobertura de las consultas de productos.
+     */
+    @Bean
+    public CoberturaSolicitudes coberturaProductos(
+            final MeterRegistry registry,
+            final @Value("${productos.cobertura.enabled:false}") boolean habilitada,
+            final @Value("${productos.cobertura.percentil:0.95}") double percentil,
+            final @Value("${productos.cobertura.retraso-inicial:50ms}") Duration retrasoInicial,
+            final @Value("${productos.cobertura.retraso-minimo:5ms}") Duration retrasoMinimo,
+            final @Value("${productos.cobertura.tasa-maxima:0.05}") double tasaMaxima) {
+        return new CoberturaSolicitudes(registry, "productos", habilitada, percentil, retrasoInicial,
+                retrasoMinimo, tasaMaxima);
+    }
+
+    /**
+     * Crea el WebClient del servicio de productos, con su propio pool de conexiones para que una
+     * saturación del servicio de usuarios no le quite conexiones.
+     *
+     * @param builder El builder de WebClient balanceado.
+     * @param conexionesProductos El pool de conexiones del servicio de productos.
+     * @param environment Entorno con las propiedades servicios.http.product-service.*.
+     * @param timeoutConexion Tiempo máximo para establecer la conexión.
+     * @param timeoutRespuesta Tiempo máximo para recibir la respuesta.
      *
      * @return Un WebClient configurado.
      */
     @Bean
-    public WebClient webClient(final @LoadBalanced WebClient.Builder builder) {
-        return builder.build();
+    public WebClient productoWebClient(
+            final @LoadBalanced WebClient.Builder builder,
+            final @Qualifier("conexionesProductos") ConnectionProvider conexionesProductos,
+            final Environment environment,
+            final @Value("${servicios.http.timeout-conexion:2s}") Duration timeoutConexion,
+            final @Value("${servicios.http.timeout-respuesta:5s}") Duration timeoutRespuesta) {
+        return crearWebClient(builder, conexionesProductos, PoolConexionesServicio.desde(environment, "product-service"),
+                timeoutConexion, timeoutRespuesta);
+    }
+
+    /**
+     * Crea el WebClient del servicio de usuarios, con su propio pool de conexiones.
+     *
+     * @param builder El builder de WebClient balanceado.
+     * @param conexionesUsuarios El pool de conexiones del servicio de usuarios.
+     * @param environment Entorno con las propiedades servicios.http.user-service.*.
+     * @param timeoutConexion Tiempo máximo para establecer la conexión.
+     * @param timeoutRespuesta Tiempo máximo para recibir la respuesta.
+     *
+     * @return Un WebClient configurado.
+     */
+    @Bean
+    public WebClient usuarioWebClient(
+            final @LoadBalanced WebClient.Builder builder,
+            final @Qualifier("conexionesUsuarios") ConnectionProvider conexionesUsuarios,
+            final Environment environment,
+            final @Value("${servicios.http.timeout-conexion:2s}") Duration timeoutConexion,
+            final @Value("${servicios.http.timeout-respuesta:5s}") Duration timeoutRespuesta) {
+        return crearWebClient(builder, conexionesUsuarios, PoolConexionesServicio.desde(environment, "user-service"),
+                timeoutConexion, timeoutRespuesta);
     }
 
     /**
@@ -51,6 +164,10 @@ public class BeanConfiguration {
      * @param productoServicePort El servicio de productos.
      * @param usuarioServicePort El servicio de usuarios.
      * @param ordenPublisherService El servicio para publicar órdenes en RabbitMQ.
+     * @param ordenOutboxPort La bandeja de salida de eventos de órdenes.
+     * @param transactionManager El administrador de transacciones de JPA.
+     * @param timeoutUsuario Tiempo máximo para obtener el usuario.
+     * @param timeoutProductos Tiempo máximo para cotizar los productos.
      *
      * @return Un objeto RealizarOrdenPort configurado.
      */
@@ -59,7 +176,96 @@ public class BeanConfiguration {
             final OrdenRepositoryPort ordenRepository,
             final ProductoServicePort productoServicePort,
             final UsuarioServicePort usuarioServicePort,
-            final OrdenPublisherService ordenPublisherService) {
-        return new RealizarOrdenService(ordenRepository, productoServicePort, usuarioServicePort, ordenPublisherService);
+            final OrdenPublisherService ordenPublisherService,
+            final OrdenOutboxPort ordenOutboxPort,
+            final PlatformTransactionManager transactionManager,
+            final @Value("${ordenes.timeout.usuario:5s}") Duration timeoutUsuario,
+            final @Value("${ordenes.timeout.productos:10s}") Duration timeoutProductos) {
+        return new RealizarOrdenService(ordenRepository, productoServicePort, usuarioServicePort, ordenPublisherService,
+                ordenOutboxPort, new TransactionTemplate(transactionManager), consultasOrdenExecutor(),
+                timeoutUsuario, timeoutProductos);
+    }
+
+    /**
+     * Crea un bean de RealizarOrdenReactivoPort que realiza órdenes sin bloquear el hilo de la solicitud.
+     *
+     * @param ordenRepository El repositorio de órdenes.
+     * @param productoServicePort El servicio no bloqueante de productos.
+     * @param usuarioServicePort El servicio no bloqueante de usuarios.
+     * @param ordenOutboxPort La bandeja de salida de eventos de órdenes.
+     * @param transactionManager El administrador de transacciones de JPA.
+     * @param persistenciaOrdenesScheduler Planificador donde se guarda la orden.
+     * @param timeoutUsuario Tiempo máximo para obtener el usuario.
+     * @param timeoutProductos Tiempo máximo para cotizar los productos.
+     *
+     * @return Un objeto RealizarOrdenReactivoPort configurado.
+     */
+    @Bean
+    public RealizarOrdenReactivoPort realizarOrdenReactivoUseCase(
+            final OrdenRepositoryPort ordenRepository,
+            final ProductoServiceReactivoPort productoServicePort,
+            final UsuarioServiceReactivoPort usuarioServicePort,
+            final OrdenOutboxPort ordenOutboxPort,
+            final PlatformTransactionManager transactionManager,
+            final Scheduler persistenciaOrdenesScheduler,
+            final @Value("${ordenes.timeout.usuario:5s}") Duration timeoutUsuario,
+            final @Value("${ordenes.timeout.productos:10s}") Duration timeoutProductos) {
+        return new RealizarOrdenReactivoService(ordenRepository, productoServicePort, usuarioServicePort, ordenOutboxPort,
+                new TransactionTemplate(transactionManager), persistenciaOrdenesScheduler, timeoutUsuario, timeoutProductos);
+    }
+
+    /**
+     * Crea el planificador donde el flujo no bloqueante ejecuta el guardado de órdenes con JPA.
+     * Sus hilos se limitan al tamaño del pool de conexiones para no esperar conexiones libres dentro
+     * del planificador; las tareas que no caben quedan en cola.
+     *
+     * @param hilos Número máximo de hilos, normalmente igual al tamaño del pool de conexiones.
+     * @param capacidadCola Número máximo de guardados en cola.
+     *
+     * @return Un Scheduler acotado.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler persistenciaOrdenesScheduler(
+            final @Value("${ordenes.reactivo.persistencia.hilos:10}") int hilos,
+            final @Value("${ordenes.reactivo.persistencia.cola:10000}") int capacidadCola) {
+        return Schedulers.newBoundedElastic(hilos, capacidadCola, "orden-persistencia");
+    }
+
+    /**
+     * Crea un WebClient a partir del builder balanceado, que conserva el filtro del balanceador, con un
+     * pool de conexiones propio.
+     *
+     * @param builder El builder de WebClient balanceado.
+     * @param conexiones El pool de conexiones del servicio.
+     * @param pool La configuración del pool, con el protocolo del servicio.
+     * @param timeoutConexion Tiempo máximo para establecer la conexión.
+     * @param timeoutRespuesta Tiempo máximo para recibir la respuesta.
+     * @return Un WebClient configurado.
+     */
+    private static WebClient crearWebClient(final WebClient.Builder builder, final ConnectionProvider conexiones,
+                                            final PoolConexionesServicio pool, final Duration timeoutConexion,
+                                            final Duration timeoutRespuesta) {
+        HttpClient httpClient = pool.aplicarProtocolo(
+                crearHttpClient(HttpClient.create(conexiones), timeoutConexion, timeoutRespuesta));
+        return builder.clone().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+
+    private static HttpClient crearHttpClient(final HttpClient httpClient, final Duration timeoutConexion,
+                                              final Duration timeoutRespuesta) {
+        return httpClient
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutConexion.toMillis())
+                .responseTimeout(timeoutRespuesta);
+    }
+
+    /**
+     * Crea el ejecutor donde se consultan en paralelo el usuario y los productos de una orden.
+     * Usa un hilo virtual por tarea y propaga el contexto de seguridad, necesario para que los
+     * adaptadores reenvíen el token JWT del cliente. No se expone como bean para no reemplazar
+     * el ejecutor de tareas por defecto de Spring Boot.
+     *
+     * @return Un Executor de hilos virtuales que propaga el contexto de seguridad.
+     */
+    private Executor consultasOrdenExecutor() {
+        return new DelegatingSecurityContextExecutor(Executors.newVirtualThreadPerTaskExecutor());
     }
 }
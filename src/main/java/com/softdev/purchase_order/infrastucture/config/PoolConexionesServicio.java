@@ -0,0 +1,107 @@
+package com.softdev.purchase_order.infrastucture.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configuración del pool de conexiones HTTP hacia un servicio.
+ * Se lee de las propiedades servicios.http.&lt;servicio&gt;.*; el pool limita las conexiones por instancia
+ * del servicio, ya que Reactor Netty mantiene un pool por dirección remota.
+ *
+ * @param servicio Nombre del servicio en el registro de servicios.
+ * @param maxConexiones Máximo de conexiones abiertas por instancia del servicio.
+ * @param maxPendientes Máximo de solicitudes esperando una conexión libre; las demás fallan de inmediato.
+ * @param tiempoMaxPendiente Tiempo máximo esperando una conexión libre.
+ * @param maxInactividad Tiempo sin uso tras el cual se cierra una conexión, menor que el keep-alive del servidor.
+ * @param maxVida Tiempo de vida de una conexión, para repartir las conexiones entre instancias nuevas.
+ * @param intervaloLimpieza Cada cuánto se cierran en segundo plano las conexiones inactivas o vencidas.
+ * @param http2 true para usar HTTP/2 sin TLS (h2c) con el servicio, con HTTP/1.1 como alternativa.
+ */
+public record PoolConexionesServicio(String servicio, int maxConexiones, int maxPendientes,
+                                     Duration tiempoMaxPendiente, Duration maxInactividad, Duration maxVida,
+                                     Duration intervaloLimpieza, boolean http2) {
+
+    /**
+     * Máximo de conexiones por instancia si no se configura.
+     */
+    private static final int MAX_CONEXIONES_POR_DEFECTO = 50;
+    /**
+     * Máximo de solicitudes esperando una conexión si no se configura.
+     */
+    private static final int MAX_PENDIENTES_POR_DEFECTO = 100;
+    /**
+     * Tiempo máximo esperando una conexión si no se configura.
+     */
+    private static final Duration TIEMPO_MAX_PENDIENTE_POR_DEFECTO = Duration.ofMillis(500);
+    /**
+     * Tiempo sin uso tras el cual se cierra una conexión si no se configura.
+     */
+    private static final Duration MAX_INACTIVIDAD_POR_DEFECTO = Duration.ofSeconds(30);
+    /**
+     * Tiempo de vida de una conexión si no se configura.
+     */
+    private static final Duration MAX_VIDA_POR_DEFECTO = Duration.ofMinutes(5);
+    /**
+     * Intervalo de limpieza de conexiones si no se configura.
+     */
+    private static final Duration INTERVALO_LIMPIEZA_POR_DEFECTO = Duration.ofSeconds(30);
+
+    /**
+     * Lee la configuración del pool de un servicio.
+     *
+     * @param environment Entorno con las propiedades de la aplicación.
+     * @param servicio Nombre del servicio en el registro de servicios.
+     * @return La configuración del pool.
+     */
+    public static PoolConexionesServicio desde(final Environment environment, final String servicio) {
+        String prefijo = "servicios.http." + servicio + ".";
+        return new PoolConexionesServicio(servicio,
+                environment.getProperty(prefijo + "max-conexiones", Integer.class, MAX_CONEXIONES_POR_DEFECTO),
+                environment.getProperty(prefijo + "max-pendientes", Integer.class, MAX_PENDIENTES_POR_DEFECTO),
+                duracion(environment, prefijo + "tiempo-max-pendiente", TIEMPO_MAX_PENDIENTE_POR_DEFECTO),
+                duracion(environment, prefijo + "max-inactividad", MAX_INACTIVIDAD_POR_DEFECTO),
+                duracion(environment, prefijo + "max-vida", MAX_VIDA_POR_DEFECTO),
+                duracion(environment, prefijo + "intervalo-limpieza", INTERVALO_LIMPIEZA_POR_DEFECTO),
+                environment.getProperty(prefijo + "http2", Boolean.class, false));
+    }
+
+    private static Duration duracion(final Environment environment, final String propiedad,
+                                     final Duration porDefecto) {
+        String valor = environment.getProperty(propiedad);
+        return valor != null ? DurationStyle.detectAndParse(valor) : porDefecto;
+    }
+
+    /**
+     * Crea el pool de conexiones, con sus métricas reactor.netty.connection.provider.* etiquetadas
+     * con el nombre del servicio.
+     *
+     * @return El pool de conexiones.
+     */
+    public ConnectionProvider crearPool() {
+        return ConnectionProvider.builder(servicio)
+                .maxConnections(maxConexiones)
+                .pendingAcquireMaxCount(maxPendientes)
+                .pendingAcquireTimeout(tiempoMaxPendiente)
+                .maxIdleTime(maxInactividad)
+                .maxLifeTime(maxVida)
+                .evictInBackground(intervaloLimpieza)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Aplica el protocolo configurado al cliente HTTP.
+     *
+     * @param httpClient El cliente HTTP.
+     * @return El cliente con HTTP/2 sin TLS si está habilitado, o sin cambios.
+     */
+    public HttpClient aplicarProtocolo(final HttpClient httpClient) {
+        return http2 ? httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11) : httpClient;
+    }
+}
@@ -1,5 +1,6 @@
 package com.softdev.purchase_order.infrastucture.config;
 
+import java.time.Duration;
 import java.util.Base64;
 
 import javax.crypto.spec.SecretKeySpec;
@@ -18,6 +19,10 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import com.softdev.purchase_order.infrastucture.security.JwtDecoderEnCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 
 /** Clase para la configuracion de seguridad en la aplicacion. */
 @Configuration
@@ -61,10 +66,19 @@ public class SecurityConfig {
 
     /**
      * Decodificador de JWT personalizado.
+     * Con seguridad.jwt.cache.enabled=true guarda los tokens ya validados, para no verificar la firma
+     * ni analizar los claims en cada solicitud con el mismo token.
+     * @param registry Registro de métricas de Micrometer.
+     * @param cacheHabilitada Indica si se guardan los tokens validados.
+     * @param ttlCache Tiempo de vida máximo de cada token en la caché; nunca supera el claim exp.
+     * @param maxEntradasCache Número máximo de tokens guardados.
      * @return JwtDecoder
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtDecoder jwtDecoder(final MeterRegistry registry,
+                                 final @Value("${seguridad.jwt.cache.enabled:false}") boolean cacheHabilitada,
+                                 final @Value("${seguridad.jwt.cache.ttl:5m}") Duration ttlCache,
+                                 final @Value("${seguridad.jwt.cache.max-entradas:10000}") long maxEntradasCache) {
 
         MacAlgorithm algorithm = MacAlgorithm.HS512;
 
@@ -72,9 +86,13 @@ public class SecurityConfig {
 
         SecretKeySpec secretKeySpec = new SecretKeySpec(keyBytes, algorithm.getName());
 
-        return NimbusJwtDecoder.withSecretKey(secretKeySpec)
+        JwtDecoder decoder = NimbusJwtDecoder.withSecretKey(secretKeySpec)
                 .macAlgorithm(algorithm)
                 .build();
+        if (!cacheHabilitada) {
+            return decoder;
+        }
+        return new JwtDecoderEnCache(decoder, registry, ttlCache, maxEntradasCache);
     }
 
 
@@ -13,7 +13,9 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Clase que representa un detalle de una orden de compra.
@@ -50,10 +52,13 @@ public class DetalleOrdenEntity {
     private double subtotal;
 
     /**
-     * Relación con la orden a la que pertenece este detalle.
+     * Relación con la orden a la que pertenece este detalle; es el lado que escribe la columna ordenId.
+     * Se excluye de toString, equals y hashCode para no recorrer la relación en ambos sentidos.
      */
     @ManyToOne(fetch = FetchType.LAZY) // Relación con la orden
     @JoinColumn(name = "ordenId") // Asegúrate que coincida con el nombre en tu tabla detalles_orden
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private OrdenEntity orden;
 
     /**
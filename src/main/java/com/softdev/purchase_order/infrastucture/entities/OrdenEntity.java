@@ -7,10 +7,19 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.CascadeType;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -19,12 +28,14 @@ import java.util.UUID;
 
 /**
  * Clase que representa una orden de compra.
+ * Su id lo asigna la aplicación, así que implementa Persistable para que Spring Data guarde las órdenes
+ * nuevas con persist, solo con INSERT, en lugar de merge, que consulta antes la orden y sus detalles.
  */
 @Entity
 @Table(name = "ordenes")
 @Data
 @NoArgsConstructor
-public class OrdenEntity {
+public class OrdenEntity implements Persistable<UUID> {
     /**
      * Identificador único de la orden.
      */
@@ -73,10 +84,27 @@ public class OrdenEntity {
     private MetodoPagoEmbeddable metodoPago;
     /**
      * Lista de detalles de la orden.
+     * La relación la mantiene DetalleOrdenEntity.orden, así cada detalle se inserta con su ordenId
+     * sin un UPDATE posterior, y las inserciones de los detalles se agrupan en lotes JDBC.
      */
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "ordenId") // Campo FK en DetalleOrdenEntity
+    @OneToMany(mappedBy = "orden", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DetalleOrdenEntity> detalles = new ArrayList<>();
+    /**
+     * Versión de la orden, incrementada por Hibernate en cada actualización.
+     * Se usa para el ETag de la factura y para detectar actualizaciones concurrentes de la misma orden.
+     * Las órdenes existentes antes de agregar la columna empiezan en 0.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
+    /**
+     * Indica si la orden aún no está en la base de datos. Es falso después de guardarla o cargarla.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private boolean nueva = true;
 
     /**
      * Método que se ejecuta antes de persistir la entidad.
@@ -89,11 +117,31 @@ public class OrdenEntity {
         }
     }
     /**
-     * Método que agrega un detalle a la orden.
+     * Indica si la orden es nueva, para que Spring Data la guarde con persist.
+     *
+     * @return true si la orden no se ha guardado ni cargado de la base de datos.
+     */
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    /**
+     * Marca la orden como existente después de guardarla o de cargarla de la base de datos.
+     */
+    @PostPersist
+    @PostLoad
+    public void marcarExistente() {
+        nueva = false;
+    }
+
+    /**
+     * Método que agrega un detalle a la orden y le asigna esta orden.
      *
      * @param detalle Detalle de la orden a agregar.
      */
     public void addDetalle(final DetalleOrdenEntity detalle) {
+        detalle.setOrden(this);
         this.detalles.add(detalle);
     }
 }
@@ -0,0 +1,64 @@
+package com.softdev.purchase_order.infrastucture.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clase que representa una solicitud de orden identificada por una clave de idempotencia
+ * y la respuesta que se le entregó al cliente.
+ */
+@Entity
+@Table(name = "orden_idempotencia", indexes = @Index(name = "idx_orden_idempotencia_fecha", columnList = "fecha_creacion"))
+@Data
+@NoArgsConstructor
+public class OrdenIdempotenciaEntity {
+    /**
+     * Longitud máxima de la clave: el correo del cliente más la cabecera Idempotency-Key.
+     */
+    private static final int LONGITUD_CLAVE = 512;
+    /**
+     * Longitud de la huella SHA-256 en hexadecimal.
+     */
+    private static final int LONGITUD_HUELLA = 64;
+
+    /**
+     * Clave de idempotencia, compuesta por el correo del cliente y la cabecera Idempotency-Key.
+     */
+    @Id
+    @Column(name = "clave", length = LONGITUD_CLAVE)
+    private String clave;
+    /**
+     * Huella SHA-256 del cuerpo de la solicitud original.
+     */
+    @Column(name = "huella", length = LONGITUD_HUELLA, nullable = false)
+    private String huella;
+    /**
+     * Código HTTP de la respuesta, o null mientras la solicitud está en proceso.
+     */
+    @Column(name = "estado_http")
+    private Integer estadoHttp;
+    /**
+     * Cuerpo de la respuesta serializado en JSON.
+     */
+    @Column(name = "respuesta", columnDefinition = "text")
+    private String respuesta;
+    /**
+     * Fecha y hora en que se recibió la solicitud.
+     */
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+    /**
+     * Fecha y hora en que una instancia tomó la solicitud para procesarla. Mientras la solicitud está en
+     * proceso, la reserva vence pasado un tiempo y otra solicitud con la misma clave puede reclamarla.
+     * Es null en las claves registradas antes de existir la columna; en ese caso se usa la fecha de creación.
+     */
+    @Column(name = "fecha_reserva")
+    private LocalDateTime fechaReserva;
+}
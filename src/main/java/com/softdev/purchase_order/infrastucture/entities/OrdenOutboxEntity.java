@@ -0,0 +1,86 @@
+package com.softdev.purchase_order.infrastucture.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Clase que representa un evento de orden pendiente de publicar en RabbitMQ.
+ * Se registra en la misma transacción que la orden; como su id lo asigna la aplicación, implementa
+ * Persistable para que el registro sea solo un INSERT.
+ */
+@Entity
+@Table(name = "orden_outbox", indexes = @Index(name = "idx_orden_outbox_fecha", columnList = "fecha_creacion"))
+@Data
+@NoArgsConstructor
+public class OrdenOutboxEntity implements Persistable<UUID> {
+    /**
+     * Identificador único del evento.
+     */
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID id;
+    /**
+     * Identificador de la orden a la que pertenece el evento.
+     */
+    @Column(name = "orden_id", columnDefinition = "uuid", nullable = false)
+    private UUID ordenId;
+    /**
+     * Contenido del mensaje serializado en JSON.
+     */
+    @Column(name = "payload", columnDefinition = "text", nullable = false)
+    private String payload;
+    /**
+     * Fecha y hora en que se registró el evento.
+     */
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+    /**
+     * Número de intentos de publicación fallidos.
+     */
+    @Column(name = "intentos", nullable = false)
+    private int intentos;
+    /**
+     * Indica si el evento aún no está en la base de datos. Es falso después de guardarlo o cargarlo.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private boolean nuevo = true;
+
+    /**
+     * Indica si el evento es nuevo, para que Spring Data lo guarde con persist.
+     *
+     * @return true si el evento no se ha guardado ni cargado de la base de datos.
+     */
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    /**
+     * Marca el evento como existente después de guardarlo o de cargarlo de la base de datos.
+     */
+    @PostPersist
+    @PostLoad
+    public void marcarExistente() {
+        nuevo = false;
+    }
+}
@@ -0,0 +1,83 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import java.io.IOException;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+/**
+ * Convertidor de mensajes en formato binario CBOR.
+ * Usa el mismo modelo de Jackson que el convertidor JSON, pero con una codificación binaria más
+ * compacta y rápida de procesar. El tipo del mensaje viaja en la cabecera __TypeId__, igual que en JSON.
+ */
+public class CborMessageConverter extends AbstractMessageConverter {
+
+    /**
+     * Tipo de contenido de los mensajes CBOR.
+     */
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    /**
+     * Mapper de Jackson para CBOR.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Resuelve el tipo Java de cada mensaje a partir de sus cabeceras.
+     */
+    private final DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+
+    /**
+     * Constructor que inicializa el convertidor.
+     *
+     * @param trustedPackages Paquetes cuyos tipos se pueden deserializar.
+     */
+    public CborMessageConverter(final String... trustedPackages) {
+        this.objectMapper = CBORMapper.builder().findAndAddModules().build();
+        this.typeMapper.setTrustedPackages(trustedPackages);
+    }
+
+    /**
+     * Serializa un objeto en CBOR.
+     *
+     * @param object El objeto a serializar.
+     * @param messageProperties Propiedades del mensaje.
+     * @return El mensaje serializado.
+     */
+    @Override
+    protected Message createMessage(final Object object, final MessageProperties messageProperties) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Error al serializar el mensaje en CBOR", e);
+        }
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        typeMapper.fromJavaType(objectMapper.constructType(object.getClass()), messageProperties);
+        return new Message(body, messageProperties);
+    }
+
+    /**
+     * Deserializa un mensaje CBOR al tipo indicado en sus cabeceras.
+     *
+     * @param message El mensaje a deserializar.
+     * @return El objeto deserializado.
+     */
+    @Override
+    public Object fromMessage(final Message message) {
+        JavaType tipo = typeMapper.toJavaType(message.getMessageProperties());
+        try {
+            return objectMapper.readValue(message.getBody(), tipo);
+        } catch (IOException e) {
+            throw new MessageConversionException("Error al deserializar el mensaje CBOR", e);
+        }
+    }
+}
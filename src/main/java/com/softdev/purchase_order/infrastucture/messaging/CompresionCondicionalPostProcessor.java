@@ -0,0 +1,47 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.support.postprocessor.GZipPostProcessor;
+
+/**
+ * Comprime con gzip los mensajes cuyo cuerpo alcanza un tamaño mínimo.
+ * Los mensajes pequeños se envían sin comprimir, ya que comprimirlos cuesta más CPU de lo que ahorra.
+ * Los consumidores detectan la compresión por la cabecera content-encoding.
+ */
+public class CompresionCondicionalPostProcessor implements MessagePostProcessor {
+
+    /**
+     * Compresor gzip.
+     */
+    private final GZipPostProcessor gzip = new GZipPostProcessor();
+    /**
+     * Tamaño mínimo en bytes a partir del cual se comprime; cero o negativo deshabilita la compresión.
+     */
+    private final int umbralBytes;
+
+    /**
+     * Constructor que inicializa el post-procesador.
+     *
+     * @param umbralBytesParam Tamaño mínimo en bytes para comprimir; cero o negativo la deshabilita.
+     */
+    public CompresionCondicionalPostProcessor(final int umbralBytesParam) {
+        this.umbralBytes = umbralBytesParam;
+    }
+
+    /**
+     * Comprime el mensaje si su cuerpo alcanza el umbral.
+     *
+     * @param message El mensaje a publicar.
+     * @return El mensaje, comprimido o no.
+     * @throws AmqpException Si falla la compresión.
+     */
+    @Override
+    public Message postProcessMessage(final Message message) throws AmqpException {
+        if (umbralBytes <= 0 || message.getBody().length < umbralBytes) {
+            return message;
+        }
+        return gzip.postProcessMessage(message);
+    }
+}
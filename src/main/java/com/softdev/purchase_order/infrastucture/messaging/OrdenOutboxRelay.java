@@ -0,0 +1,195 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.infrastucture.entities.OrdenOutboxEntity;
+import com.softdev.purchase_order.infrastucture.repositories.OrdenOutboxJpaRepository;
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Publica en RabbitMQ los eventos pendientes de la bandeja de salida de órdenes.
+ * Drena la tabla orden_outbox por lotes, en orden de creación, y elimina cada evento solo cuando el
+ * broker confirma su publicación. Si una publicación falla, el evento se reintenta en la siguiente
+ * ejecución; al agotar sus intentos, o si su mensaje es ilegible, queda en la tabla como mensaje
+ * muerto y deja de publicarse.
+ */
+@Component
+@ConditionalOnProperty(name = "ordenes.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OrdenOutboxRelay {
+
+    /**
+     * Repositorio JPA de la bandeja de salida.
+     */
+    private final OrdenOutboxJpaRepository repository;
+    /**
+     * Servicio para publicar mensajes de órdenes a RabbitMQ.
+     */
+    private final OrdenPublisherService ordenPublisherService;
+    /**
+     * Publicador con confirmaciones asíncronas, o null para publicar cada evento de forma síncrona.
+     */
+    private final OrdenPublicadorPipeline pipeline;
+    /**
+     * Mapper para deserializar los mensajes guardados.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Máximo de eventos publicados por ejecución.
+     */
+    private final int tamanoLote;
+    /**
+     * Número de intentos fallidos a partir del cual un evento queda como mensaje muerto.
+     */
+    private final int maxIntentos;
+    /**
+     * Tiempo máximo de espera de la confirmación de cada evento publicado de forma síncrona.
+     */
+    private final Duration timeoutConfirmacion;
+
+    /**
+     * Constructor que inicializa el relay. Si el publicador con confirmaciones asíncronas está
+     * habilitado, cada lote se publica sin esperar la confirmación de cada evento.
+     *
+     * @param repositoryParam Repositorio JPA de la bandeja de salida.
+     * @param ordenPublisherServiceParam Servicio para publicar mensajes de órdenes.
+     * @param pipelineProvider Publicador con confirmaciones asíncronas, si está habilitado.
+     * @param objectMapperParam Mapper para deserializar los mensajes guardados.
+     * @param tamanoLoteParam Máximo de eventos publicados por ejecución.
+     * @param maxIntentosParam Número de intentos fallidos a partir del cual un evento queda como mensaje muerto.
+     * @param timeoutConfirmacionParam Tiempo máximo de espera de la confirmación de cada evento.
+     */
+    @Autowired
+    public OrdenOutboxRelay(final OrdenOutboxJpaRepository repositoryParam,
+                            final OrdenPublisherService ordenPublisherServiceParam,
+                            final ObjectProvider<OrdenPublicadorPipeline> pipelineProvider,
+                            final ObjectMapper objectMapperParam,
+                            final @Value("${ordenes.outbox.tamano-lote:100}") int tamanoLoteParam,
+                            final @Value("${ordenes.outbox.max-intentos:10}") int maxIntentosParam,
+                            final @Value("${ordenes.outbox.timeout-confirmacion:10s}") Duration timeoutConfirmacionParam) {
+        this.repository = repositoryParam;
+        this.ordenPublisherService = ordenPublisherServiceParam;
+        this.pipeline = pipelineProvider.getIfAvailable();
+        this.objectMapper = objectMapperParam;
+        this.tamanoLote = Math.max(1, tamanoLoteParam);
+        this.maxIntentos = Math.max(1, maxIntentosParam);
+        this.timeoutConfirmacion = timeoutConfirmacionParam;
+    }
+
+    /**
+     * Publica el siguiente lote de eventos pendientes.
+     *
+     * @return El número de eventos publicados.
+     */
+    @Scheduled(fixedDelayString = "${ordenes.outbox.intervalo:1s}")
+    @Transactional
+    public int publicarPendientes() {
+        List<OrdenOutboxEntity> pendientes = repository.findSiguienteLote(maxIntentos, PageRequest.of(0, tamanoLote));
+        return pipeline != null ? publicarEnPipeline(pendientes) : publicarUnoAUno(pendientes);
+    }
+
+    /**
+     * Publica los eventos uno a uno, esperando la confirmación del broker antes de eliminar cada uno.
+     * Se detiene en el primer error para no insistir mientras el broker no está disponible.
+     *
+     * @param pendientes Eventos del lote.
+     * @return El número de eventos publicados.
+     */
+    private int publicarUnoAUno(final List<OrdenOutboxEntity> pendientes) {
+        int publicados = 0;
+        for (OrdenOutboxEntity evento : pendientes) {
+            OrdenConDetallesDTO orden = leer(evento);
+            if (orden == null) {
+                continue;
+            }
+            try {
+                ordenPublisherService.publicarOrdenConfirmada(orden, timeoutConfirmacion);
+            } catch (Exception e) {
+                registrarFallo(evento, e);
+                break;
+            }
+            repository.delete(evento);
+            publicados++;
+        }
+        return publicados;
+    }
+
+    /**
+     * Publica todos los eventos del lote sin esperar confirmaciones individuales y luego espera
+     * las confirmaciones. Solo se eliminan los eventos confirmados por el broker.
+     *
+     * @param pendientes Eventos del lote.
+     * @return El número de eventos publicados.
+     */
+    private int publicarEnPipeline(final List<OrdenOutboxEntity> pendientes) {
+        List<Map.Entry<OrdenOutboxEntity, CompletableFuture<Void>>> envios = new ArrayList<>();
+        for (OrdenOutboxEntity evento : pendientes) {
+            OrdenConDetallesDTO orden = leer(evento);
+            if (orden != null) {
+                envios.add(Map.entry(evento, pipeline.publicarOrden(orden)));
+            }
+        }
+
+        int publicados = 0;
+        for (Map.Entry<OrdenOutboxEntity, CompletableFuture<Void>> envio : envios) {
+            try {
+                envio.getValue().join();
+            } catch (CompletionException e) {
+                registrarFallo(envio.getKey(), e.getCause());
+                continue;
+            }
+            repository.delete(envio.getKey());
+            publicados++;
+        }
+        return publicados;
+    }
+
+    /**
+     * Deserializa el mensaje de un evento. Un mensaje ilegible no se podrá publicar nunca, por lo que
+     * queda de inmediato como mensaje muerto para no ocupar un lugar en cada lote.
+     *
+     * @param evento El evento a leer.
+     * @return El DTO de la orden, o null si el mensaje es ilegible.
+     */
+    private OrdenConDetallesDTO leer(final OrdenOutboxEntity evento) {
+        try {
+            return objectMapper.readValue(evento.getPayload(), OrdenConDetallesDTO.class);
+        } catch (JsonProcessingException e) {
+            System.err.println("Evento ilegible de la orden " + evento.getOrdenId()
+                    + ", queda como mensaje muerto: " + e.getMessage());
+            evento.setIntentos(maxIntentos);
+            return null;
+        }
+    }
+
+    /**
+     * Registra un intento de publicación fallido; el evento se reintenta en la siguiente ejecución
+     * hasta agotar sus intentos.
+     *
+     * @param evento El evento que no se pudo publicar.
+     * @param error La causa del fallo.
+     */
+    private void registrarFallo(final OrdenOutboxEntity evento, final Throwable error) {
+        System.err.println("Error al publicar el evento de la orden " + evento.getOrdenId() + ": " + error.getMessage());
+        evento.setIntentos(evento.getIntentos() + 1);
+        if (evento.getIntentos() >= maxIntentos) {
+            System.err.println("El evento de la orden " + evento.getOrdenId() + " agotó sus " + maxIntentos
+                    + " intentos y queda como mensaje muerto");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+
+/**
+ * Publicador de órdenes de alto rendimiento.
+ * Envía los mensajes sin esperar la confirmación de cada uno: las confirmaciones del broker
+ * se reciben de forma asíncrona y se correlacionan con cada mensaje. El número de mensajes
+ * sin confirmar está limitado por una ventana; cuando se llena, el llamador espera.
+ */
+@Component
+@ConditionalOnProperty(name = "ordenes.outbox.pipeline.enabled", havingValue = "true")
+public class OrdenPublicadorPipeline {
+
+    /**
+     * Template de RabbitMQ que publica por una conexión dedicada con confirmaciones correlacionadas.
+     */
+    private final RabbitTemplate rabbitTemplate;
+    /**
+     * Permisos disponibles en la ventana de mensajes sin confirmar.
+     */
+    private final Semaphore ventana;
+    /**
+     * Tiempo máximo de espera por la confirmación de un mensaje o por un espacio en la ventana.
+     */
+    private final Duration timeoutConfirmacion;
+
+    /**
+     * Constructor que crea el template dedicado a partir de la fábrica de conexiones.
+     * La fábrica debe tener habilitadas las confirmaciones correlacionadas.
+     *
+     * @param connectionFactory Fábrica de conexiones de RabbitMQ.
+     * @param messageConverter Convertidor de mensajes.
+     * @param compresionMensajes Post-procesador que comprime los mensajes grandes.
+     * @param tamanoVentana Máximo de mensajes publicados sin confirmar.
+     * @param timeoutConfirmacionParam Tiempo máximo de espera por cada confirmación.
+     */
+    @Autowired
+    public OrdenPublicadorPipeline(final ConnectionFactory connectionFactory,
+                                   final MessageConverter messageConverter,
+                                   final CompresionCondicionalPostProcessor compresionMensajes,
+                                   final @Value("${ordenes.outbox.pipeline.ventana:256}") int tamanoVentana,
+                                   final @Value("${ordenes.outbox.pipeline.timeout-confirmacion:10s}") Duration timeoutConfirmacionParam) {
+        this(crearTemplate(connectionFactory, messageConverter, compresionMensajes), tamanoVentana, timeoutConfirmacionParam);
+    }
+
+    /**
+     * Constructor que inicializa el publicador con un template ya configurado.
+     *
+     * @param rabbitTemplateParam Template de RabbitMQ con confirmaciones correlacionadas.
+     * @param tamanoVentana Máximo de mensajes publicados sin confirmar.
+     * @param timeoutConfirmacionParam Tiempo máximo de espera por cada confirmación.
+     */
+    public OrdenPublicadorPipeline(final RabbitTemplate rabbitTemplateParam,
+                                   final int tamanoVentana,
+                                   final Duration timeoutConfirmacionParam) {
+        this.rabbitTemplate = rabbitTemplateParam;
+        this.ventana = new Semaphore(Math.max(1, tamanoVentana));
+        this.timeoutConfirmacion = timeoutConfirmacionParam;
+    }
+
+    /**
+     * Crea un template que publica por la conexión de publicación, separada de la de los consumidores,
+     * y que marca como fallidos los mensajes que el broker no puede enrutar.
+     *
+     * @param connectionFactory Fábrica de conexiones de RabbitMQ.
+     * @param messageConverter Convertidor de mensajes.
+     * @param compresionMensajes Post-procesador que comprime los mensajes grandes.
+     * @return El template configurado.
+     */
+    private static RabbitTemplate crearTemplate(final ConnectionFactory connectionFactory,
+                                                final MessageConverter messageConverter,
+                                                final CompresionCondicionalPostProcessor compresionMensajes) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter);
+        template.setBeforePublishPostProcessors(compresionMensajes);
+        template.setUsePublisherConnection(true);
+        template.setMandatory(true);
+        return template;
+    }
+
+    /**
+     * Publica una orden sin esperar su confirmación.
+     * Si la ventana de mensajes sin confirmar está llena, espera a que se libere un espacio.
+     *
+     * @param orden El DTO de la orden a enviar.
+     * @return Un futuro que se completa cuando el broker confirma el mensaje, o falla si lo rechaza,
+     *         no lo puede enrutar o no confirma a tiempo.
+     */
+    public CompletableFuture<Void> publicarOrden(final OrdenConDetallesDTO orden) {
+        try {
+            if (!ventana.tryAcquire(timeoutConfirmacion.toMillis(), TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new RuntimeException("Ventana de publicación llena para la orden " + orden.getId()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CorrelationData correlacion = new CorrelationData(orden.getId());
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, orden, correlacion);
+        } catch (Exception e) {
+            ventana.release();
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Error al publicar la orden en RabbitMQ", e));
+        }
+
+        return correlacion.getFuture()
+                .orTimeout(timeoutConfirmacion.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((confirmacion, error) -> ventana.release())
+                .thenAccept(confirmacion -> {
+                    if (!confirmacion.isAck()) {
+                        throw new RuntimeException("RabbitMQ rechazó la orden " + orden.getId() + ": " + confirmacion.getReason());
+                    }
+                    if (correlacion.getReturned() != null) {
+                        throw new RuntimeException("RabbitMQ no pudo enrutar la orden " + orden.getId());
+                    }
+                });
+    }
+
+    /**
+     * Indica cuántos mensajes más se pueden publicar antes de llenar la ventana.
+     *
+     * @return Espacios libres en la ventana.
+     */
+    public int espaciosDisponibles() {
+        return ventana.availablePermits();
+    }
+}
@@ -5,13 +5,19 @@ import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
 import lombok.Getter;
 import lombok.Setter;
 
-import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Servicio para publicar mensajes de órdenes a RabbitMQ.
- * Utiliza el AmqpTemplate configurado para enviar mensajes en formato JSON.
+ * Utiliza el RabbitTemplate configurado para enviar mensajes en formato JSON.
  */
 @Service
 @Getter
@@ -22,14 +28,14 @@ public class OrdenPublisherService {
      * Template de AMQP para enviar mensajes a RabbitMQ.
      * Se inyecta automáticamente por Spring.
      */
-    private final AmqpTemplate amqpTemplate;
+    private final RabbitOperations amqpTemplate;
 
     /**
-     * Constructor que inyecta el AmqpTemplate configurado.
+     * Constructor que inyecta el RabbitTemplate configurado.
      *
      * @param amqpTemplateParam El template de AMQP para enviar mensajes.
      */
-    public OrdenPublisherService(final @Qualifier("customRabbitTemplate") AmqpTemplate amqpTemplateParam) {
+    public OrdenPublisherService(final @Qualifier("customRabbitTemplate") RabbitOperations amqpTemplateParam) {
         this.amqpTemplate = amqpTemplateParam;
     }
 
@@ -52,6 +58,43 @@ public class OrdenPublisherService {
         }
     }
 
+    /**
+     * Publica una orden y espera a que el broker la confirme.
+     * Falla si el broker rechaza el mensaje, si no lo puede enrutar a ninguna cola o si no llega la
+     * confirmación a tiempo; en esos casos el mensaje puede no haberse entregado.
+     *
+     * @param ordenConDetalles El DTO de la orden a enviar.
+     * @param timeout Tiempo máximo de espera de la confirmación.
+     */
+    public void publicarOrdenConfirmada(final OrdenConDetallesDTO ordenConDetalles, final Duration timeout) {
+        CorrelationData correlacion = new CorrelationData(ordenConDetalles.getId());
+        CorrelationData.Confirm confirmacion;
+        try {
+            amqpTemplate.convertAndSend(
+                RabbitMQConfig.EXCHANGE_NAME,
+                RabbitMQConfig.ROUTING_KEY,
+                ordenConDetalles,
+                correlacion
+            );
+            confirmacion = correlacion.getFuture().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrumpido esperando la confirmación de la orden " + ordenConDetalles.getId(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Sin confirmación de RabbitMQ para la orden " + ordenConDetalles.getId(), e);
+        } catch (Exception e) {
+            System.err.println("Error al enviar la orden: " + e.getMessage());
+            throw new RuntimeException("Error al publicar la orden en RabbitMQ", e);
+        }
+        if (!confirmacion.isAck()) {
+            throw new RuntimeException("RabbitMQ rechazó la orden " + ordenConDetalles.getId() + ": " + confirmacion.getReason());
+        }
+        if (correlacion.getReturned() != null) {
+            throw new RuntimeException("RabbitMQ no pudo enrutar la orden " + ordenConDetalles.getId() + ": "
+                    + correlacion.getReturned().getReplyText());
+        }
+    }
+
     /**
      * Publica una orden con un mensaje personalizado adicional.
      *
@@ -0,0 +1,24 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento publicado por el servicio de productos cuando cambia el precio de un producto.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PrecioProductoActualizadoEvent {
+    /**
+     * Nombre del producto cuyo precio cambió. Si es null se invalidan todos los productos.
+     */
+    private String nombre;
+    /**
+     * Nuevo precio del producto.
+     */
+    private BigDecimal precio;
+}
@@ -0,0 +1,54 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import java.io.IOException;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+import com.softdev.purchase_order.infrastucture.cache.ProductoCache;
+
+/**
+ * Listener que invalida la caché local de productos cuando llega un evento de cambio de precio.
+ */
+@Component
+@ConditionalOnProperty(name = "productos.cache.invalidacion.enabled", havingValue = "true")
+public class PrecioProductoListener {
+
+    /**
+     * Caché local de productos.
+     */
+    private final ProductoCache productoCache;
+
+    /**
+     * Constructor que inyecta la caché de productos.
+     *
+     * @param productoCacheParam Caché local de productos.
+     */
+    public PrecioProductoListener(final ProductoCache productoCacheParam) {
+        this.productoCache = productoCacheParam;
+    }
+
+    /**
+     * Invalida el producto indicado en el evento y confirma el mensaje.
+     *
+     * @param evento Evento de cambio de precio.
+     * @param channel Canal de RabbitMQ para confirmar el mensaje.
+     * @param deliveryTag Identificador de entrega del mensaje.
+     * @throws IOException Si no se puede confirmar el mensaje.
+     */
+    @RabbitListener(queues = "#{precioProductoQueue.name}")
+    public void onPrecioActualizado(final PrecioProductoActualizadoEvent evento,
+                                    final Channel channel,
+                                    final @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) throws IOException {
+        if (evento == null || evento.getNombre() == null) {
+            productoCache.invalidarTodo();
+        } else {
+            productoCache.invalidar(evento.getNombre());
+        }
+        channel.basicAck(deliveryTag, false);
+    }
+}
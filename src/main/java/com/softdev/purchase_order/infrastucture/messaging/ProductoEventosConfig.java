@@ -0,0 +1,61 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de RabbitMQ para recibir eventos del servicio de productos.
+ * Cada instancia declara su propia cola anónima para que todas invaliden su caché local.
+ */
+@Configuration
+@ConditionalOnProperty(name = "productos.cache.invalidacion.enabled", havingValue = "true")
+public class ProductoEventosConfig {
+    /**
+     * Nombre del exchange donde el servicio de productos publica sus eventos.
+     */
+    public static final String EXCHANGE_NAME = "productExchange";
+    /**
+     * Clave de enrutamiento de los eventos de cambio de precio.
+     */
+    public static final String ROUTING_KEY_PRECIO = "producto.precio.actualizado";
+
+    /**
+     * Exchange de eventos de productos.
+     *
+     * @return Un TopicExchange con el nombre definido.
+     */
+    @Bean
+    public TopicExchange productoExchange() {
+        return new TopicExchange(EXCHANGE_NAME);
+    }
+
+    /**
+     * Cola exclusiva de esta instancia para los cambios de precio.
+     *
+     * @return Una cola anónima que se elimina al cerrar la conexión.
+     */
+    @Bean
+    public Queue precioProductoQueue() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Binding entre la cola de cambios de precio y el exchange de productos.
+     *
+     * @param precioProductoQueue La cola de cambios de precio.
+     * @param productoExchange El exchange de productos.
+     * @return El binding configurado.
+     */
+    @Bean
+    public Binding precioProductoBinding(final Queue precioProductoQueue, final TopicExchange productoExchange) {
+        return BindingBuilder.bind(precioProductoQueue)
+                             .to(productoExchange)
+                             .with(ROUTING_KEY_PRECIO);
+    }
+}
@@ -1,20 +1,25 @@
 package com.softdev.purchase_order.infrastucture.messaging;
 
-import org.springframework.amqp.core.AmqpTemplate;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter; // JSON Converter
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Configuración de RabbitMQ para la aplicación de órdenes de compra.
- * Define el exchange, la cola y el binding, así como el convertidor de mensajes.
+ * Define el exchange, la cola y el binding, así como el convertidor y la compresión de mensajes.
  */
 @Configuration
 public class RabbitMQConfig {
@@ -69,27 +74,67 @@ public class RabbitMQConfig {
     }
 
     /**
-     * Configuración del convertidor de mensajes para serializar y deserializar mensajes en formato JSON.
-     * Utiliza Jackson2JsonMessageConverter para convertir objetos a JSON y viceversa.
+     * Configuración del convertidor de mensajes.
+     * Elige el convertidor según el tipo de contenido: los mensajes recibidos se leen en JSON o en CBOR
+     * según su cabecera content-type, y los publicados usan el formato configurado. Así los
+     * consumidores pueden migrar a CBOR de forma gradual.
      *
-     * @return Un MessageConverter configurado para manejar mensajes en formato JSON.
+     * @param formato Formato de los mensajes publicados: json o cbor.
+     * @return Un MessageConverter que delega en el convertidor JSON o CBOR.
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(final @Value("${ordenes.mensajes.formato:json}") String formato) {
+        MessageConverter json = new Jackson2JsonMessageConverter();
+        MessageConverter cbor = new CborMessageConverter("com.softdev.purchase_order.use_cases.dto.response");
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter("cbor".equalsIgnoreCase(formato) ? cbor : json);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(CborMessageConverter.CONTENT_TYPE, cbor);
+        return converter;
+    }
+
+    /**
+     * Configuración de la compresión de los mensajes publicados.
+     *
+     * @param umbralBytes Tamaño mínimo en bytes para comprimir un mensaje; cero la deshabilita.
+     * @return Un post-procesador que comprime con gzip los mensajes grandes.
+     */
+    @Bean
+    public CompresionCondicionalPostProcessor compresionMensajes(
+            final @Value("${ordenes.mensajes.compresion.umbral-bytes:0}") int umbralBytes) {
+        return new CompresionCondicionalPostProcessor(umbralBytes);
+    }
+
+    /**
+     * Configuración de los contenedores de listeners para descomprimir los mensajes recibidos.
+     *
+     * @return Un customizer que agrega la descompresión a cada contenedor.
+     */
+    @Bean
+    public ContainerCustomizer<SimpleMessageListenerContainer> descompresionListeners() {
+        return container -> container.setAfterReceivePostProcessors(new DelegatingDecompressingPostProcessor());
     }
 
     /**
      * Configuración del RabbitTemplate para enviar mensajes a RabbitMQ.
-     * Utiliza el convertidor de mensajes JSON configurado anteriormente.
+     * Utiliza el convertidor de mensajes configurado anteriormente y comprime los mensajes grandes.
+     * Los mensajes son obligatorios: si no se pueden enrutar, el broker los devuelve y la publicación
+     * confirmada falla en lugar de darlos por entregados.
      *
      * @param connectionFactory La fábrica de conexiones utilizada para crear conexiones a RabbitMQ.
-     * @return Un AmqpTemplate configurado para enviar mensajes en formato JSON.
+     * @param messageConverter El convertidor de mensajes.
+     * @param compresionMensajes El post-procesador que comprime los mensajes grandes.
+     * @return Un RabbitTemplate configurado para enviar mensajes.
      */
     @Bean
-    public AmqpTemplate customRabbitTemplate(final ConnectionFactory connectionFactory) {
+    public RabbitTemplate customRabbitTemplate(final ConnectionFactory connectionFactory,
+                                               final MessageConverter messageConverter,
+                                               final CompresionCondicionalPostProcessor compresionMensajes) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(messageConverter);
+        rabbitTemplate.setBeforePublishPostProcessors(compresionMensajes);
+        rabbitTemplate.setAfterReceivePostProcessors(new DelegatingDecompressingPostProcessor());
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 }
@@ -0,0 +1,74 @@
+package com.softdev.purchase_order.infrastucture.repositories;
+
+import com.softdev.purchase_order.infrastucture.entities.OrdenIdempotenciaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio JPA para las claves de idempotencia de las solicitudes de órdenes.
+ */
+@Repository
+public interface OrdenIdempotenciaJpaRepository extends JpaRepository<OrdenIdempotenciaEntity, String> {
+    /**
+     * Registra una clave como en proceso si todavía no existe.
+     * La inserción es atómica, de modo que entre varias instancias solo una procesa la solicitud.
+     *
+     * @param clave Clave de idempotencia.
+     * @param huella Huella del cuerpo de la solicitud.
+     * @param fechaCreacion Fecha y hora de la solicitud.
+     * @return 1 si la clave se registró, 0 si ya existía.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO orden_idempotencia (clave, huella, fecha_creacion, fecha_reserva) "
+            + "VALUES (:clave, :huella, :fechaCreacion, :fechaCreacion) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int reservar(@Param("clave") String clave, @Param("huella") String huella, @Param("fechaCreacion") LocalDateTime fechaCreacion);
+
+    /**
+     * Reclama una clave cuya solicitud quedó en proceso sin respuesta después del límite, por ejemplo
+     * porque la instancia que la procesaba se detuvo. La actualización es condicional, de modo que
+     * entre varios reintentos concurrentes solo uno la reclama.
+     *
+     * @param clave Clave de idempotencia.
+     * @param huella Huella del cuerpo de la solicitud; debe coincidir con la de la solicitud original.
+     * @param ahora Fecha y hora de la nueva reserva.
+     * @param limite Las reservas anteriores a esta fecha se consideran abandonadas.
+     * @return 1 si la clave se reclamó, 0 si tiene respuesta, su reserva sigue vigente o la huella no coincide.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrdenIdempotenciaEntity o SET o.fechaReserva = :ahora WHERE o.clave = :clave AND o.huella = :huella "
+            + "AND o.estadoHttp IS NULL AND COALESCE(o.fechaReserva, o.fechaCreacion) < :limite")
+    int reclamar(@Param("clave") String clave, @Param("huella") String huella,
+                 @Param("ahora") LocalDateTime ahora, @Param("limite") LocalDateTime limite);
+
+    /**
+     * Guarda la respuesta de una solicitud en proceso.
+     *
+     * @param clave Clave de idempotencia.
+     * @param estadoHttp Código HTTP de la respuesta.
+     * @param respuesta Cuerpo de la respuesta en JSON.
+     * @return Número de claves actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrdenIdempotenciaEntity o SET o.estadoHttp = :estadoHttp, o.respuesta = :respuesta WHERE o.clave = :clave")
+    int completar(@Param("clave") String clave, @Param("estadoHttp") int estadoHttp, @Param("respuesta") String respuesta);
+
+    /**
+     * Elimina las claves registradas antes de la fecha indicada.
+     *
+     * @param limite Fecha y hora límite.
+     * @return Número de claves eliminadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrdenIdempotenciaEntity o WHERE o.fechaCreacion < :limite")
+    int eliminarAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,36 @@
+package com.softdev.purchase_order.infrastucture.repositories;
+
+import com.softdev.purchase_order.infrastucture.entities.OrdenOutboxEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio JPA para los eventos de órdenes pendientes de publicar.
+ */
+@Repository
+public interface OrdenOutboxJpaRepository extends JpaRepository<OrdenOutboxEntity, UUID> {
+    /**
+     * Obtiene y bloquea el siguiente lote de eventos pendientes, del más antiguo al más reciente.
+     * Los eventos bloqueados por otra instancia se omiten, de modo que varias instancias pueden
+     * drenar la bandeja de salida a la vez sin publicar el mismo evento dos veces. Los eventos que
+     * agotaron sus intentos quedan en la tabla como mensajes muertos y ya no se devuelven.
+     *
+     * @param maxIntentos Número de intentos fallidos a partir del cual un evento deja de publicarse.
+     * @param pageable Tamaño del lote.
+     * @return Los eventos pendientes del lote.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM OrdenOutboxEntity o WHERE o.intentos < :maxIntentos ORDER BY o.fechaCreacion")
+    List<OrdenOutboxEntity> findSiguienteLote(@Param("maxIntentos") int maxIntentos, Pageable pageable);
+}
@@ -1,8 +1,13 @@
 package com.softdev.purchase_order.infrastucture.repositories;
 
 import com.softdev.purchase_order.infrastucture.entities.OrdenEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,4 +23,35 @@ public interface SpringDataOrdenRepository extends JpaRepository<OrdenEntity, UU
      * @return Un Optional que contiene la orden si se encuentra, o vacío si no.
      */
     Optional<OrdenEntity> findById(UUID id);
+
+    /**
+     * Busca una orden por su ID junto con sus detalles, en una sola consulta.
+     *
+     * @param id El ID de la orden a buscar.
+     * @return Un Optional que contiene la orden con sus detalles cargados, o vacío si no existe.
+     */
+    @Query("SELECT o FROM OrdenEntity o LEFT JOIN FETCH o.detalles WHERE o.id = :id")
+    Optional<OrdenEntity> findConDetallesById(@Param("id") UUID id);
+
+    /**
+     * Busca solo la versión de una orden, sin cargar la orden ni sus detalles.
+     *
+     * @param id El ID de la orden a buscar.
+     * @return Un Optional que contiene la versión de la orden, o vacío si no existe.
+     */
+    @Query("SELECT o.version FROM OrdenEntity o WHERE o.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Busca los IDs de las órdenes en un estado cuyo pedido es anterior a la fecha indicada,
+     * de la más antigua a la más reciente.
+     *
+     * @param estado El estado de las órdenes.
+     * @param antesDe Fecha límite del pedido.
+     * @param pageable Número máximo de órdenes.
+     * @return Los IDs de las órdenes.
+     */
+    @Query("SELECT o.id FROM OrdenEntity o WHERE o.estado = :estado AND o.fechaPedido < :antesDe ORDER BY o.fechaPedido")
+    List<UUID> findIdsPorEstado(@Param("estado") String estado, @Param("antesDe") LocalDateTime antesDe,
+                                Pageable pageable);
 }
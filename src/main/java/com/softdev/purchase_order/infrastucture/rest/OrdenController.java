@@ -1,15 +1,25 @@
 package com.softdev.purchase_order.infrastucture.rest;
 
+import java.net.URI;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,17 +30,24 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.softdev.purchase_order.domain.entities.Orden;
 import com.softdev.purchase_order.domain.repositories.RealizarOrdenPort;
+import com.softdev.purchase_order.domain.repositories.RealizarOrdenReactivoPort;
+import com.softdev.purchase_order.infrastucture.async.ProcesadorOrdenesPendientes;
+import com.softdev.purchase_order.infrastucture.cache.FacturaCache;
+import com.softdev.purchase_order.infrastucture.cache.IdempotenciaCache;
 import com.softdev.purchase_order.infrastucture.security.JwtUtils;
 import com.softdev.purchase_order.use_cases.dto.request.MetodoPagoRequest;
 import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
 import com.softdev.purchase_order.use_cases.dto.response.DetalleOrdenResponse;
 import com.softdev.purchase_order.use_cases.dto.response.ErrorResponse;
-import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+import com.softdev.purchase_order.use_cases.dto.response.EstadoOrdenResponse;
 import com.softdev.purchase_order.use_cases.dto.response.OrdenResponse;
 import com.softdev.purchase_order.use_cases.exceptions.InvalidOrderException;
 import com.softdev.purchase_order.use_cases.exceptions.InvalidPaymentMethodException;
+import com.softdev.purchase_order.use_cases.exceptions.ServicioNoDisponibleException;
 import com.softdev.purchase_order.use_cases.service.ObtenerOrdenConDetallesService;
 
+import reactor.core.publisher.Mono;
+
 
 /**
  * Controlador REST para manejar las operaciones relacionadas con las órdenes de compra.
@@ -39,6 +56,21 @@ import com.softdev.purchase_order.use_cases.service.ObtenerOrdenConDetallesServi
 @RequestMapping("/ordenes")
 public class OrdenController {
 
+    /**
+     * Longitud máxima de la cabecera Idempotency-Key.
+     */
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+
+    /**
+     * Preferencia con la que el cliente pide que la orden se procese en segundo plano.
+     */
+    private static final String PREFERENCIA_ASINCRONA = "respond-async";
+
+    /**
+     * Caché HTTP de las facturas: solo en el cliente, que debe revalidarla con su ETag antes de usarla.
+     */
+    private static final CacheControl CACHE_FACTURA = CacheControl.noCache().cachePrivate();
+
     /**
      * Puerto para realizar operaciones de orden.
      */
@@ -50,78 +82,175 @@ public class OrdenController {
     private final ObtenerOrdenConDetallesService obtenerOrdenConDetallesService;
 
     /**
-     * Constructor que inicializa el controlador con el puerto de orden.
+     * Almacén de respuestas por clave de idempotencia, o null si no se admiten claves de idempotencia.
+     */
+    private final IdempotenciaCache idempotenciaCache;
+
+    /**
+     * Procesador de órdenes aceptadas en segundo plano, o null si el modo asíncrono está deshabilitado.
+     */
+    private final ProcesadorOrdenesPendientes procesadorOrdenesPendientes;
+
+    /**
+     * Puerto para realizar órdenes sin bloquear el hilo de la solicitud, o null si no está configurado.
+     */
+    private final RealizarOrdenReactivoPort realizarOrdenReactivoPort;
+
+    /**
+     * Caché de facturas serializadas, o null para consultar y serializar cada factura.
+     */
+    private final FacturaCache facturaCache;
+
+    /**
+     * Constructor que inicializa el controlador. Las dependencias opcionales pueden ser null; el
+     * procesador de órdenes pendientes solo existe si el modo asíncrono está habilitado.
      *
      * @param realizarOrdenPortParam Puerto para realizar operaciones de orden.
      * @param obtenerOrdenConDetallesServiceParam Servicio para obtener una orden con sus detalles.
+     * @param idempotenciaCacheParam Almacén de respuestas por clave de idempotencia, o null.
+     * @param procesadorOrdenesPendientesParam Procesador de órdenes pendientes, o null para deshabilitar el modo asíncrono.
+     * @param realizarOrdenReactivoPortParam Puerto para realizar órdenes sin bloquear, o null.
+     * @param facturaCacheParam Caché de facturas serializadas, o null.
      */
-    public OrdenController(final RealizarOrdenPort realizarOrdenPortParam, final ObtenerOrdenConDetallesService obtenerOrdenConDetallesServiceParam) {
+    @Autowired
+    public OrdenController(final RealizarOrdenPort realizarOrdenPortParam,
+                           final ObtenerOrdenConDetallesService obtenerOrdenConDetallesServiceParam,
+                           final @Nullable IdempotenciaCache idempotenciaCacheParam,
+                           final @Nullable ProcesadorOrdenesPendientes procesadorOrdenesPendientesParam,
+                           final @Nullable RealizarOrdenReactivoPort realizarOrdenReactivoPortParam,
+                           final @Nullable FacturaCache facturaCacheParam) {
         this.realizarOrdenPort = realizarOrdenPortParam;
         this.obtenerOrdenConDetallesService = obtenerOrdenConDetallesServiceParam;
+        this.idempotenciaCache = idempotenciaCacheParam;
+        this.procesadorOrdenesPendientes = procesadorOrdenesPendientesParam;
+        this.realizarOrdenReactivoPort = realizarOrdenReactivoPortParam;
+        this.facturaCache = facturaCacheParam;
     }
 
     /**
      * Endpoint para realizar una orden de compra.
+     * Si la solicitud incluye la cabecera Idempotency-Key, los reintentos con la misma clave reciben
+     * la respuesta de la primera solicitud sin crear otra orden. Si incluye la cabecera
+     * {@code Prefer: respond-async} y el modo asíncrono está habilitado, la orden se valida, se guarda
+     * pendiente y se responde 202 con la URL de su estado; el resto se completa en segundo plano.
      *
      * @param request El objeto que contiene la información de la orden.
      * @param token El token de autenticación del cliente.
-     * @return La respuesta con la información de la orden creada.
+     * @param claveIdempotencia Clave de idempotencia enviada por el cliente, opcional.
+     * @param preferencia Cabecera Prefer enviada por el cliente, opcional.
+     * @return La respuesta con la información de la orden creada, o con su estado si se aceptó para procesarla en segundo plano.
      */
     @PostMapping("/realizarOrden")
     public ResponseEntity<?> realizarOrden(
             final @RequestBody RealizarOrdenRequest request,
-            final @RequestHeader(value = "Authorization", required = false) String token) {
+            final @RequestHeader(value = "Authorization", required = false) String token,
+            final @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            final @RequestHeader(value = "Prefer", required = false) String preferencia) {
+
+        String emailCliente = JwtUtils.getClaim("sub");
+        boolean asincrona = procesadorOrdenesPendientes != null && preferencia != null
+                && preferencia.toLowerCase().contains(PREFERENCIA_ASINCRONA);
+        if (claveIdempotencia == null || idempotenciaCache == null || emailCliente == null || emailCliente.isBlank()) {
+            return procesarOrden(request, emailCliente, asincrona);
+        }
+        if (claveIdempotencia.isBlank() || claveIdempotencia.length() > LONGITUD_MAXIMA_CLAVE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Clave de idempotencia inválida",
+                            "La cabecera Idempotency-Key debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres."));
+        }
+        return idempotenciaCache.ejecutar(emailCliente + ":" + claveIdempotencia, request,
+                () -> procesarOrden(request, emailCliente, asincrona));
+    }
 
+    /**
+     * Endpoint no bloqueante para realizar una orden de compra.
+     * Valida la solicitud igual que {@link #realizarOrden}, pero libera el hilo de la solicitud mientras
+     * se consultan los servicios de usuarios y productos; la respuesta se envía cuando la orden se guarda.
+     *
+     * @param request El objeto que contiene la información de la orden.
+     * @return La respuesta con la información de la orden creada.
+     */
+    @PostMapping("/reactivo/realizarOrden")
+    public Mono<ResponseEntity<?>> realizarOrdenReactiva(final @RequestBody RealizarOrdenRequest request) {
+        if (realizarOrdenReactivoPort == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                    .body(new ErrorResponse("No disponible", "El flujo no bloqueante no está configurado.")));
+        }
+        String emailCliente = JwtUtils.getClaim("sub");
         try {
-            // Extraer el email del token
-            String emailCliente = JwtUtils.getClaim("sub");
-            if (emailCliente == null || emailCliente.isBlank()) {
-                throw new InvalidOrderException("El token no contiene un correo válido.");
-            }
+            validarSolicitud(request, emailCliente);
+        } catch (InvalidOrderException | InvalidPaymentMethodException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Orden inválida", e.getMessage())));
+        }
 
-            // Validar Request
-            if (request.getProductos() == null || request.getProductos().isEmpty()) {
-                throw new InvalidOrderException("La orden debe contener al menos un producto.");
-            }
+        // Los adaptadores leen el token del cliente del contexto de Reactor, no del hilo de la solicitud
+        SecurityContext contextoSeguridad = SecurityContextHolder.getContext();
+        return realizarOrdenReactivoPort.realizarOrden(request, emailCliente)
+                .<ResponseEntity<?>>map(orden -> new ResponseEntity<>(mapearRespuesta(orden), HttpStatus.CREATED))
+                .onErrorResume(ServicioNoDisponibleException.class, e -> Mono.just(servicioSaturado(e)))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ErrorResponse("Error interno", e.getMessage()))))
+                .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(contextoSeguridad)));
+    }
 
-            for (var producto : request.getProductos()) {
-                if (producto.getCantidad() <= 0) {
-                    throw new InvalidOrderException("La cantidad de producto debe ser mayor a 0.");
-                }
-            }
+    /**
+     * Endpoint para consultar el estado de una orden, usado por los clientes de órdenes aceptadas en segundo plano.
+     *
+     * @param id El ID de la orden.
+     * @return La respuesta con el estado de la orden o un error 404 si no se encuentra.
+     */
+    @GetMapping("/{id}/estado")
+    public ResponseEntity<?> obtenerEstado(final @PathVariable String id) {
+        try {
+            UUID uuid = UUID.fromString(id);
+            return obtenerOrdenConDetallesService.obtenerEstado(uuid)
+                    .<ResponseEntity<?>>map(estado -> ResponseEntity.ok(new EstadoOrdenResponse(uuid, estado)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(new ErrorResponse("Orden no encontrada",
+                                    "No se encontró una orden con el ID proporcionado.")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("ID inválido",
+                    "El ID proporcionado no es un UUID válido."));
+        }
+    }
 
-            if (request.getMetodoPago() == null) {
-                throw new InvalidPaymentMethodException("El método de pago es obligatorio.");
+    /**
+     * Valida y procesa una solicitud de orden.
+     *
+     * @param request El objeto que contiene la información de la orden.
+     * @param emailCliente El correo del cliente extraído del token.
+     * @param asincrona Indica si la orden se acepta para completarla en segundo plano.
+     * @return La respuesta con la información de la orden creada o el error correspondiente.
+     */
+    private ResponseEntity<?> procesarOrden(final RealizarOrdenRequest request, final String emailCliente,
+                                            final boolean asincrona) {
+        try {
+            validarSolicitud(request, emailCliente);
+
+            // Aceptar la orden para completarla en segundo plano
+            if (asincrona) {
+                Orden pendiente = procesadorOrdenesPendientes.aceptar(request, emailCliente);
+                EstadoOrdenResponse estado = new EstadoOrdenResponse(pendiente.getId(), pendiente.getEstado());
+                return ResponseEntity.accepted()
+                        .location(URI.create(estado.getUrlEstado()))
+                        .body(estado);
             }
 
-            validarMetodoPago(request.getMetodoPago());
-
             // Procesar la orden
             Orden orden = realizarOrdenPort.realizarOrden(request, emailCliente);
 
             // Mapear respuesta
-            List<DetalleOrdenResponse> detallesResponse = orden.getDetalles().stream()
-                    .map(detalle -> new DetalleOrdenResponse(
-                            detalle.getNombreProducto(),
-                            detalle.getPrecioUnitario(),
-                            detalle.getCantidad(),
-                            detalle.getSubtotal()))
-                    .collect(Collectors.toList());
-
-            OrdenResponse response = new OrdenResponse(
-                    orden.getId(),
-                    detallesResponse,
-                    orden.getValorTotal(),
-                    orden.getMetodoPago().getNombre(),
-                    orden.getDniCliente(),
-                    orden.getFechaPedido()
-            );
+            OrdenResponse response = mapearRespuesta(orden);
 
             return new ResponseEntity<>(response, HttpStatus.CREATED);
 
         } catch (InvalidOrderException | InvalidPaymentMethodException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse("Orden inválida", e.getMessage()));
+        } catch (RejectedExecutionException | ServicioNoDisponibleException e) {
+            return servicioSaturado(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Error interno", e.getMessage()));
@@ -132,23 +261,57 @@ public class OrdenController {
     /**
      * Endpoint para obtener una factura por ID de orden.
      * Este endpoint es similar a obtenerOrdenConDetalles, pero podría mapear a un DTO específico para la factura si es necesario.
+     * La respuesta lleva un ETag fuerte con el ID y la versión de la orden. Si el cliente envía ese ETag en
+     * If-None-Match, se responde 304 solo con la consulta de la versión, sin cargar los detalles ni serializar.
+     * Con la caché de facturas, una factura guardada se responde, o se responde 304, con el JSON y la versión
+     * guardados sin consultar la base de datos.
      *
      * @param id El ID de la orden para la cual se desea obtener la factura.
-     * @return La respuesta con la información de la factura o un error 404 si no se encuentra.
+     * @param ifNoneMatch Cabecera If-None-Match con los ETag que el cliente ya tiene, opcional.
+     * @return La respuesta con la información de la factura, 304 si el cliente ya la tiene o un error 404 si no se encuentra.
      */
     @GetMapping("/factura/{id}")
-    public ResponseEntity<?> obtenerFactura(final @PathVariable String id) {
+    public ResponseEntity<?> obtenerFactura(final @PathVariable String id,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             UUID uuid = UUID.fromString(id);
-            Optional<OrdenConDetallesDTO> resultado = obtenerOrdenConDetallesService.ejecutar(uuid);
-
-            if (resultado.isPresent()) {
-                return ResponseEntity.ok(resultado.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ErrorResponse("Orden no encontrada",
-                        "No se encontró una orden con el ID proporcionado."));
+            Optional<FacturaCache.FacturaSerializada> guardada =
+                    facturaCache != null ? facturaCache.buscar(uuid) : Optional.empty();
+            Optional<Long> version = guardada.isPresent()
+                    ? Optional.of(guardada.get().version())
+                    : obtenerOrdenConDetallesService.obtenerVersion(uuid);
+            if (version.isEmpty()) {
+                return facturaNoEncontrada();
+            }
+            String etag = etagFactura(uuid, version.get());
+            if (coincideEtag(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CACHE_FACTURA)
+                        .build();
+            }
+            if (guardada.isPresent()) {
+                return ResponseEntity.ok()
+                        .eTag(etag)
+                        .cacheControl(CACHE_FACTURA)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(guardada.get().json());
+            }
+            if (facturaCache != null) {
+                return facturaCache.obtener(uuid, version.get(), obtenerOrdenConDetallesService::ejecutar)
+                        .<ResponseEntity<?>>map(json -> ResponseEntity.ok()
+                                .eTag(etag)
+                                .cacheControl(CACHE_FACTURA)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(json))
+                        .orElseGet(this::facturaNoEncontrada);
             }
+            return obtenerOrdenConDetallesService.ejecutar(uuid)
+                    .<ResponseEntity<?>>map(factura -> ResponseEntity.ok()
+                            .eTag(etag)
+                            .cacheControl(CACHE_FACTURA)
+                            .body(factura))
+                    .orElseGet(this::facturaNoEncontrada);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new ErrorResponse("ID inválido",
@@ -156,6 +319,52 @@ public class OrdenController {
         }
     }
 
+    /**
+     * Calcula el ETag de la factura de una orden. La versión cambia en cada actualización de la orden,
+     * así que el ETag cambia si cambia la factura.
+     *
+     * @param ordenId El ID de la orden.
+     * @param version La versión de la orden.
+     * @return El ETag fuerte, entre comillas.
+     */
+    static String etagFactura(final UUID ordenId, final long version) {
+        return "\"" + ordenId + "-" + version + "\"";
+    }
+
+    /**
+     * Indica si la cabecera If-None-Match contiene el ETag, con la comparación débil que se usa en GET.
+     *
+     * @param ifNoneMatch La cabecera If-None-Match, o null.
+     * @param etag El ETag actual, entre comillas.
+     * @return true si el cliente ya tiene la versión actual.
+     */
+    static boolean coincideEtag(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Responde 404 cuando no existe la orden de la factura.
+     *
+     * @return La respuesta de error.
+     */
+    private ResponseEntity<?> facturaNoEncontrada() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(new ErrorResponse("Orden no encontrada",
+                "No se encontró una orden con el ID proporcionado."));
+    }
+
     // /**
     //  * Método privado para extraer el email del token JWT.
     //  * Este es un ejemplo simplificado. En un escenario real, deberías usar una biblioteca JWT para decodificar el token.
@@ -175,13 +384,83 @@ public class OrdenController {
     // }
 
     /**
-     * Método privado para validar el método de pago.
+     * Responde 503 cuando la orden se rechaza para no saturar el servicio o sus dependencias.
+     *
+     * @param e La causa del rechazo.
+     * @return La respuesta con la cabecera Retry-After.
+     */
+    private ResponseEntity<?> servicioSaturado(final Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse("Servicio saturado", e.getMessage()));
+    }
+
+    /**
+     * Valida los datos de una solicitud de orden antes de procesarla.
+     *
+     * @param request El objeto que contiene la información de la orden.
+     * @param emailCliente El correo del cliente extraído del token.
+     * @throws InvalidOrderException Si la orden no es válida.
+     * @throws InvalidPaymentMethodException Si el método de pago no es válido.
+     */
+    private void validarSolicitud(final RealizarOrdenRequest request, final String emailCliente) {
+        if (emailCliente == null || emailCliente.isBlank()) {
+            throw new InvalidOrderException("El token no contiene un correo válido.");
+        }
+
+        // Validar Request
+        if (request.getProductos() == null || request.getProductos().isEmpty()) {
+            throw new InvalidOrderException("La orden debe contener al menos un producto.");
+        }
+
+        for (var producto : request.getProductos()) {
+            if (producto.getCantidad() <= 0) {
+                throw new InvalidOrderException("La cantidad de producto debe ser mayor a 0.");
+            }
+        }
+
+        if (request.getMetodoPago() == null) {
+            throw new InvalidPaymentMethodException("El método de pago es obligatorio.");
+        }
+
+        validarMetodoPago(request.getMetodoPago());
+    }
+
+    /**
+     * Mapea una orden creada a la respuesta del endpoint.
+     * Tiene visibilidad de paquete para poder medirlo en los benchmarks.
+     *
+     * @param orden La orden creada.
+     * @return La respuesta con la información de la orden.
+     */
+    OrdenResponse mapearRespuesta(final Orden orden) {
+        List<DetalleOrdenResponse> detallesResponse = orden.getDetalles().stream()
+                .map(detalle -> new DetalleOrdenResponse(
+                        detalle.getNombreProducto(),
+                        detalle.getPrecioUnitario(),
+                        detalle.getCantidad(),
+                        detalle.getSubtotal()))
+                .collect(Collectors.toList());
+
+        return new OrdenResponse(
+                orden.getId(),
+                detallesResponse,
+                orden.getValorTotal(),
+                orden.getMetodoPago().getNombre(),
+                orden.getDniCliente(),
+                orden.getFechaPedido()
+        );
+    }
+
+    /**
+     * Valida el método de pago.
      * Verifica que los campos del método de pago cumplan con los requisitos básicos.
+     * Tiene visibilidad de paquete para poder medirlo en los benchmarks.
      *
      * @param metodoPago El objeto que contiene la información del método de pago.
      * @throws InvalidPaymentMethodException Si el método de pago no es válido.
      */
-    private void validarMetodoPago(final MetodoPagoRequest metodoPago) {
+    void validarMetodoPago(final MetodoPagoRequest metodoPago) {
         if (metodoPago.getNumeroTarjeta() == null || !metodoPago.getNumeroTarjeta().matches("\\d{16}")) {
             throw new InvalidPaymentMethodException("El número de tarjeta debe tener 16 dígitos.");
         }
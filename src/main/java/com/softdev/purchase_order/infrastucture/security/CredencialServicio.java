@@ -0,0 +1,64 @@
+package com.softdev.purchase_order.infrastucture.security;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * Credencial propia del servicio para las tareas que no atienden una solicitud, como el barrido de
+ * órdenes pendientes. Esas tareas no tienen el token JWT de un cliente, así que los adaptadores
+ * reenvían el token de servicio configurado. El token se valida con el mismo decodificador de las
+ * solicitudes, de modo que uno vencido o mal firmado no se envía a los otros servicios.
+ */
+@Component
+public class CredencialServicio {
+
+    /**
+     * Decodificador que verifica la firma y la vigencia del token.
+     */
+    private final JwtDecoder jwtDecoder;
+    /**
+     * Token JWT del servicio, o vacío si no está configurado.
+     */
+    private final String token;
+
+    /**
+     * Constructor que inicializa la credencial.
+     *
+     * @param jwtDecoderParam Decodificador que verifica la firma y la vigencia del token.
+     * @param tokenParam Token JWT del servicio, o vacío si no está configurado.
+     */
+    public CredencialServicio(final JwtDecoder jwtDecoderParam,
+                              final @Value("${seguridad.servicio.token:}") String tokenParam) {
+        this.jwtDecoder = jwtDecoderParam;
+        this.token = tokenParam;
+    }
+
+    /**
+     * Crea un contexto de seguridad autenticado con el token del servicio.
+     *
+     * @return El contexto de seguridad, o vacío si el token no está configurado o no es válido.
+     */
+    public Optional<SecurityContext> crearContexto() {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Jwt jwt;
+        try {
+            jwt = jwtDecoder.decode(token);
+        } catch (JwtException e) {
+            System.err.println("El token de servicio no es válido: " + e.getMessage());
+            return Optional.empty();
+        }
+        SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+        contexto.setAuthentication(new JwtAuthenticationToken(jwt));
+        return Optional.of(contexto);
+    }
+}
@@ -0,0 +1,141 @@
+package com.softdev.purchase_order.infrastucture.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Decodificador de JWT que guarda los tokens ya validados.
+ * Un cliente usa el mismo token en muchas solicitudes; con la caché, solo la primera verifica la firma
+ * HMAC y analiza los claims, y las siguientes reutilizan el Jwt validado. La clave es el hash SHA-256
+ * del token, para no guardar el token como clave, y cada entrada vence con el claim exp del token o
+ * con el tiempo de vida máximo, lo que ocurra primero. Los tokens inválidos no se guardan.
+ */
+public class JwtDecoderEnCache implements JwtDecoder {
+
+    /**
+     * Decodificador que verifica la firma y valida los claims.
+     */
+    private final JwtDecoder delegado;
+    /**
+     * Tokens validados por hash del token.
+     */
+    private final Cache<String, Jwt> tokens;
+
+    /**
+     * Constructor que crea la caché y registra sus métricas.
+     *
+     * @param delegadoParam Decodificador que verifica la firma y valida los claims.
+     * @param registry Registro de métricas de Micrometer.
+     * @param ttlMaximo Tiempo de vida máximo de cada token en la caché.
+     * @param maxEntradas Número máximo de tokens guardados.
+     */
+    public JwtDecoderEnCache(final JwtDecoder delegadoParam, final MeterRegistry registry,
+                             final Duration ttlMaximo, final long maxEntradas) {
+        this(delegadoParam, registry, ttlMaximo, maxEntradas, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    /**
+     * Constructor que crea la caché con un reloj dado.
+     *
+     * @param delegadoParam Decodificador que verifica la firma y valida los claims.
+     * @param registry Registro de métricas de Micrometer.
+     * @param ttlMaximo Tiempo de vida máximo de cada token en la caché.
+     * @param maxEntradas Número máximo de tokens guardados.
+     * @param reloj Reloj con el que se compara el claim exp.
+     * @param ticker Reloj de la caché.
+     */
+    JwtDecoderEnCache(final JwtDecoder delegadoParam, final MeterRegistry registry, final Duration ttlMaximo,
+                      final long maxEntradas, final Clock reloj, final Ticker ticker) {
+        this.delegado = delegadoParam;
+        this.tokens = Caffeine.newBuilder()
+                .expireAfter(new VencimientoToken(reloj, ttlMaximo))
+                .maximumSize(maxEntradas)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, tokens, "jwt");
+    }
+
+    /**
+     * Decodifica el token, usando el Jwt guardado si el token ya fue validado y no ha vencido.
+     *
+     * @param token El token JWT.
+     * @return El Jwt validado.
+     * @throws JwtException Si el token no es válido.
+     */
+    @Override
+    public Jwt decode(final String token) throws JwtException {
+        return tokens.get(hash(token), clave -> delegado.decode(token));
+    }
+
+    private static String hash(final String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    /**
+     * Vence cada token con su claim exp, sin superar el tiempo de vida máximo.
+     */
+    private static final class VencimientoToken implements Expiry<String, Jwt> {
+
+        /**
+         * Reloj con el que se compara el claim exp.
+         */
+        private final Clock reloj;
+        /**
+         * Tiempo de vida máximo.
+         */
+        private final Duration ttlMaximo;
+
+        VencimientoToken(final Clock relojParam, final Duration ttlMaximoParam) {
+            this.reloj = relojParam;
+            this.ttlMaximo = ttlMaximoParam;
+        }
+
+        @Override
+        public long expireAfterCreate(final String clave, final Jwt jwt, final long currentTime) {
+            Instant vencimiento = jwt.getExpiresAt();
+            if (vencimiento == null) {
+                return ttlMaximo.toNanos();
+            }
+            Duration restante = Duration.between(reloj.instant(), vencimiento);
+            if (restante.isNegative()) {
+                return 0;
+            }
+            return restante.compareTo(ttlMaximo) < 0 ? restante.toNanos() : ttlMaximo.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(final String clave, final Jwt jwt, final long currentTime,
+                                      final long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(final String clave, final Jwt jwt, final long currentTime,
+                                    final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.softdev.purchase_order.infrastucture.security;
 
 
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
+import reactor.core.publisher.Mono;
+
 /**
- * Clase JwtUtils que proporciona funciones para obtener claims de un token JWT.
+ * Clase JwtUtils que proporciona funciones para obtener el token JWT y sus claims.
  */
 public class JwtUtils {
 
@@ -33,4 +36,32 @@ public class JwtUtils {
         }
         return null;
     }
+
+    /**
+     * Obtiene el valor del token JWT del contexto de seguridad del hilo actual.
+     *
+     * @return el token JWT, o {@code null} si no hay autenticación válida.
+     */
+    public static String getToken() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthToken) {
+            return jwtAuthToken.getToken().getTokenValue();
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene el token JWT al suscribirse: primero del contexto de seguridad de Reactor, que es el
+     * disponible en los flujos no bloqueantes, y si no existe del contexto del hilo actual.
+     *
+     * @return el token JWT, o vacío como cadena si no hay un cliente autenticado.
+     */
+    public static Mono<String> getTokenReactivo() {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(contexto -> contexto.getAuthentication() instanceof JwtAuthenticationToken jwtAuthToken
+                        ? jwtAuthToken.getToken().getTokenValue()
+                        : null)
+                .switchIfEmpty(Mono.fromSupplier(JwtUtils::getToken))
+                .defaultIfEmpty("");
+    }
 }
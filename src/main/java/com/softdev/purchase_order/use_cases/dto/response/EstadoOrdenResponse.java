@@ -0,0 +1,53 @@
+package com.softdev.purchase_order.use_cases.dto.response;
+
+import java.util.UUID;
+
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Clase que representa el estado de una orden aceptada para procesarse en segundo plano.
+ */
+@AllArgsConstructor
+@Getter
+public class EstadoOrdenResponse {
+    /**
+     * Identificador único de la orden.
+     */
+    private String idOrden;
+    /**
+     * Estado actual de la orden.
+     */
+    private String estado;
+    /**
+     * URL para consultar el estado de la orden.
+     */
+    private String urlEstado;
+    /**
+     * URL de la factura, disponible cuando la orden ya fue creada.
+     */
+    private String urlFactura;
+
+    /**
+     * Constructor de la clase EstadoOrdenResponse.
+     *
+     * @param idOrdenParam Identificador único de la orden.
+     * @param estadoParam Estado actual de la orden.
+     */
+    public EstadoOrdenResponse(final UUID idOrdenParam, final EstadoOrden estadoParam) {
+        this.idOrden = idOrdenParam.toString();
+        this.estado = estadoParam.name();
+        this.urlEstado = "/ordenes/" + idOrdenParam + "/estado";
+        this.urlFactura = estadoParam == EstadoOrden.PENDIENTE || estadoParam == EstadoOrden.RECHAZADA
+                ? null
+                : "/ordenes/factura/" + idOrdenParam;
+    }
+
+    /**
+     * Constructor vacío para la deserialización de JSON.
+     */
+    public EstadoOrdenResponse() {
+    }
+}
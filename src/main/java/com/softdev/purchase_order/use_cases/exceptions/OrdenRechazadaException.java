@@ -0,0 +1,27 @@
+package com.softdev.purchase_order.use_cases.exceptions;
+
+/**
+ * Excepción que se lanza cuando una orden no se puede completar por una regla de negocio, como un
+ * producto inexistente o sin stock suficiente. A diferencia de un fallo de otro servicio, repetir la
+ * orden no cambia el resultado.
+ */
+public class OrdenRechazadaException extends RuntimeException {
+    /**
+     * Constructor que inicializa la excepción con su mensaje.
+     *
+     * @param message El mensaje de error que describe la excepción.
+     */
+    public OrdenRechazadaException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor que inicializa la excepción con su mensaje y su causa.
+     *
+     * @param message El mensaje de error que describe la excepción.
+     * @param cause La causa del rechazo.
+     */
+    public OrdenRechazadaException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.softdev.purchase_order.use_cases.exceptions;
+
+/**
+ * Excepción que se lanza cuando la llamada a un servicio externo se rechaza sin intentarla porque el
+ * servicio está fallando o ya tiene el máximo de llamadas en curso. El cliente puede reintentar más tarde.
+ */
+public class ServicioNoDisponibleException extends RuntimeException {
+    /**
+     * Constructor que inicializa la excepción con su mensaje y su causa.
+     *
+     * @param message El mensaje de error que describe la excepción.
+     * @param cause La causa del rechazo.
+     */
+    public ServicioNoDisponibleException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
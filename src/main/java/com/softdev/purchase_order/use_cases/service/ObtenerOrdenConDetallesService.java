@@ -1,20 +1,18 @@
 package com.softdev.purchase_order.use_cases.service;
 
 import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
-import com.softdev.purchase_order.domain.repositories.DetalleOrdenRepositoryPort;
 import com.softdev.purchase_order.domain.entities.Orden;
-import com.softdev.purchase_order.domain.entities.DetalleOrden;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
 import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Servicio para obtener una orden con sus detalles.
- * Utiliza los repositorios de Orden y DetalleOrden para recuperar la información necesaria.
+ * Carga la orden y sus detalles en una sola consulta al repositorio de órdenes.
  */
 @Service
 @RequiredArgsConstructor
@@ -24,10 +22,6 @@ public class ObtenerOrdenConDetallesService {
      * Repositorio para acceder a las órdenes.
      */
     private final OrdenRepositoryPort ordenRepositoryPort;
-    /**
-     * Repositorio para acceder a los detalles de las órdenes.
-     */
-    private final DetalleOrdenRepositoryPort detalleOrdenRepositoryPort;
 
     /**
      * Método para obtener una orden con sus detalles a partir de su ID.
@@ -38,20 +32,31 @@ public class ObtenerOrdenConDetallesService {
      */
     public Optional<OrdenConDetallesDTO> ejecutar(final UUID ordenId) {
         try {
-            Optional<Orden> ordenOpt = ordenRepositoryPort.findById(ordenId);
-
-            if (ordenOpt.isEmpty()) {
-                return Optional.empty();
-            }
-
-            Orden orden = ordenOpt.get();
-            List<DetalleOrden> detalles = detalleOrdenRepositoryPort.findByOrdenId(ordenId.toString());
-
-            // If OrdenConDetallesDTO.from only accepts Orden, you may need to set details inside the DTO or modify as needed
-            return Optional.of(OrdenConDetallesDTO.from(orden));
+            return ordenRepositoryPort.findConDetallesById(ordenId).map(OrdenConDetallesDTO::from);
         } catch (IllegalArgumentException e) {
             // Si el String no es un UUID válido
             return Optional.empty();
         }
     }
+
+    /**
+     * Método para obtener el estado actual de una orden a partir de su ID.
+     *
+     * @param ordenId El ID de la orden a buscar.
+     * @return Un Optional con el estado de la orden, o vacío si no existe.
+     */
+    public Optional<EstadoOrden> obtenerEstado(final UUID ordenId) {
+        return ordenRepositoryPort.findById(ordenId).map(Orden::getEstado);
+    }
+
+    /**
+     * Método para obtener la versión actual de una orden, sin cargar la orden ni sus detalles.
+     * La versión cambia cada vez que la orden se actualiza.
+     *
+     * @param ordenId El ID de la orden a buscar.
+     * @return Un Optional con la versión de la orden, o vacío si no existe.
+     */
+    public Optional<Long> obtenerVersion(final UUID ordenId) {
+        return ordenRepositoryPort.findVersionById(ordenId);
+    }
 }
@@ -0,0 +1,220 @@
+package com.softdev.purchase_order.use_cases.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
+import com.softdev.purchase_order.domain.entities.DetalleOrden;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.domain.entities.MetodoPago;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
+import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
+import com.softdev.purchase_order.domain.repositories.ProductoServiceReactivoPort;
+import com.softdev.purchase_order.domain.repositories.RealizarOrdenReactivoPort;
+import com.softdev.purchase_order.domain.repositories.UsuarioServiceReactivoPort;
+import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
+import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Servicio no bloqueante para realizar una orden de compra.
+ * Aplica las mismas reglas que {@link RealizarOrdenService}, pero las llamadas a los servicios de
+ * usuarios y productos no ocupan un hilo mientras esperan respuesta. JPA es bloqueante, por lo que
+ * el guardado de la orden y de su evento se ejecuta en un planificador acotado al tamaño del pool
+ * de conexiones, en una transacción propia.
+ */
+public class RealizarOrdenReactivoService implements RealizarOrdenReactivoPort {
+
+    /**
+     * Repositorio para manejar las operaciones de orden.
+     */
+    private final OrdenRepositoryPort ordenRepository;
+    /**
+     * Servicio no bloqueante de productos.
+     */
+    private final ProductoServiceReactivoPort productoServicePort;
+    /**
+     * Servicio no bloqueante de usuarios.
+     */
+    private final UsuarioServiceReactivoPort usuarioServicePort;
+    /**
+     * Bandeja de salida donde se registran los eventos de órdenes creadas.
+     */
+    private final OrdenOutboxPort ordenOutboxPort;
+    /**
+     * Transacción en la que se guardan la orden y su evento.
+     */
+    private final TransactionOperations transaction;
+    /**
+     * Planificador donde se ejecuta el guardado bloqueante.
+     */
+    private final Scheduler persistenciaScheduler;
+    /**
+     * Tiempo máximo de espera para obtener el usuario.
+     */
+    private final Duration timeoutUsuario;
+    /**
+     * Tiempo máximo de espera para cotizar los productos.
+     */
+    private final Duration timeoutProductos;
+
+    /**
+     * Constructor que inicializa el servicio con sus dependencias.
+     *
+     * @param ordenRepositoryParam El repositorio de órdenes.
+     * @param productoServicePortParam El servicio no bloqueante de productos.
+     * @param usuarioServicePortParam El servicio no bloqueante de usuarios.
+     * @param ordenOutboxPortParam La bandeja de salida de eventos de órdenes.
+     * @param transactionParam Transacción en la que se guardan la orden y su evento.
+     * @param persistenciaSchedulerParam Planificador acotado donde se ejecuta el guardado bloqueante.
+     * @param timeoutUsuarioParam Tiempo máximo para obtener el usuario.
+     * @param timeoutProductosParam Tiempo máximo para cotizar los productos.
+     */
+    public RealizarOrdenReactivoService(final OrdenRepositoryPort ordenRepositoryParam,
+                                        final ProductoServiceReactivoPort productoServicePortParam,
+                                        final UsuarioServiceReactivoPort usuarioServicePortParam,
+                                        final OrdenOutboxPort ordenOutboxPortParam,
+                                        final TransactionOperations transactionParam,
+                                        final Scheduler persistenciaSchedulerParam,
+                                        final Duration timeoutUsuarioParam,
+                                        final Duration timeoutProductosParam) {
+        this.ordenRepository = ordenRepositoryParam;
+        this.productoServicePort = productoServicePortParam;
+        this.usuarioServicePort = usuarioServicePortParam;
+        this.ordenOutboxPort = ordenOutboxPortParam;
+        this.transaction = transactionParam;
+        this.persistenciaScheduler = persistenciaSchedulerParam;
+        this.timeoutUsuario = timeoutUsuarioParam;
+        this.timeoutProductos = timeoutProductosParam;
+    }
+
+    /**
+     * Realiza una orden de compra sin bloquear y registra su evento para publicarlo en RabbitMQ.
+     * La reserva de stock se confirma después de confirmar la transacción, o se libera si el guardado falla.
+     * Desde la reserva, la orden se completa aunque el cliente cancele la solicitud: una orden guardada
+     * siempre confirma su reserva y una reserva sin orden siempre se libera.
+     *
+     * @param request El objeto que contiene la información de la orden.
+     * @param emailCliente El correo electrónico del cliente.
+     * @return La orden creada.
+     */
+    @Override
+    public Mono<Orden> realizarOrden(final RealizarOrdenRequest request, final String emailCliente) {
+        Map<String, Integer> cantidades = RealizarOrdenService.agruparCantidades(request.getProductos());
+        MetodoPago metodoPago = RealizarOrdenService.crearMetodoPago(request.getMetodoPago());
+
+        // 1. Obtener información del usuario y cotizar los productos en paralelo
+        Mono<UsuarioResponse> usuario = conTimeout(usuarioServicePort.obtenerUsuarioReactivo(emailCliente),
+                timeoutUsuario, "la consulta del usuario")
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("No se encontró el usuario " + emailCliente)));
+        Mono<Map<String, CotizacionProducto>> cotizaciones = conTimeout(
+                productoServicePort.cotizarProductosReactivo(cantidades), timeoutProductos, "la cotización de productos");
+
+        return Mono.zip(usuario, cotizaciones).flatMap(resultado -> {
+            // 2. Verificar los productos cotizados
+            RealizarOrdenService.validarCotizaciones(cantidades, resultado.getT2());
+            List<DetalleOrden> detalles = RealizarOrdenService.crearDetalles(request.getProductos(), resultado.getT2());
+            Orden orden = new Orden(
+                UUID.randomUUID(),
+                emailCliente,
+                resultado.getT1().getNombre(),
+                resultado.getT1().getDni(),
+                resultado.getT1().getDireccion(),
+                detalles,
+                metodoPago,
+                RealizarOrdenService.calcularValorTotal(detalles),
+                LocalDateTime.now(),
+                EstadoOrden.CREADA
+            );
+
+            // Reservar el stock de todos los productos y guardar la orden
+            return sinCancelacion(productoServicePort.reservarStockReactivo(cantidades)
+                    .flatMap(idReserva -> guardar(orden)
+                            .onErrorResume(e -> liberarReserva(idReserva).then(Mono.error(e)))
+                            .flatMap(guardada -> confirmarReserva(idReserva).thenReturn(guardada))));
+        });
+    }
+
+    /**
+     * Ejecuta una operación que no se detiene si se cancela la suscripción, por ejemplo porque el cliente
+     * se desconectó; la cancelación solo deja de esperar su resultado. La operación conserva el contexto
+     * de Reactor del suscriptor, donde está el contexto de seguridad con el token JWT del cliente.
+     *
+     * @param operacion La operación.
+     * @param <T> Tipo del resultado.
+     * @return La operación desacoplada de la cancelación.
+     */
+    private static <T> Mono<T> sinCancelacion(final Mono<T> operacion) {
+        return Mono.deferContextual(contexto -> Mono.fromFuture(operacion.contextWrite(contexto).toFuture(), true));
+    }
+
+    /**
+     * Guarda la orden y registra su evento en una transacción, fuera de los hilos de red.
+     *
+     * @param orden La orden a guardar.
+     * @return La orden guardada, después de confirmar la transacción.
+     */
+    private Mono<Orden> guardar(final Orden orden) {
+        return Mono.fromCallable(() -> transaction.execute(status -> {
+                    Orden ordenGuardada = ordenRepository.save(orden);
+                    ordenOutboxPort.registrarOrdenCreada(ordenGuardada);
+                    return ordenGuardada;
+                }))
+                .subscribeOn(persistenciaScheduler);
+    }
+
+    /**
+     * Confirma una reserva de stock. Si falla, la reserva expira en el servicio de productos.
+     *
+     * @param idReserva El identificador de la reserva.
+     * @return Una señal de finalización que no propaga errores.
+     */
+    private Mono<Void> confirmarReserva(final String idReserva) {
+        return productoServicePort.confirmarReservaReactivo(idReserva)
+                .onErrorResume(e -> {
+                    System.err.println("Error al confirmar la reserva de stock " + idReserva + ": " + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Libera una reserva de stock como compensación de una orden fallida.
+     *
+     * @param idReserva El identificador de la reserva.
+     * @return Una señal de finalización que no propaga errores.
+     */
+    private Mono<Void> liberarReserva(final String idReserva) {
+        return productoServicePort.liberarReservaReactivo(idReserva)
+                .onErrorResume(e -> {
+                    System.err.println("Error al liberar la reserva de stock " + idReserva + ": " + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Aplica un tiempo máximo de espera a una consulta y traduce su error como el servicio bloqueante.
+     *
+     * @param consulta La consulta.
+     * @param timeout Tiempo máximo de espera, o null para esperar sin límite.
+     * @param descripcion Descripción de la consulta para el mensaje de error.
+     * @param <T> Tipo del resultado.
+     * @return La consulta con el tiempo máximo aplicado.
+     */
+    private <T> Mono<T> conTimeout(final Mono<T> consulta, final Duration timeout, final String descripcion) {
+        if (timeout == null) {
+            return consulta;
+        }
+        return consulta.timeout(timeout)
+                .onErrorMap(TimeoutException.class,
+                        e -> new RuntimeException("Se agotó el tiempo de espera para " + descripcion, e));
+    }
+}
@@ -1,30 +1,48 @@
 package com.softdev.purchase_order.use_cases.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
 import com.softdev.purchase_order.domain.entities.DetalleOrden;
 import com.softdev.purchase_order.domain.entities.EstadoOrden;
 import com.softdev.purchase_order.domain.entities.MetodoPago;
 import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
 import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
 import com.softdev.purchase_order.domain.repositories.ProductoServicePort;
 import com.softdev.purchase_order.domain.repositories.RealizarOrdenPort;
 import com.softdev.purchase_order.domain.repositories.UsuarioServicePort;
 import com.softdev.purchase_order.infrastucture.messaging.OrdenPublisherService;
+import com.softdev.purchase_order.use_cases.dto.request.MetodoPagoRequest;
 import com.softdev.purchase_order.use_cases.dto.request.ProductoOrdenRequest;
 import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
 import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
 import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+import com.softdev.purchase_order.use_cases.exceptions.OrdenRechazadaException;
 
 /**
  * Servicio para realizar una orden de compra.
- * Implementa la lógica de negocio para procesar una orden y publicarla en RabbitMQ.
+ * Implementa la lógica de negocio para procesar una orden y registrar su evento en la bandeja
+ * de salida, desde donde se publica en RabbitMQ después de confirmar la transacción.
  */
 public class RealizarOrdenService implements RealizarOrdenPort {
 
@@ -44,27 +62,83 @@ public class RealizarOrdenService implements RealizarOrdenPort {
      * Servicio para publicar mensajes de órdenes a RabbitMQ.
      */
     private final OrdenPublisherService ordenPublisherService;
+    /**
+     * Bandeja de salida donde se registran los eventos de órdenes creadas.
+     */
+    private final OrdenOutboxPort ordenOutboxPort;
+    /**
+     * Transacciones donde se guardan las órdenes pendientes una vez completadas.
+     */
+    private final TransactionOperations transaction;
+    /**
+     * Ejecutor donde se consultan en paralelo el usuario y los productos.
+     */
+    private final Executor executor;
+    /**
+     * Tiempo máximo de espera para obtener el usuario.
+     */
+    private final Duration timeoutUsuario;
+    /**
+     * Tiempo máximo de espera para cotizar los productos.
+     */
+    private final Duration timeoutProductos;
 
     /**
      * Constructor que inicializa el servicio con los repositorios necesarios.
+     * Las consultas de usuario y productos se ejecutan en el hilo que llama, sin tiempo máximo, y las
+     * órdenes pendientes se guardan sin abrir una transacción propia.
      *
      * @param ordenRepositoryParam El repositorio de órdenes.
      * @param productoServicePortParam El servicio de productos.
      * @param usuarioServicePortParam El servicio de usuarios.
      * @param ordenPublisherServiceParam El servicio para publicar órdenes en RabbitMQ.
+     * @param ordenOutboxPortParam La bandeja de salida de eventos de órdenes.
      */
     public RealizarOrdenService(final OrdenRepositoryPort ordenRepositoryParam,
                                final ProductoServicePort productoServicePortParam,
                                final UsuarioServicePort usuarioServicePortParam,
-                               final OrdenPublisherService ordenPublisherServiceParam) {
+                               final OrdenPublisherService ordenPublisherServiceParam,
+                               final OrdenOutboxPort ordenOutboxPortParam) {
+        this(ordenRepositoryParam, productoServicePortParam, usuarioServicePortParam, ordenPublisherServiceParam,
+                ordenOutboxPortParam, TransactionOperations.withoutTransaction(), Runnable::run, null, null);
+    }
+
+    /**
+     * Constructor que inicializa el servicio con los repositorios necesarios y el ejecutor
+     * donde se consultan en paralelo el usuario y los productos.
+     *
+     * @param ordenRepositoryParam El repositorio de órdenes.
+     * @param productoServicePortParam El servicio de productos.
+     * @param usuarioServicePortParam El servicio de usuarios.
+     * @param ordenPublisherServiceParam El servicio para publicar órdenes en RabbitMQ.
+     * @param ordenOutboxPortParam La bandeja de salida de eventos de órdenes.
+     * @param transactionParam Transacciones donde se guardan las órdenes pendientes una vez completadas.
+     * @param executorParam Ejecutor para las consultas en paralelo. Debe propagar el contexto de seguridad.
+     * @param timeoutUsuarioParam Tiempo máximo para obtener el usuario, o null para esperar sin límite.
+     * @param timeoutProductosParam Tiempo máximo para cotizar los productos, o null para esperar sin límite.
+     */
+    public RealizarOrdenService(final OrdenRepositoryPort ordenRepositoryParam,
+                               final ProductoServicePort productoServicePortParam,
+                               final UsuarioServicePort usuarioServicePortParam,
+                               final OrdenPublisherService ordenPublisherServiceParam,
+                               final OrdenOutboxPort ordenOutboxPortParam,
+                               final TransactionOperations transactionParam,
+                               final Executor executorParam,
+                               final Duration timeoutUsuarioParam,
+                               final Duration timeoutProductosParam) {
         this.ordenRepository = ordenRepositoryParam;
         this.productoServicePort = productoServicePortParam;
         this.usuarioServicePort = usuarioServicePortParam;
         this.ordenPublisherService = ordenPublisherServiceParam;
+        this.ordenOutboxPort = ordenOutboxPortParam;
+        this.transaction = transactionParam;
+        this.executor = executorParam;
+        this.timeoutUsuario = timeoutUsuarioParam;
+        this.timeoutProductos = timeoutProductosParam;
     }
 
     /**
-     * Realiza una orden de compra y la publica en RabbitMQ.
+     * Realiza una orden de compra y registra su evento para publicarlo en RabbitMQ.
      *
      * @param request El objeto que contiene la información de la orden.
      * @param emailCliente El correo electrónico del cliente.
@@ -73,79 +147,430 @@ public class RealizarOrdenService implements RealizarOrdenPort {
     @Override
     @Transactional
     public Orden realizarOrden(final RealizarOrdenRequest request, final String emailCliente) {
-        // 1. Obtener información del usuario
-        UsuarioResponse usuario = usuarioServicePort.obtenerUsuario(emailCliente);
+        // 1. y 2. Obtener el usuario, cotizar y verificar los productos
+        OrdenCotizada cotizada = cotizar(request.getProductos(), emailCliente);
 
-        // 2. Verificar y procesar productos
-        List<DetalleOrden> detallesOrden = new ArrayList<>();
-        BigDecimal valorTotal = BigDecimal.ZERO;
+        // 3. Crear objeto de método de pago
+        MetodoPago metodoPago = crearMetodoPago(request.getMetodoPago());
 
+        // Reservar el stock de todos los productos en una sola llamada, solo cuando todos son válidos
+        String idReserva = productoServicePort.reservarStock(cotizada.cantidades());
+
+        // 4. Crear la orden
+        Orden orden = new Orden(
+            UUID.randomUUID(),
+            emailCliente,
+            cotizada.usuario().getNombre(),
+            cotizada.usuario().getDni(),
+            cotizada.usuario().getDireccion(),
+            cotizada.detalles(),
+            metodoPago,
+            cotizada.valorTotal(),
+            LocalDateTime.now(),
+            EstadoOrden.CREADA
+        );
+
+        // 5. y 6. Guardar la orden y registrar su evento
+        return guardarConReserva(orden, idReserva, ordenRepository::save);
+    }
+
+    /**
+     * Acepta una orden sin consultar otros servicios y la guarda en estado pendiente.
+     * Los detalles se guardan con precio cero hasta que la orden se procese.
+     *
+     * @param request El objeto que contiene la información de la orden.
+     * @param emailCliente El correo electrónico del cliente.
+     * @return La orden pendiente guardada.
+     */
+    @Override
+    @Transactional
+    public Orden aceptarOrden(final RealizarOrdenRequest request, final String emailCliente) {
+        List<DetalleOrden> detalles = new ArrayList<>();
         for (ProductoOrdenRequest productoRequest : request.getProductos()) {
-            String nombreProducto = productoRequest.getProducto();
-            int cantidad = productoRequest.getCantidad();
+            detalles.add(new DetalleOrden(productoRequest.getProducto(), productoRequest.getCantidad(), BigDecimal.ZERO));
+        }
+        Orden orden = new Orden(
+            UUID.randomUUID(),
+            emailCliente,
+            null,
+            null,
+            null,
+            detalles,
+            crearMetodoPago(request.getMetodoPago()),
+            BigDecimal.ZERO,
+            LocalDateTime.now(),
+            EstadoOrden.PENDIENTE
+        );
+        return ordenRepository.save(orden);
+    }
 
-            // Verificar que el producto existe
-            if (!productoServicePort.existeProducto(nombreProducto)) {
-                throw new RuntimeException("El producto '" + nombreProducto + "' no existe");
-            }
+    /**
+     * Completa una orden pendiente con los mismos pasos que {@link #realizarOrden}.
+     * Las consultas a los servicios de usuarios y productos se hacen fuera de la transacción, para no
+     * retener una conexión a la base de datos mientras se esperan; solo el guardado de la orden y de su
+     * evento es transaccional. Si los productos no existen o no hay stock, la orden queda rechazada;
+     * si un servicio falla o no responde, la excepción se propaga y la orden sigue pendiente para
+     * reintentarla. Las órdenes que ya no están pendientes se devuelven sin cambios.
+     *
+     * @param idOrden El ID de la orden pendiente.
+     * @return La orden creada o rechazada.
+     */
+    @Override
+    public Orden procesarOrdenPendiente(final UUID idOrden) {
+        Orden pendiente = buscarOrden(idOrden);
+        if (pendiente.getEstado() != EstadoOrden.PENDIENTE) {
+            return pendiente;
+        }
 
-            // Verificar stock disponible
-            if (!productoServicePort.verificarStock(nombreProducto, cantidad)) {
-                throw new RuntimeException("No hay suficiente stock para el producto '" + nombreProducto + "', cantidad solicitada: " + cantidad);
+        List<ProductoOrdenRequest> productos = new ArrayList<>();
+        for (DetalleOrden detalle : pendiente.getDetalles()) {
+            productos.add(new ProductoOrdenRequest(detalle.getNombreProducto(), detalle.getCantidad()));
+        }
+
+        OrdenCotizada cotizada;
+        String idReserva;
+        try {
+            cotizada = cotizar(productos, pendiente.getEmailCliente());
+            idReserva = productoServicePort.reservarStock(cotizada.cantidades());
+        } catch (OrdenRechazadaException e) {
+            System.err.println("Orden " + idOrden + " rechazada: " + e.getMessage());
+            return rechazarOrdenPendiente(idOrden);
+        }
+
+        Orden orden = new Orden(
+            idOrden,
+            pendiente.getEmailCliente(),
+            cotizada.usuario().getNombre(),
+            cotizada.usuario().getDni(),
+            cotizada.usuario().getDireccion(),
+            cotizada.detalles(),
+            pendiente.getMetodoPago(),
+            cotizada.valorTotal(),
+            pendiente.getFechaPedido(),
+            EstadoOrden.CREADA
+        );
+        AtomicBoolean reservaEntregada = new AtomicBoolean();
+        try {
+            return transaction.execute(estado -> {
+                reservaEntregada.set(true);
+                return completarSiPendiente(orden, idReserva);
+            });
+        } catch (RuntimeException e) {
+            // Si la transacción no llegó a abrirse, nadie más libera la reserva
+            if (!reservaEntregada.get()) {
+                liberarReserva(idReserva);
             }
+            throw e;
+        }
+    }
+
+    /**
+     * Rechaza una orden que sigue pendiente, en su propia transacción.
+     *
+     * @param idOrden El ID de la orden pendiente.
+     * @return La orden rechazada, o la orden actual si ya no estaba pendiente.
+     */
+    @Override
+    public Orden rechazarOrdenPendiente(final UUID idOrden) {
+        return transaction.execute(estado -> rechazarSiPendiente(idOrden));
+    }
+
+    /**
+     * Guarda la orden completada si sigue pendiente. Otra ejecución pudo completarla o rechazarla
+     * mientras se consultaban los servicios; en ese caso se libera la reserva y se devuelve la orden
+     * sin cambios. Las actualizaciones concurrentes que pasen esta verificación fallan por la versión.
+     *
+     * @param orden La orden completada.
+     * @param idReserva El identificador de la reserva de stock de la orden.
+     * @return La orden guardada, o la orden actual si ya no estaba pendiente.
+     */
+    private Orden completarSiPendiente(final Orden orden, final String idReserva) {
+        Orden actual;
+        try {
+            actual = buscarOrden(orden.getId());
+        } catch (RuntimeException e) {
+            liberarReserva(idReserva);
+            throw e;
+        }
+        if (actual.getEstado() != EstadoOrden.PENDIENTE) {
+            liberarReserva(idReserva);
+            return actual;
+        }
+        return guardarConReserva(orden, idReserva, ordenRepository::actualizar);
+    }
+
+    /**
+     * Marca la orden como rechazada si sigue pendiente.
+     *
+     * @param idOrden El ID de la orden.
+     * @return La orden rechazada, o la orden actual si ya no estaba pendiente.
+     */
+    private Orden rechazarSiPendiente(final UUID idOrden) {
+        Orden actual = buscarOrden(idOrden);
+        if (actual.getEstado() != EstadoOrden.PENDIENTE) {
+            return actual;
+        }
+        actual.setEstado(EstadoOrden.RECHAZADA);
+        return ordenRepository.actualizar(actual);
+    }
+
+    private Orden buscarOrden(final UUID idOrden) {
+        return ordenRepository.findConDetallesById(idOrden)
+                .orElseThrow(() -> new IllegalArgumentException("No existe la orden " + idOrden));
+    }
+
+    /**
+     * Resultado de consultar el usuario y cotizar los productos de una orden.
+     *
+     * @param usuario El usuario que realiza la orden.
+     * @param cantidades Cantidad total solicitada por producto.
+     * @param detalles Los detalles de la orden con sus precios.
+     * @param valorTotal El valor total de la orden.
+     */
+    private record OrdenCotizada(UsuarioResponse usuario, Map<String, Integer> cantidades,
+                                 List<DetalleOrden> detalles, BigDecimal valorTotal) {
+    }
 
-            // Obtener precio del producto
-            BigDecimal precioUnitario = productoServicePort.obtenerPrecio(nombreProducto);
+    /**
+     * Obtiene el usuario y cotiza los productos en paralelo, verifica los productos y calcula
+     * los detalles y el valor total de la orden.
+     *
+     * @param productos Las líneas de la orden.
+     * @param emailCliente El correo electrónico del cliente.
+     * @return El usuario, los detalles y el valor total de la orden.
+     * @throws RuntimeException Si algún producto no es válido o una consulta falla.
+     */
+    private OrdenCotizada cotizar(final List<ProductoOrdenRequest> productos, final String emailCliente) {
+        // 1. Obtener información del usuario y cotizar los productos en paralelo
+        Map<String, Integer> cantidades = agruparCantidades(productos);
+        CompletableFuture<UsuarioResponse> usuarioFuturo = conTimeout(
+                CompletableFuture.supplyAsync(() -> usuarioServicePort.obtenerUsuario(emailCliente), executor),
+                timeoutUsuario);
+        CompletableFuture<Map<String, CotizacionProducto>> cotizacionesFuturo = conTimeout(
+                CompletableFuture.supplyAsync(() -> productoServicePort.cotizarProductos(cantidades), executor),
+                timeoutProductos);
+
+        // 2. Verificar los productos cotizados
+        Map<String, CotizacionProducto> cotizaciones = esperar(cotizacionesFuturo, "la cotización de productos");
+        validarCotizaciones(cantidades, cotizaciones);
+        UsuarioResponse usuario = esperar(usuarioFuturo, "la consulta del usuario");
+
+        List<DetalleOrden> detallesOrden = crearDetalles(productos, cotizaciones);
+        return new OrdenCotizada(usuario, cantidades, detallesOrden, calcularValorTotal(detallesOrden));
+    }
+
+    /**
+     * Crea los detalles de la orden con el precio de cada producto cotizado.
+     * Es compartido con el servicio no bloqueante para aplicar las mismas reglas.
+     *
+     * @param productos Las líneas de la orden.
+     * @param cotizaciones Cotizaciones válidas de todos los productos.
+     * @return Los detalles de la orden, en el orden de la solicitud.
+     */
+    static List<DetalleOrden> crearDetalles(final List<ProductoOrdenRequest> productos,
+                                            final Map<String, CotizacionProducto> cotizaciones) {
+        List<DetalleOrden> detallesOrden = new ArrayList<>();
+        for (ProductoOrdenRequest productoRequest : productos) {
+            String nombreProducto = productoRequest.getProducto();
+            int cantidad = productoRequest.getCantidad();
+
+            // Obtener precio del producto desde la cotización
+            BigDecimal precioUnitario = cotizaciones.get(nombreProducto).getPrecioUnitario();
 
             // Crear detalle de orden
-            DetalleOrden detalle = new DetalleOrden(nombreProducto, cantidad, precioUnitario);
-            detallesOrden.add(detalle);
+            detallesOrden.add(new DetalleOrden(nombreProducto, cantidad, precioUnitario));
+        }
+        return detallesOrden;
+    }
 
-            // Actualizar valor total
+    /**
+     * Calcula el valor total de la orden como la suma de los subtotales de sus detalles.
+     *
+     * @param detalles Los detalles de la orden.
+     * @return El valor total de la orden.
+     */
+    static BigDecimal calcularValorTotal(final List<DetalleOrden> detalles) {
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        for (DetalleOrden detalle : detalles) {
             valorTotal = valorTotal.add(detalle.getSubtotal());
-
-            // Actualizar stock (descontar)
-            productoServicePort.actualizarStock(nombreProducto, cantidad);
         }
+        return valorTotal;
+    }
 
-        // 3. Crear objeto de método de pago
-        MetodoPago metodoPago = new MetodoPago(
-            request.getMetodoPago().getMetodoPago(),
-            request.getMetodoPago().getNumeroTarjeta(),
-            request.getMetodoPago().getFechaExpiracion(),
-            request.getMetodoPago().getCvv(),
-            request.getMetodoPago().getNombreTitular()
+    /**
+     * Crea el método de pago de la orden a partir de la solicitud.
+     *
+     * @param metodoPago El método de pago de la solicitud.
+     * @return El método de pago de la orden.
+     */
+    static MetodoPago crearMetodoPago(final MetodoPagoRequest metodoPago) {
+        return new MetodoPago(
+            metodoPago.getMetodoPago(),
+            metodoPago.getNumeroTarjeta(),
+            metodoPago.getFechaExpiracion(),
+            metodoPago.getCvv(),
+            metodoPago.getNombreTitular()
         );
+    }
 
-        // 4. Crear la orden
-        Orden orden = new Orden(
-            UUID.randomUUID(),
-            emailCliente,
-            usuario.getNombre(),
-            usuario.getDni(),
-            usuario.getDireccion(),
-            detallesOrden,
-            metodoPago,
-            valorTotal,
-            LocalDateTime.now(),
-            EstadoOrden.CREADA
-        );
+    /**
+     * Guarda la orden y registra su evento en la bandeja de salida, en la misma transacción.
+     * Si falla, libera la reserva de stock; si no, la reserva se confirma al confirmar la transacción.
+     *
+     * @param orden La orden a guardar.
+     * @param idReserva El identificador de la reserva de stock de la orden.
+     * @param guardar Operación que guarda la orden en el repositorio.
+     * @return La orden guardada.
+     */
+    private Orden guardarConReserva(final Orden orden, final String idReserva, final UnaryOperator<Orden> guardar) {
+        Orden ordenGuardada;
+        try {
+            ordenGuardada = guardar.apply(orden);
+            ordenOutboxPort.registrarOrdenCreada(ordenGuardada);
+        } catch (RuntimeException e) {
+            liberarReserva(idReserva);
+            throw e;
+        }
+        finalizarReservaAlCompletar(idReserva);
+
+        return ordenGuardada;
+    }
+
+    /**
+     * Confirma la reserva de stock cuando la transacción de la orden se confirma, o la libera
+     * si se revierte. Sin una transacción activa la reserva se confirma de inmediato.
+     *
+     * @param idReserva El identificador de la reserva.
+     */
+    private void finalizarReservaAlCompletar(final String idReserva) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productoServicePort.confirmarReserva(idReserva);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirmarReserva(idReserva);
+                } else {
+                    liberarReserva(idReserva);
+                }
+            }
+        });
+    }
 
-        // 5. Guardar la orden
-        Orden ordenGuardada = ordenRepository.save(orden);
+    /**
+     * Confirma una reserva de stock. Si falla, la reserva expira en el servicio de productos.
+     *
+     * @param idReserva El identificador de la reserva.
+     */
+    private void confirmarReserva(final String idReserva) {
+        try {
+            productoServicePort.confirmarReserva(idReserva);
+        } catch (Exception e) {
+            System.err.println("Error al confirmar la reserva de stock " + idReserva + ": " + e.getMessage());
+        }
+    }
 
-        // 6. Convertir a DTO y publicar en RabbitMQ
+    /**
+     * Libera una reserva de stock como compensación de una orden fallida.
+     * Los errores se registran para no ocultar la causa original del fallo.
+     *
+     * @param idReserva El identificador de la reserva.
+     */
+    private void liberarReserva(final String idReserva) {
         try {
-            OrdenConDetallesDTO ordenDTO = OrdenConDetallesDTO.from(ordenGuardada);
-            ordenPublisherService.publicarOrden(ordenDTO);
+            productoServicePort.liberarReserva(idReserva);
         } catch (Exception e) {
-            // Log del error pero no fallar la transacción
-            System.err.println("Error al publicar la orden en RabbitMQ: " + e.getMessage());
-            // Opcional: Podrías decidir si quieres que falle toda la transacción
-            // o solo registrar el error y continuar
+            System.err.println("Error al liberar la reserva de stock " + idReserva + ": " + e.getMessage());
         }
+    }
 
-        return ordenGuardada;
+    /**
+     * Aplica un tiempo máximo de espera a una consulta en paralelo.
+     *
+     * @param futuro La consulta en curso.
+     * @param timeout Tiempo máximo de espera, o null para esperar sin límite.
+     * @param <T> Tipo del resultado.
+     * @return La consulta con el tiempo máximo aplicado.
+     */
+    private <T> CompletableFuture<T> conTimeout(final CompletableFuture<T> futuro, final Duration timeout) {
+        return timeout != null ? futuro.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS) : futuro;
+    }
+
+    /**
+     * Espera el resultado de una consulta en paralelo y propaga su error original.
+     *
+     * @param futuro La consulta en curso.
+     * @param descripcion Descripción de la consulta para el mensaje de error.
+     * @param <T> Tipo del resultado.
+     * @return El resultado de la consulta.
+     * @throws RuntimeException Si la consulta falla o supera su tiempo máximo.
+     */
+    private <T> T esperar(final CompletableFuture<T> futuro, final String descripcion) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof TimeoutException) {
+                throw new RuntimeException("Se agotó el tiempo de espera para " + descripcion, causa);
+            }
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Error en " + descripcion, causa);
+        }
+    }
+
+    /**
+     * Agrupa las cantidades solicitadas por nombre de producto, conservando el orden de la solicitud.
+     * Si un producto aparece en varias líneas, sus cantidades se suman.
+     *
+     * @param productos Las líneas de la solicitud.
+     * @return Cantidad total solicitada por producto.
+     */
+    static Map<String, Integer> agruparCantidades(final List<ProductoOrdenRequest> productos) {
+        Map<String, Integer> cantidades = new LinkedHashMap<>();
+        for (ProductoOrdenRequest producto : productos) {
+            cantidades.merge(producto.getProducto(), producto.getCantidad(), Integer::sum);
+        }
+        return cantidades;
+    }
+
+    /**
+     * Verifica que todos los productos existan y tengan stock suficiente.
+     * Las cotizaciones recibidas se revisan primero, ya que una cotización en paralelo
+     * se detiene en el primer producto inválido y puede no incluir al resto.
+     *
+     * @param cantidades Cantidad total solicitada por producto.
+     * @param cotizaciones Cotizaciones obtenidas del servicio de productos.
+     * @throws OrdenRechazadaException Si algún producto no existe o no tiene stock suficiente.
+     */
+    static void validarCotizaciones(final Map<String, Integer> cantidades, final Map<String, CotizacionProducto> cotizaciones) {
+        for (Map.Entry<String, Integer> entry : cantidades.entrySet()) {
+            String nombreProducto = entry.getKey();
+            int cantidad = entry.getValue();
+            CotizacionProducto cotizacion = cotizaciones.get(nombreProducto);
+            if (cotizacion == null) {
+                continue;
+            }
+
+            // Verificar que el producto existe
+            if (!cotizacion.isExiste()) {
+                throw new OrdenRechazadaException("El producto '" + nombreProducto + "' no existe");
+            }
+
+            // Verificar stock disponible
+            if (!cotizacion.tieneStockPara(cantidad)) {
+                throw new OrdenRechazadaException("No hay suficiente stock para el producto '" + nombreProducto + "', cantidad solicitada: " + cantidad);
+            }
+        }
+
+        for (String nombreProducto : cantidades.keySet()) {
+            if (!cotizaciones.containsKey(nombreProducto)) {
+                throw new OrdenRechazadaException("El producto '" + nombreProducto + "' no existe");
+            }
+        }
     }
 
     /**
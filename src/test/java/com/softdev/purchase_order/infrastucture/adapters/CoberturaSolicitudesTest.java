@@ -0,0 +1,110 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoberturaSolicitudesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private CoberturaSolicitudes crearCobertura(final double tasaMaxima) {
+        return new CoberturaSolicitudes(registry, "productos", true, 0.95,
+                Duration.ofMillis(20), Duration.ofMillis(1), tasaMaxima);
+    }
+
+    @Test
+    void ejecutar_OriginalLenta_DeberiaUsarLaRespuestaDeLaCobertura() {
+        // Arrange
+        CoberturaSolicitudes cobertura = crearCobertura(0.5);
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act
+        String resultado = cobertura.ejecutar(() -> intentos.incrementAndGet() == 1
+                ? Mono.just("lenta").delayElement(Duration.ofSeconds(5))
+                : Mono.just("rapida")).block(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals("rapida", resultado);
+        assertEquals(2, intentos.get());
+        assertEquals(1, registry.get("productos.cobertura.enviadas").counter().count());
+        assertEquals(1, registry.get("productos.cobertura.ganadas").counter().count());
+    }
+
+    @Test
+    void ejecutar_OriginalRapida_NoDeberiaEnviarCobertura() throws InterruptedException {
+        // Arrange
+        CoberturaSolicitudes cobertura = crearCobertura(0.5);
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act
+        String resultado = cobertura.ejecutar(() -> {
+            intentos.incrementAndGet();
+            return Mono.just("ok");
+        }).block();
+        Thread.sleep(50);
+
+        // Assert
+        assertEquals("ok", resultado);
+        assertEquals(1, intentos.get());
+    }
+
+    @Test
+    void ejecutar_ErrorAntesDelRetraso_DeberiaPropagarseSinCobertura() {
+        // Arrange
+        CoberturaSolicitudes cobertura = crearCobertura(0.5);
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> cobertura.ejecutar(() -> {
+                    intentos.incrementAndGet();
+                    return Mono.<String>error(new IllegalStateException("producto inexistente"));
+                }).block(Duration.ofSeconds(2)));
+
+        // Assert
+        assertEquals("producto inexistente", exception.getMessage());
+        assertEquals(1, intentos.get());
+    }
+
+    @Test
+    void ejecutar_SinPermisos_DeberiaEsperarALaOriginal() {
+        // Arrange: sin aporte por solicitud solo quedan los permisos iniciales
+        CoberturaSolicitudes cobertura = crearCobertura(0);
+        AtomicInteger intentos = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            cobertura.ejecutar(() -> Mono.just("lenta").delayElement(Duration.ofMillis(40))).block();
+        }
+
+        // Act
+        String resultado = cobertura.ejecutar(() -> {
+            intentos.incrementAndGet();
+            return Mono.just("lenta").delayElement(Duration.ofMillis(40));
+        }).block();
+
+        // Assert
+        assertEquals("lenta", resultado);
+        assertEquals(1, intentos.get());
+        assertEquals(10, registry.get("productos.cobertura.enviadas").counter().count());
+    }
+
+    @Test
+    void registrarLatencia_DeberiaUsarElPercentilComoRetraso() {
+        // Arrange
+        CoberturaSolicitudes cobertura = new CoberturaSolicitudes(registry, "productos", true, 0.5,
+                Duration.ofMillis(20), Duration.ofMillis(1), 0.05);
+
+        // Act
+        for (int i = 1; i <= 64; i++) {
+            cobertura.registrarLatencia(Duration.ofMillis(i).toNanos());
+        }
+
+        // Assert
+        assertEquals(Duration.ofMillis(32), cobertura.getRetraso());
+    }
+}
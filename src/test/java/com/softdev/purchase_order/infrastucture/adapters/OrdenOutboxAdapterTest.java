@@ -0,0 +1,58 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.domain.entities.DetalleOrden;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.domain.entities.MetodoPago;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.infrastucture.entities.OrdenOutboxEntity;
+import com.softdev.purchase_order.infrastucture.repositories.OrdenOutboxJpaRepository;
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrdenOutboxAdapterTest {
+
+    private final OrdenOutboxJpaRepository repository = mock(OrdenOutboxJpaRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrdenOutboxAdapter adapter = new OrdenOutboxAdapter(repository, objectMapper);
+
+    @Test
+    void registrarOrdenCreada_DeberiaGuardarElMensajeDeLaOrden() throws Exception {
+        // Arrange
+        Orden orden = new Orden(
+                UUID.randomUUID(),
+                "cliente@correo.com",
+                "Cliente",
+                "12345678",
+                "Calle 1",
+                List.of(new DetalleOrden("Pan", 2, BigDecimal.valueOf(3))),
+                new MetodoPago("VISA", "1234567812345678", "12/30", "123", "Cliente"),
+                BigDecimal.valueOf(6),
+                LocalDateTime.now(),
+                EstadoOrden.CREADA
+        );
+
+        // Act
+        adapter.registrarOrdenCreada(orden);
+
+        // Assert
+        ArgumentCaptor<OrdenOutboxEntity> captor = ArgumentCaptor.forClass(OrdenOutboxEntity.class);
+        verify(repository).save(captor.capture());
+        OrdenOutboxEntity evento = captor.getValue();
+        assertNotNull(evento.getId());
+        assertEquals(orden.getId(), evento.getOrdenId());
+        assertEquals(0, evento.getIntentos());
+        OrdenConDetallesDTO mensaje = objectMapper.readValue(evento.getPayload(), OrdenConDetallesDTO.class);
+        assertEquals(orden.getId().toString(), mensaje.getId());
+        assertEquals("Pan", mensaje.getDetalles().get(0).getNombreProducto());
+    }
+}
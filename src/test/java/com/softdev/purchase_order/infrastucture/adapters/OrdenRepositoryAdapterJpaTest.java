@@ -0,0 +1,230 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import com.softdev.purchase_order.domain.entities.DetalleOrden;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.domain.entities.MetodoPago;
+import com.softdev.purchase_order.domain.entities.Orden;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cuenta las sentencias SQL del guardado, la actualización y la consulta de órdenes contra H2 en memoria.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(OrdenRepositoryAdapter.class)
+class OrdenRepositoryAdapterJpaTest {
+
+    @Autowired
+    private OrdenRepositoryAdapter adapter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void save_OrdenConCincuentaLineas_DeberiaInsertarLosDetallesEnUnLoteSinUpdates() {
+        // Arrange
+        Orden orden = crearOrden(50);
+
+        // Act
+        adapter.save(orden);
+        entityManager.flush();
+
+        // Assert: la orden y sus 50 detalles se insertan con dos sentencias y ningún detalle se
+        // actualiza después para asignarle el ordenId
+        assertEquals(51, estadisticas.getEntityInsertCount());
+        assertEquals(0, estadisticas.getEntityUpdateCount());
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void save_OrdenNueva_NoDeberiaConsultarlaAntesDeInsertar() {
+        // Arrange
+        Orden orden = crearOrden(5);
+
+        // Act
+        adapter.save(orden);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+        assertEquals(6, estadisticas.getEntityInsertCount());
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void actualizar_OrdenGuardada_DeberiaActualizarlaSinInsertarla() {
+        // Arrange
+        Orden orden = crearOrden(2);
+        adapter.save(orden);
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas.clear();
+        Orden confirmada = new Orden(orden.getId(), orden.getEmailCliente(), orden.getNombreCliente(),
+                orden.getDniCliente(), orden.getDireccion(), orden.getDetalles(), orden.getMetodoPago(),
+                orden.getValorTotal(), orden.getFechaPedido(), EstadoOrden.EN_PROCESO);
+
+        // Act
+        adapter.actualizar(confirmada);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(1, estadisticas.getEntityUpdateCount());
+        assertEquals(EstadoOrden.EN_PROCESO, adapter.findById(orden.getId()).orElseThrow().getEstado());
+    }
+
+    @Test
+    void save_DeberiaGuardarLosDetallesConSuOrden() {
+        // Arrange
+        Orden orden = crearOrden(3);
+
+        // Act
+        adapter.save(orden);
+        entityManager.flush();
+        entityManager.clear();
+        Orden guardada = adapter.findById(orden.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(3, guardada.getDetalles().size());
+        for (DetalleOrden detalle : guardada.getDetalles()) {
+            assertEquals(orden.getId().toString(), detalle.getOrdenId());
+        }
+    }
+
+    @Test
+    void findConDetallesById_DeberiaCargarLaOrdenYSusDetallesEnUnaConsulta() {
+        // Arrange
+        Orden orden = crearOrden(10);
+        adapter.save(orden);
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas.clear();
+
+        // Act
+        Orden encontrada = adapter.findConDetallesById(orden.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(10, encontrada.getDetalles().size());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void findVersionById_DeberiaConsultarSoloLaVersionSinCargarLaOrden() {
+        // Arrange
+        Orden orden = crearOrden(10);
+        adapter.save(orden);
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas.clear();
+
+        // Act
+        Long version = adapter.findVersionById(orden.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(0L, version);
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+    }
+
+    @Test
+    void actualizar_DeberiaIncrementarLaVersion() {
+        // Arrange
+        Orden orden = crearOrden(2);
+        adapter.save(orden);
+        entityManager.flush();
+        entityManager.clear();
+        Orden confirmada = new Orden(orden.getId(), orden.getEmailCliente(), orden.getNombreCliente(),
+                orden.getDniCliente(), orden.getDireccion(), orden.getDetalles(), orden.getMetodoPago(),
+                orden.getValorTotal(), orden.getFechaPedido(), EstadoOrden.EN_PROCESO);
+
+        // Act
+        adapter.actualizar(confirmada);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1L, adapter.findVersionById(orden.getId()).orElseThrow());
+    }
+
+    @Test
+    void findConDetallesById_OrdenInexistente_DeberiaRetornarVacio() {
+        assertTrue(adapter.findConDetallesById(UUID.randomUUID()).isEmpty());
+        assertTrue(adapter.findVersionById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void findIdsPendientes_DeberiaDevolverLasPendientesAnterioresALaFechaDeLaMasAntigua() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        Orden reciente = crearOrden(1, EstadoOrden.PENDIENTE, ahora.minusMinutes(1));
+        Orden antigua = crearOrden(1, EstadoOrden.PENDIENTE, ahora.minusHours(2));
+        Orden menosAntigua = crearOrden(1, EstadoOrden.PENDIENTE, ahora.minusHours(1));
+        Orden completada = crearOrden(1, EstadoOrden.CREADA, ahora.minusHours(3));
+        List.of(reciente, antigua, menosAntigua, completada).forEach(adapter::save);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<UUID> pendientes = adapter.findIdsPendientes(ahora.minusMinutes(5), 10);
+        List<UUID> limitadas = adapter.findIdsPendientes(ahora.minusMinutes(5), 1);
+
+        // Assert
+        assertEquals(List.of(antigua.getId(), menosAntigua.getId()), pendientes);
+        assertEquals(List.of(antigua.getId()), limitadas);
+    }
+
+    private Orden crearOrden(final int lineas) {
+        return crearOrden(lineas, EstadoOrden.CREADA, LocalDateTime.now());
+    }
+
+    private Orden crearOrden(final int lineas, final EstadoOrden estado, final LocalDateTime fechaPedido) {
+        List<DetalleOrden> detalles = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            detalles.add(new DetalleOrden("Producto " + i, 2, BigDecimal.valueOf(10.0)));
+        }
+        return new Orden(
+                UUID.randomUUID(),
+                "cliente@test.com",
+                "Cliente",
+                "12345678",
+                "Calle Falsa",
+                detalles,
+                new MetodoPago("VISA", "1234567812345678", "12/30", "123", "Cliente"),
+                BigDecimal.valueOf(20.0 * lineas),
+                fechaPedido,
+                estado
+        );
+    }
+}
@@ -1,11 +1,14 @@
 package com.softdev.purchase_order.infrastucture.adapters;
 
 import com.softdev.purchase_order.domain.entities.*;
+import com.softdev.purchase_order.infrastucture.cache.FacturaCache;
 import com.softdev.purchase_order.infrastucture.entities.MetodoPagoEmbeddable;
 import com.softdev.purchase_order.infrastucture.entities.OrdenEntity;
 import com.softdev.purchase_order.infrastucture.repositories.SpringDataOrdenRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -25,7 +28,7 @@ class OrdenRepositoryAdapterTest {
     @BeforeEach
     void setUp() {
         repository = mock(SpringDataOrdenRepository.class);
-        adapter = new OrdenRepositoryAdapter(repository);
+        adapter = new OrdenRepositoryAdapter(repository, null);
     }
 
     @Test
@@ -76,6 +79,66 @@ void testFindById() {
 }
 
 
+    @Test
+    void actualizar_DeberiaReemplazarLosDatosYLosDetallesDeLaOrdenExistente() {
+        Orden orden = crearOrden();
+        OrdenEntity existente = adapter.mapToEntity(orden);
+        existente.setEstado("PENDIENTE");
+        existente.getDetalles().get(0).setPrecioUnitario(0);
+        when(repository.findById(orden.getId())).thenReturn(Optional.of(existente));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Orden actualizada = adapter.actualizar(orden);
+
+        verify(repository).save(existente);
+        assertEquals(EstadoOrden.CREADA, actualizada.getEstado());
+        assertEquals(1, existente.getDetalles().size());
+        assertEquals(10.0, existente.getDetalles().get(0).getPrecioUnitario());
+    }
+
+    @Test
+    void actualizar_DeberiaInvalidarLaFacturaGuardada() {
+        FacturaCache facturaCache = mock(FacturaCache.class);
+        adapter = new OrdenRepositoryAdapter(repository, facturaCache);
+        Orden orden = crearOrden();
+        when(repository.findById(orden.getId())).thenReturn(Optional.of(adapter.mapToEntity(orden)));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        adapter.actualizar(orden);
+
+        verify(facturaCache).invalidar(orden.getId());
+    }
+
+    @Test
+    void actualizar_EnTransaccion_DeberiaInvalidarLaFacturaDeNuevoAlTerminar() {
+        FacturaCache facturaCache = mock(FacturaCache.class);
+        adapter = new OrdenRepositoryAdapter(repository, facturaCache);
+        Orden orden = crearOrden();
+        when(repository.findById(orden.getId())).thenReturn(Optional.of(adapter.mapToEntity(orden)));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            adapter.actualizar(orden);
+            verify(facturaCache, times(1)).invalidar(orden.getId());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(facturaCache, times(2)).invalidar(orden.getId());
+    }
+
+    @Test
+    void actualizar_OrdenInexistente_DeberiaLanzarExcepcion() {
+        Orden orden = crearOrden();
+        when(repository.findById(orden.getId())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> adapter.actualizar(orden));
+        verify(repository, never()).save(any());
+    }
+
     private Orden crearOrden() {
         return new Orden(
                 UUID.randomUUID(),
@@ -0,0 +1,291 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
+import com.softdev.purchase_order.infrastucture.cache.ProductoCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductoServiceAdapterTest {
+
+    private final List<ClientRequest> solicitudes = new ArrayList<>();
+    private final ProductoCache cache = new ProductoCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100);
+
+    private WebClient crearClientePorRuta(final Map<String, String> respuestasPorRuta) {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    solicitudes.add(request);
+                    String path = request.url().getPath();
+                    String json = respuestasPorRuta.get(path);
+                    if (json == null) {
+                        return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(json)
+                            .build());
+                })
+                .build();
+    }
+
+    private Map<String, String> respuestasIndividuales() {
+        return Map.of(
+                "/producto/existe/Pan", "{\"existe\": true}",
+                "/producto/stock/Pan", "{\"stock\": 10}",
+                "/producto/precio/Pan", "{\"nombre\": \"Pan\", \"precio\": 2.5}",
+                "/producto/existe/Leche", "{\"existe\": true}",
+                "/producto/stock/Leche", "{\"stock\": 1}",
+                "/producto/precio/Leche", "{\"nombre\": \"Leche\", \"precio\": 4}"
+        );
+    }
+
+    private ProductoServiceAdapter crearAdapter(final String respuestaJson) {
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> {
+                    solicitudes.add(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(respuestaJson)
+                            .build());
+                })
+                .build();
+        return new ProductoServiceAdapter(client, cache);
+    }
+
+    private String cuerpoDe(final ClientRequest request) {
+        MockClientHttpRequest mensaje = new MockClientHttpRequest(request.method(), request.url());
+        request.body().insert(mensaje, new BodyInserter.Context() {
+            @Override
+            public List<HttpMessageWriter<?>> messageWriters() {
+                return ExchangeStrategies.withDefaults().messageWriters();
+            }
+
+            @Override
+            public Optional<ServerHttpRequest> serverRequest() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Map<String, Object> hints() {
+                return Map.of();
+            }
+        }).block();
+        return mensaje.getBodyAsString().block();
+    }
+
+    @Test
+    void cotizarProductos_DeberiaHacerUnaSolaLlamada() {
+        // Arrange
+        ProductoServiceAdapter adapter = crearAdapter("""
+                [
+                  {"nombre": "Pan", "existe": true, "stock": 10, "precio": 2.5},
+                  {"nombre": "Leche", "existe": true, "stock": 1, "precio": 4}
+                ]
+                """);
+        Map<String, Integer> cantidades = new LinkedHashMap<>();
+        cantidades.put("Pan", 3);
+        cantidades.put("Leche", 2);
+
+        // Act
+        Map<String, CotizacionProducto> cotizaciones = adapter.cotizarProductos(cantidades);
+
+        // Assert
+        assertEquals(1, solicitudes.size());
+        assertEquals(HttpMethod.POST, solicitudes.get(0).method());
+        assertTrue(solicitudes.get(0).url().toString().endsWith("/producto/cotizar"));
+        assertEquals(new BigDecimal("2.5"), cotizaciones.get("Pan").getPrecioUnitario());
+        assertTrue(cotizaciones.get("Pan").tieneStockPara(3));
+        assertFalse(cotizaciones.get("Leche").tieneStockPara(2));
+    }
+
+    @Test
+    void cotizarProductos_EnLote_DeberiaEnviarSoloLosProductosQueNoEstanEnCache() {
+        // Arrange
+        ProductoServiceAdapter adapter = crearAdapter("""
+                [
+                  {"nombre": "Pan", "existe": true, "stock": 10, "precio": 2.5},
+                  {"nombre": "Huevos", "existe": true, "stock": 30, "precio": 0.5}
+                ]
+                """);
+        adapter.cotizarProductos(Map.of("Pan", 1));
+        solicitudes.clear();
+        Map<String, Integer> cantidades = new LinkedHashMap<>();
+        cantidades.put("Pan", 3);
+        cantidades.put("Huevos", 12);
+
+        // Act
+        Map<String, CotizacionProducto> mixta = adapter.cotizarProductos(cantidades);
+        int llamadasMixta = solicitudes.size();
+        String cuerpoMixta = cuerpoDe(solicitudes.get(0));
+        Map<String, CotizacionProducto> enCache = adapter.cotizarProductos(cantidades);
+
+        // Assert
+        assertEquals(1, llamadasMixta);
+        assertFalse(cuerpoMixta.contains("Pan"));
+        assertTrue(cuerpoMixta.contains("Huevos"));
+        assertEquals(List.of("Pan", "Huevos"), List.copyOf(mixta.keySet()));
+        assertEquals(new BigDecimal("2.5"), mixta.get("Pan").getPrecioUnitario());
+        assertTrue(mixta.get("Pan").tieneStockPara(3));
+        assertEquals(new BigDecimal("0.5"), mixta.get("Huevos").getPrecioUnitario());
+        assertEquals(1, solicitudes.size());
+        assertTrue(enCache.get("Huevos").tieneStockPara(12));
+    }
+
+    @Test
+    void cotizarProductos_ProductoAusenteEnRespuesta_DeberiaMarcarseComoInexistente() {
+        // Arrange
+        ProductoServiceAdapter adapter = crearAdapter("""
+                [{"nombre": "Pan", "existe": true, "stock": 10, "precio": 2.5}]
+                """);
+
+        // Act
+        Map<String, CotizacionProducto> cotizaciones = adapter.cotizarProductos(Map.of("Fantasma", 1));
+
+        // Assert
+        assertEquals(1, cotizaciones.size());
+        assertFalse(cotizaciones.get("Fantasma").isExiste());
+    }
+
+    @Test
+    void cotizarProductos_LoteDeshabilitado_DeberiaConsultarCadaProductoEnParalelo() {
+        // Arrange
+        ProductoServiceAdapter adapter = new ProductoServiceAdapter(crearClientePorRuta(respuestasIndividuales()), cache, false, 4);
+        Map<String, Integer> cantidades = new LinkedHashMap<>();
+        cantidades.put("Pan", 3);
+        cantidades.put("Leche", 1);
+
+        // Act
+        Map<String, CotizacionProducto> cotizaciones = adapter.cotizarProductos(cantidades);
+
+        // Assert
+        assertEquals(List.of("Pan", "Leche"), List.copyOf(cotizaciones.keySet()));
+        assertEquals(6, solicitudes.size());
+        assertTrue(solicitudes.stream().noneMatch(r -> r.url().getPath().endsWith("/cotizar")));
+        assertEquals(new BigDecimal("4"), cotizaciones.get("Leche").getPrecioUnitario());
+        assertTrue(cotizaciones.get("Leche").tieneStockPara(1));
+    }
+
+    @Test
+    void cotizarProductos_SinEndpointDeLote_DeberiaRecurrirAConsultasEnParalelo() {
+        // Arrange
+        ProductoServiceAdapter adapter = new ProductoServiceAdapter(crearClientePorRuta(respuestasIndividuales()), cache, true, 4);
+
+        // Act
+        Map<String, CotizacionProducto> cotizaciones = adapter.cotizarProductos(Map.of("Pan", 3));
+
+        // Assert
+        assertTrue(solicitudes.get(0).url().getPath().endsWith("/cotizar"));
+        assertTrue(cotizaciones.get("Pan").isExiste());
+        assertEquals(10, cotizaciones.get("Pan").getStockDisponible());
+    }
+
+    @Test
+    void cotizarProductos_EnParaleloConStockInsuficiente_DeberiaIncluirLaCotizacionFallida() {
+        // Arrange
+        ProductoServiceAdapter adapter = new ProductoServiceAdapter(crearClientePorRuta(respuestasIndividuales()), cache, false, 1);
+        Map<String, Integer> cantidades = new LinkedHashMap<>();
+        cantidades.put("Leche", 5);
+        cantidades.put("Pan", 1);
+
+        // Act
+        Map<String, CotizacionProducto> cotizaciones = adapter.cotizarProductos(cantidades);
+
+        // Assert
+        assertFalse(cotizaciones.get("Leche").tieneStockPara(5));
+        assertFalse(cotizaciones.containsKey("Pan"));
+    }
+
+    @Test
+    void obtenerPrecio_DeberiaUsarLaCacheEnLlamadasRepetidas() {
+        // Arrange
+        ProductoServiceAdapter adapter = new ProductoServiceAdapter(crearClientePorRuta(respuestasIndividuales()), cache);
+
+        // Act
+        BigDecimal primero = adapter.obtenerPrecio("Pan");
+        BigDecimal segundo = adapter.obtenerPrecio("Pan");
+
+        // Assert
+        assertEquals(primero, segundo);
+        assertEquals(1, solicitudes.size());
+    }
+
+    @Test
+    void cotizarProductos_EnLote_DeberiaAlimentarLaCache() {
+        // Arrange
+        ProductoServiceAdapter adapter = crearAdapter("""
+                [{"nombre": "Pan", "existe": true, "stock": 10, "precio": 2.5}]
+                """);
+
+        // Act
+        adapter.cotizarProductos(Map.of("Pan", 1));
+
+        // Assert
+        assertEquals(new BigDecimal("2.5"), cache.obtenerPrecio("Pan"));
+        assertTrue(cache.existeProducto("Pan"));
+    }
+
+    @Test
+    void reservarStock_DeberiaReservarTodasLasLineasEnUnaSolaLlamada() {
+        // Arrange
+        ProductoServiceAdapter adapter = crearAdapter("{\"idReserva\": \"reserva-1\"}");
+        Map<String, Integer> cantidades = new LinkedHashMap<>();
+        cantidades.put("Pan", 3);
+        cantidades.put("Leche", 2);
+
+        // Act
+        String idReserva = adapter.reservarStock(cantidades);
+
+        // Assert
+        assertEquals("reserva-1", idReserva);
+        assertEquals(1, solicitudes.size());
+        assertEquals(HttpMethod.POST, solicitudes.get(0).method());
+        assertTrue(solicitudes.get(0).url().getPath().endsWith("/producto/stock/reservar"));
+    }
+
+    @Test
+    void reservarStock_SinStock_DeberiaLanzarExcepcion() {
+        // Arrange
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.CONFLICT).build()))
+                .build();
+        ProductoServiceAdapter adapter = new ProductoServiceAdapter(client, cache);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> adapter.reservarStock(Map.of("Pan", 100)));
+        assertTrue(exception.getMessage().contains("No hay suficiente stock"));
+    }
+
+    @Test
+    void liberarReserva_ReservaInexistente_NoDeberiaFallar() {
+        // Arrange
+        ProductoServiceAdapter adapter = new ProductoServiceAdapter(crearClientePorRuta(Map.of()), cache);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> adapter.liberarReserva("reserva-1"));
+        assertEquals(HttpMethod.DELETE, solicitudes.get(0).method());
+        assertTrue(solicitudes.get(0).url().getPath().endsWith("/producto/stock/reservas/reserva-1"));
+    }
+}
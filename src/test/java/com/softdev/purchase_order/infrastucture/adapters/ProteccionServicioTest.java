@@ -0,0 +1,117 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import com.softdev.purchase_order.use_cases.exceptions.ServicioNoDisponibleException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProteccionServicioTest {
+
+    private final CircuitBreakerConfig configCircuito = CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .recordException(new FalloDeServicio())
+            .build();
+
+    @Test
+    void proteger_ErroresDelServidor_DeberianAbrirElCircuitoYRechazarSinLlamar() {
+        // Arrange
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("product-service", configCircuito);
+        ProteccionServicio proteccion = new ProteccionServicio("product-service", circuitBreaker,
+                Bulkhead.ofDefaults("product-service"), null);
+        AtomicInteger llamadas = new AtomicInteger();
+        Mono<String> fallida = Mono.defer(() -> {
+            llamadas.incrementAndGet();
+            return Mono.error(error(HttpStatus.SERVICE_UNAVAILABLE));
+        });
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WebClientResponseException.class, () -> proteccion.proteger(fallida).block());
+        }
+
+        // Act
+        ServicioNoDisponibleException exception = assertThrows(ServicioNoDisponibleException.class,
+                () -> proteccion.proteger(fallida).block());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(4, llamadas.get());
+        assertTrue(exception.getMessage().contains("product-service"));
+    }
+
+    @Test
+    void proteger_ErroresDelCliente_NoDeberianAbrirElCircuito() {
+        // Arrange
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("product-service", configCircuito);
+        ProteccionServicio proteccion = new ProteccionServicio("product-service", circuitBreaker,
+                Bulkhead.ofDefaults("product-service"), null);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThrows(WebClientResponseException.class,
+                    () -> proteccion.proteger(Mono.error(error(HttpStatus.CONFLICT))).block());
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void proteger_BulkheadLleno_DeberiaRechazarDeInmediato() {
+        // Arrange
+        Bulkhead bulkhead = Bulkhead.of("user-service", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        ProteccionServicio proteccion = new ProteccionServicio("user-service",
+                CircuitBreaker.of("user-service", configCircuito), bulkhead, null);
+        Sinks.One<String> respuesta = Sinks.one();
+        proteccion.proteger(respuesta.asMono()).subscribe();
+
+        // Act & Assert
+        ServicioNoDisponibleException exception = assertThrows(ServicioNoDisponibleException.class,
+                () -> proteccion.proteger(Mono.just("otra")).block());
+        assertTrue(exception.getMessage().contains("saturado"));
+
+        respuesta.tryEmitValue("ok");
+        assertEquals("libre", proteccion.proteger(Mono.just("libre")).block());
+    }
+
+    @Test
+    void proteger_LlamadaLenta_DeberiaFallarPorTimeoutYLiberarElBulkhead() {
+        // Arrange
+        Bulkhead bulkhead = Bulkhead.of("user-service", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        ProteccionServicio proteccion = new ProteccionServicio("user-service",
+                CircuitBreaker.of("user-service", configCircuito), bulkhead, Duration.ofMillis(20));
+
+        // Act
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> proteccion.proteger(Mono.never()).block());
+
+        // Assert
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    private WebClientResponseException error(final HttpStatus estado) {
+        return WebClientResponseException.create(estado.value(), estado.getReasonPhrase(),
+                HttpHeaders.EMPTY, new byte[0], null);
+    }
+}
@@ -0,0 +1,65 @@
+package com.softdev.purchase_order.infrastucture.adapters;
+
+import com.softdev.purchase_order.infrastucture.cache.UsuarioCache;
+import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsuarioServiceAdapterTest {
+
+    private final AtomicInteger llamadas = new AtomicInteger();
+
+    private WebClient crearCliente() {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    llamadas.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("""
+                                    {"email": "cliente@correo.com", "nombre": "Cliente", "dni": "123", "direccion": "Calle 1"}
+                                    """)
+                            .build());
+                })
+                .build();
+    }
+
+    @Test
+    void obtenerUsuario_DeberiaUsarLaCacheEnConsultasRepetidas() {
+        // Arrange
+        UsuarioCache cache = new UsuarioCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 10);
+        UsuarioServiceAdapter adapter = new UsuarioServiceAdapter(crearCliente(), cache);
+
+        // Act
+        UsuarioResponse primero = adapter.obtenerUsuario("cliente@correo.com");
+        UsuarioResponse segundo = adapter.obtenerUsuario("cliente@correo.com");
+
+        // Assert
+        assertEquals("Cliente", primero.getNombre());
+        assertSame(primero, segundo);
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void obtenerUsuario_ErrorDelServicio_DeberiaPropagarse() {
+        // Arrange
+        WebClient client = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()))
+                .build();
+        UsuarioCache cache = new UsuarioCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 10);
+        UsuarioServiceAdapter adapter = new UsuarioServiceAdapter(client, cache);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> adapter.obtenerUsuario("cliente@correo.com"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.softdev.purchase_order.infrastucture.async;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitorHilosVirtualesTest {
+
+    @Test
+    void registrar_DeberiaAcumularLaDuracionDeLasFijaciones() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MonitorHilosVirtuales monitor = new MonitorHilosVirtuales(registry, Duration.ofMillis(20));
+
+        // Act
+        monitor.registrar(Duration.ofMillis(30), "com.softdev.purchase_order.Ejemplo.metodo:10");
+        monitor.registrar(Duration.ofMillis(70), "com.softdev.purchase_order.Ejemplo.metodo:10");
+
+        // Assert
+        Timer fijaciones = registry.get("jvm.hilos.virtuales.fijados").timer();
+        assertEquals(2, fijaciones.count());
+        assertEquals(100, fijaciones.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void iniciarYDetener_NoDeberianFallar() {
+        // Arrange
+        MonitorHilosVirtuales monitor = new MonitorHilosVirtuales(new SimpleMeterRegistry(), Duration.ofMillis(20));
+
+        // Act & Assert
+        assertDoesNotThrow(monitor::iniciar);
+        assertDoesNotThrow(monitor::detener);
+    }
+}
@@ -0,0 +1,269 @@
+package com.softdev.purchase_order.infrastucture.async;
+
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.domain.entities.MetodoPago;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
+import com.softdev.purchase_order.domain.repositories.RealizarOrdenPort;
+import com.softdev.purchase_order.infrastucture.security.CredencialServicio;
+import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ProcesadorOrdenesPendientesTest {
+
+    private static final Duration ANTIGUEDAD = Duration.ofMinutes(5);
+    private static final Duration PLAZO_MAXIMO = Duration.ofHours(1);
+
+    private RealizarOrdenPort realizarOrdenPort;
+    private OrdenRepositoryPort ordenRepositoryPort;
+    private CredencialServicio credencialServicio;
+    private SecurityContext contextoServicio;
+    private final RealizarOrdenRequest request = new RealizarOrdenRequest();
+
+    @BeforeEach
+    void setUp() {
+        realizarOrdenPort = mock(RealizarOrdenPort.class);
+        ordenRepositoryPort = mock(OrdenRepositoryPort.class);
+        credencialServicio = mock(CredencialServicio.class);
+        contextoServicio = SecurityContextHolder.createEmptyContext();
+        contextoServicio.setAuthentication(new JwtAuthenticationToken(
+                Jwt.withTokenValue("token-servicio").header("alg", "HS512").subject("purchase-order").build()));
+        when(credencialServicio.crearContexto()).thenReturn(Optional.of(contextoServicio));
+    }
+
+    private ProcesadorOrdenesPendientes crearProcesador(final ExecutorService executor, final int capacidad) {
+        return new ProcesadorOrdenesPendientes(realizarOrdenPort, ordenRepositoryPort, executor, capacidad,
+                ANTIGUEDAD, PLAZO_MAXIMO, credencialServicio);
+    }
+
+    @Test
+    void aceptar_DeberiaGuardarLaOrdenYProcesarlaEnSegundoPlano() throws Exception {
+        Orden pendiente = crearOrdenPendiente();
+        when(realizarOrdenPort.aceptarOrden(request, "cliente@correo.com")).thenReturn(pendiente);
+        CountDownLatch procesada = new CountDownLatch(1);
+        when(realizarOrdenPort.procesarOrdenPendiente(pendiente.getId())).thenAnswer(invocation -> {
+            procesada.countDown();
+            return pendiente;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ProcesadorOrdenesPendientes procesador = crearProcesador(executor, 10);
+
+        Orden orden = procesador.aceptar(request, "cliente@correo.com");
+
+        assertSame(pendiente, orden);
+        assertTrue(procesada.await(5, TimeUnit.SECONDS));
+        procesador.detener();
+        assertEquals(10, procesador.cuposDisponibles());
+    }
+
+    @Test
+    void aceptar_SinCupos_DeberiaRechazarAntesDeGuardar() throws Exception {
+        Orden pendiente = crearOrdenPendiente();
+        when(realizarOrdenPort.aceptarOrden(any(), anyString())).thenReturn(pendiente);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(realizarOrdenPort.procesarOrdenPendiente(any())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return pendiente;
+        });
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newSingleThreadExecutor(), 1);
+
+        procesador.aceptar(request, "cliente@correo.com");
+
+        assertThrows(RejectedExecutionException.class, () -> procesador.aceptar(request, "cliente@correo.com"));
+        verify(realizarOrdenPort, times(1)).aceptarOrden(any(), anyString());
+        liberar.countDown();
+        procesador.detener();
+    }
+
+    @Test
+    void aceptar_ErrorAlGuardar_DeberiaDevolverElCupo() throws Exception {
+        when(realizarOrdenPort.aceptarOrden(any(), anyString())).thenThrow(new RuntimeException("BD caída"));
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newSingleThreadExecutor(), 1);
+
+        assertThrows(RuntimeException.class, () -> procesador.aceptar(request, "cliente@correo.com"));
+
+        assertEquals(1, procesador.cuposDisponibles());
+        procesador.detener();
+    }
+
+    @Test
+    void reprogramarPendientes_DeberiaProgramarLasOrdenesPendientesQueNoEstanEnProceso() throws Exception {
+        // Arrange: una orden aceptada sigue en proceso y otras dos quedaron pendientes de un reinicio
+        Orden enProceso = crearOrdenPendiente();
+        UUID olvidada1 = UUID.randomUUID();
+        UUID olvidada2 = UUID.randomUUID();
+        when(realizarOrdenPort.aceptarOrden(any(), anyString())).thenReturn(enProceso);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch reprogramadas = new CountDownLatch(2);
+        when(realizarOrdenPort.procesarOrdenPendiente(enProceso.getId())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return enProceso;
+        });
+        when(realizarOrdenPort.procesarOrdenPendiente(olvidada1)).thenAnswer(invocation -> {
+            reprogramadas.countDown();
+            return null;
+        });
+        when(realizarOrdenPort.procesarOrdenPendiente(olvidada2)).thenAnswer(invocation -> {
+            reprogramadas.countDown();
+            return null;
+        });
+        when(ordenRepositoryPort.findIdsPendientes(any(), anyInt()))
+                .thenReturn(List.of(enProceso.getId(), olvidada1, olvidada2));
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newFixedThreadPool(3), 10);
+        procesador.aceptar(request, "cliente@correo.com");
+
+        // Act
+        int programadas = procesador.reprogramarPendientes();
+
+        // Assert
+        assertEquals(2, programadas);
+        assertTrue(reprogramadas.await(5, TimeUnit.SECONDS));
+        verify(realizarOrdenPort, times(1)).procesarOrdenPendiente(enProceso.getId());
+        liberar.countDown();
+        procesador.detener();
+        assertEquals(10, procesador.cuposDisponibles());
+    }
+
+    @Test
+    void reprogramarPendientes_SinCupos_NoDeberiaBuscarOrdenes() throws Exception {
+        // Arrange
+        Orden pendiente = crearOrdenPendiente();
+        when(realizarOrdenPort.aceptarOrden(any(), anyString())).thenReturn(pendiente);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(realizarOrdenPort.procesarOrdenPendiente(any())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return pendiente;
+        });
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newSingleThreadExecutor(), 1);
+        procesador.aceptar(request, "cliente@correo.com");
+
+        // Act
+        int programadas = procesador.reprogramarPendientes();
+
+        // Assert
+        assertEquals(0, programadas);
+        verifyNoInteractions(ordenRepositoryPort);
+        liberar.countDown();
+        procesador.detener();
+    }
+
+    @Test
+    void procesar_ErrorTransitorio_DeberiaLiberarLaOrdenParaElSiguienteBarrido() throws Exception {
+        // Arrange
+        UUID pendiente = UUID.randomUUID();
+        CountDownLatch intentos = new CountDownLatch(2);
+        when(realizarOrdenPort.procesarOrdenPendiente(pendiente)).thenAnswer(invocation -> {
+            intentos.countDown();
+            throw new RuntimeException("Servicio de productos no disponible");
+        });
+        when(ordenRepositoryPort.findIdsPendientes(any(), anyInt())).thenReturn(List.of(pendiente));
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newSingleThreadExecutor(), 1);
+
+        // Act
+        procesador.reprogramarPendientes();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (procesador.cuposDisponibles() == 0 && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        procesador.reprogramarPendientes();
+
+        // Assert
+        assertTrue(intentos.await(5, TimeUnit.SECONDS));
+        procesador.detener();
+        assertEquals(1, procesador.cuposDisponibles());
+    }
+
+    @Test
+    void reprogramarPendientes_DeberiaProcesarConElTokenDelServicio() throws Exception {
+        // Arrange
+        UUID pendiente = UUID.randomUUID();
+        AtomicReference<Authentication> autenticacion = new AtomicReference<>();
+        CountDownLatch procesada = new CountDownLatch(1);
+        when(realizarOrdenPort.procesarOrdenPendiente(pendiente)).thenAnswer(invocation -> {
+            autenticacion.set(SecurityContextHolder.getContext().getAuthentication());
+            procesada.countDown();
+            return null;
+        });
+        when(ordenRepositoryPort.findIdsPendientes(any(), anyInt())).thenReturn(List.of(pendiente));
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newSingleThreadExecutor(), 1);
+
+        // Act
+        procesador.reprogramarPendientes();
+
+        // Assert
+        assertTrue(procesada.await(5, TimeUnit.SECONDS));
+        assertSame(contextoServicio.getAuthentication(), autenticacion.get());
+        procesador.detener();
+    }
+
+    @Test
+    void reprogramarPendientes_SinTokenDeServicio_NoDeberiaProgramarOrdenes() throws Exception {
+        // Arrange
+        when(credencialServicio.crearContexto()).thenReturn(Optional.empty());
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newSingleThreadExecutor(), 1);
+
+        // Act
+        int programadas = procesador.reprogramarPendientes();
+
+        // Assert
+        assertEquals(0, programadas);
+        verifyNoInteractions(ordenRepositoryPort);
+        verify(realizarOrdenPort, never()).procesarOrdenPendiente(any());
+        procesador.detener();
+    }
+
+    @Test
+    void rechazarPendientesVencidas_DeberiaRechazarLasOrdenesFueraDelPlazo() throws Exception {
+        // Arrange
+        UUID vencida1 = UUID.randomUUID();
+        UUID vencida2 = UUID.randomUUID();
+        when(ordenRepositoryPort.findIdsPendientes(any(), anyInt())).thenReturn(List.of(vencida1, vencida2));
+        when(realizarOrdenPort.rechazarOrdenPendiente(vencida2)).thenThrow(new RuntimeException("BD caída"));
+        ProcesadorOrdenesPendientes procesador = crearProcesador(Executors.newSingleThreadExecutor(), 1);
+        LocalDateTime limiteAntes = LocalDateTime.now().minus(PLAZO_MAXIMO);
+
+        // Act
+        int rechazadas = procesador.rechazarPendientesVencidas();
+
+        // Assert
+        assertEquals(1, rechazadas);
+        verify(ordenRepositoryPort).findIdsPendientes(
+                argThat(antesDe -> !antesDe.isBefore(limiteAntes) && antesDe.isBefore(LocalDateTime.now().minus(ANTIGUEDAD))),
+                anyInt());
+        verify(realizarOrdenPort).rechazarOrdenPendiente(vencida1);
+        verify(realizarOrdenPort, never()).procesarOrdenPendiente(any());
+        procesador.detener();
+    }
+
+    private Orden crearOrdenPendiente() {
+        return new Orden(UUID.randomUUID(), "cliente@correo.com", null, null, null, List.of(),
+                new MetodoPago("VISA", "1234567812345678", "12/30", "123", "Cliente"),
+                BigDecimal.ZERO, LocalDateTime.now(), EstadoOrden.PENDIENTE);
+    }
+}
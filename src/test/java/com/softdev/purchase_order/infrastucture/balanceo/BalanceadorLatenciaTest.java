@@ -0,0 +1,120 @@
+package com.softdev.purchase_order.infrastucture.balanceo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceadorLatenciaTest {
+
+    private final ServiceInstance rapida = new DefaultServiceInstance("rapida", "product-service", "10.0.0.1", 8080, false);
+    private final ServiceInstance lenta = new DefaultServiceInstance("lenta", "product-service", "10.0.0.2", 8080, false);
+    private final AtomicLong reloj = new AtomicLong(1);
+    private BalanceadorLatencia balanceador;
+
+    @BeforeEach
+    void setUp() {
+        balanceador = crearBalanceador(Duration.ofSeconds(10));
+    }
+
+    private BalanceadorLatencia crearBalanceador(final Duration abandono) {
+        ServiceInstanceListSupplier instancias = ServiceInstanceListSuppliers.from("product-service", rapida, lenta);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("instancias", instancias));
+        return new BalanceadorLatencia("product-service",
+                beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                Duration.ofSeconds(10), abandono, reloj::get);
+    }
+
+    @Test
+    void choose_InstanciaLenta_DeberiaElegirLaRapida() {
+        // Arrange
+        llamar(rapida, Duration.ofMillis(10), CompletionContext.Status.SUCCESS);
+        llamar(lenta, Duration.ofMillis(800), CompletionContext.Status.SUCCESS);
+
+        // Act & Assert
+        for (int i = 0; i < 20; i++) {
+            assertEquals("rapida", elegir());
+        }
+    }
+
+    @Test
+    void choose_InstanciaConSolicitudesEnCurso_DeberiaElegirLaOtra() {
+        // Arrange
+        llamar(rapida, Duration.ofMillis(10), CompletionContext.Status.SUCCESS);
+        llamar(lenta, Duration.ofMillis(20), CompletionContext.Status.SUCCESS);
+        for (int i = 0; i < 3; i++) {
+            balanceador.onStartRequest(new DefaultRequest<>(), new DefaultResponse(rapida));
+        }
+
+        // Act & Assert
+        assertEquals("lenta", elegir());
+    }
+
+    @Test
+    void onComplete_SolicitudFallida_DeberiaPenalizarLaInstancia() {
+        // Arrange
+        llamar(rapida, Duration.ofMillis(1), CompletionContext.Status.FAILED);
+        llamar(lenta, Duration.ofMillis(50), CompletionContext.Status.SUCCESS);
+
+        // Act & Assert
+        assertTrue(balanceador.costo(rapida) > balanceador.costo(lenta));
+        assertEquals("lenta", elegir());
+    }
+
+    @Test
+    void costo_SinRespuestasRecientes_DeberiaDecaer() {
+        // Arrange
+        llamar(lenta, Duration.ofMillis(800), CompletionContext.Status.SUCCESS);
+        double costoInicial = balanceador.costo(lenta);
+
+        // Act
+        reloj.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Assert
+        assertTrue(balanceador.costo(lenta) < costoInicial / 10);
+    }
+
+    @Test
+    void costo_SolicitudCanceladaSinNotificar_DeberiaDejarDeContarseTrasElAbandono() {
+        // Arrange
+        balanceador = crearBalanceador(Duration.ofSeconds(1));
+        llamar(rapida, Duration.ofMillis(10), CompletionContext.Status.SUCCESS);
+        balanceador.onStartRequest(new DefaultRequest<>(), new DefaultResponse(rapida));
+        double costoConSolicitud = balanceador.costo(rapida);
+
+        // Act
+        reloj.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        // Assert
+        assertTrue(balanceador.costo(rapida) < costoConSolicitud / 2);
+    }
+
+    private void llamar(final ServiceInstance instancia, final Duration latencia,
+                        final CompletionContext.Status estado) {
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> respuesta = new DefaultResponse(instancia);
+        balanceador.onStartRequest(request, respuesta);
+        reloj.addAndGet(latencia.toNanos());
+        balanceador.onComplete(new CompletionContext<>(estado, request, respuesta));
+    }
+
+    private String elegir() {
+        Response<ServiceInstance> respuesta = balanceador.choose(new DefaultRequest<>()).block();
+        assertNotNull(respuesta);
+        return respuesta.getServer().getInstanceId();
+    }
+}
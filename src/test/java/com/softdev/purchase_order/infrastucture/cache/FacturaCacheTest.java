@@ -0,0 +1,146 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacturaCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void obtener_DeberiaCargarYSerializarSoloLaPrimeraVez() {
+        FacturaCache cache = new FacturaCache(registry, objectMapper, true, Duration.ofMinutes(1), 10);
+        UUID id = UUID.randomUUID();
+        AtomicInteger cargas = new AtomicInteger();
+
+        byte[] primera = cache.obtener(id, 0, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.of(crearFactura(ordenId));
+        }).orElseThrow();
+        byte[] segunda = cache.obtener(id, 0, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.of(crearFactura(ordenId));
+        }).orElseThrow();
+
+        assertEquals(1, cargas.get());
+        assertSame(primera, segunda);
+        assertTrue(new String(primera, StandardCharsets.UTF_8).contains(id.toString()));
+    }
+
+    @Test
+    void obtener_OrdenInexistente_NoDeberiaGuardarse() {
+        FacturaCache cache = new FacturaCache(registry, objectMapper, true, Duration.ofMinutes(1), 10);
+        UUID id = UUID.randomUUID();
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertTrue(cache.obtener(id, 0, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        cache.obtener(id, 0, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void buscar_DeberiaRetornarLaFacturaGuardadaConSuVersionSinCargarla() {
+        FacturaCache cache = new FacturaCache(registry, objectMapper, true, Duration.ofMinutes(1), 10);
+        UUID id = UUID.randomUUID();
+
+        assertTrue(cache.buscar(id).isEmpty());
+        byte[] json = cache.obtener(id, 3, ordenId -> Optional.of(crearFactura(ordenId))).orElseThrow();
+        FacturaCache.FacturaSerializada guardada = cache.buscar(id).orElseThrow();
+        cache.invalidar(id);
+
+        assertEquals(3, guardada.version());
+        assertSame(json, guardada.json());
+        assertTrue(cache.buscar(id).isEmpty());
+    }
+
+    @Test
+    void invalidar_DeberiaVolverACargarLaFactura() {
+        FacturaCache cache = new FacturaCache(registry, objectMapper, true, Duration.ofMinutes(1), 10);
+        UUID id = UUID.randomUUID();
+        AtomicInteger cargas = new AtomicInteger();
+        cache.obtener(id, 0, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.of(crearFactura(ordenId));
+        });
+
+        cache.invalidar(id);
+        cache.obtener(id, 0, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.of(crearFactura(ordenId));
+        });
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void obtener_VersionPosteriorALaGuardada_DeberiaVolverACargarLaFactura() {
+        FacturaCache cache = new FacturaCache(registry, objectMapper, true, Duration.ofMinutes(1), 10);
+        UUID id = UUID.randomUUID();
+        AtomicInteger cargas = new AtomicInteger();
+        cache.obtener(id, 0, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.of(crearFactura(ordenId));
+        });
+
+        cache.obtener(id, 1, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.of(crearFactura(ordenId));
+        });
+        cache.obtener(id, 1, ordenId -> {
+            cargas.incrementAndGet();
+            return Optional.of(crearFactura(ordenId));
+        });
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void cacheDeshabilitada_DeberiaCargarCadaVez() {
+        FacturaCache cache = new FacturaCache(registry, objectMapper, false, Duration.ofMinutes(1), 10);
+        UUID id = UUID.randomUUID();
+        AtomicInteger cargas = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(cache.obtener(id, 0, ordenId -> {
+                cargas.incrementAndGet();
+                return Optional.of(crearFactura(ordenId));
+            }).isPresent());
+        }
+
+        assertEquals(2, cargas.get());
+        assertTrue(cache.buscar(id).isEmpty());
+    }
+
+    @Test
+    void constructor_DeberiaRegistrarMetricasDeLaCache() {
+        new FacturaCache(registry, objectMapper, true, Duration.ofMinutes(1), 10);
+
+        assertNotNull(registry.find("cache.gets").tag("cache", "facturas").tag("result", "hit").meter());
+        assertNotNull(registry.find("cache.gets").tag("cache", "facturas").tag("result", "miss").meter());
+    }
+
+    private OrdenConDetallesDTO crearFactura(final UUID id) {
+        OrdenConDetallesDTO factura = new OrdenConDetallesDTO();
+        factura.setId(id.toString());
+        factura.setNombreCliente("Cliente");
+        return factura;
+    }
+}
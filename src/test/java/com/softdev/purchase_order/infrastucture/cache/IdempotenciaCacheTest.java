@@ -0,0 +1,198 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.infrastucture.entities.OrdenIdempotenciaEntity;
+import com.softdev.purchase_order.infrastucture.repositories.OrdenIdempotenciaJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotenciaCacheTest {
+
+    private OrdenIdempotenciaJpaRepository repository;
+    private IdempotenciaCache cache;
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OrdenIdempotenciaJpaRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.reservar(anyString(), anyString(), any())).thenReturn(1);
+        cache = new IdempotenciaCache(new SimpleMeterRegistry(), repository, new ObjectMapper(),
+                Duration.ofHours(1), Duration.ofSeconds(5), Duration.ofMinutes(2), 100);
+    }
+
+    private ResponseEntity<?> crearOrden() {
+        ejecuciones.incrementAndGet();
+        return ResponseEntity.status(201).body(Map.of("id", "orden-1"));
+    }
+
+    @Test
+    void ejecutar_Reintento_DeberiaDevolverLaRespuestaGuardadaSinProcesarOtraVez() {
+        ResponseEntity<?> primera = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+        ResponseEntity<?> segunda = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(201, primera.getStatusCode().value());
+        assertEquals(201, segunda.getStatusCode().value());
+        assertEquals("{\"id\":\"orden-1\"}", segunda.getBody());
+        assertEquals("true", segunda.getHeaders().getFirst(IdempotenciaCache.CABECERA_REPETIDA));
+        verify(repository).completar("cliente:clave-1", 201, "{\"id\":\"orden-1\"}");
+    }
+
+    @Test
+    void ejecutar_DuplicadosConcurrentes_DeberianEsperarALaSolicitudEnCurso() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<?>> primera = CompletableFuture.supplyAsync(() ->
+                cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), () -> {
+                    iniciada.countDown();
+                    try {
+                        liberar.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return crearOrden();
+                }));
+        assertTrue(iniciada.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<?>> duplicada = CompletableFuture.supplyAsync(() ->
+                cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden));
+        liberar.countDown();
+
+        assertEquals(201, primera.get(5, TimeUnit.SECONDS).getStatusCode().value());
+        assertEquals(201, duplicada.get(5, TimeUnit.SECONDS).getStatusCode().value());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_MismaClaveConOtraSolicitud_DeberiaRetornarUnprocessableEntity() {
+        cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        ResponseEntity<?> respuesta = cache.ejecutar("cliente:clave-1", Map.of("producto", "Leche"), this::crearOrden);
+
+        assertEquals(422, respuesta.getStatusCode().value());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_RespuestaGuardadaEnBaseDeDatos_DeberiaRepetirla() {
+        cache.ejecutar("otro:clave", Map.of("producto", "Pan"), this::crearOrden);
+        ArgumentCaptor<String> huella = ArgumentCaptor.forClass(String.class);
+        verify(repository).reservar(eq("otro:clave"), huella.capture(), any());
+        OrdenIdempotenciaEntity entidad = new OrdenIdempotenciaEntity();
+        entidad.setClave("cliente:clave-1");
+        entidad.setHuella(huella.getValue());
+        entidad.setEstadoHttp(201);
+        entidad.setRespuesta("{\"id\":\"orden-guardada\"}");
+        entidad.setFechaCreacion(LocalDateTime.now());
+        when(repository.findById("cliente:clave-1")).thenReturn(Optional.of(entidad));
+
+        ResponseEntity<?> respuesta = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(201, respuesta.getStatusCode().value());
+        assertEquals("{\"id\":\"orden-guardada\"}", respuesta.getBody());
+    }
+
+    @Test
+    void ejecutar_SolicitudEnCursoEnOtraInstancia_DeberiaRetornarConflict() {
+        when(repository.reservar(eq("cliente:clave-1"), anyString(), any())).thenReturn(0);
+
+        ResponseEntity<?> respuesta = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        assertEquals(409, respuesta.getStatusCode().value());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_ReservaAbandonadaTrasUnaCaida_DeberiaReclamarseYProcesarse() {
+        // La primera instancia reserva la clave y no puede liberarla tras fallar
+        ArgumentCaptor<String> huella = ArgumentCaptor.forClass(String.class);
+        doThrow(new IllegalStateException("Base de datos no disponible")).when(repository).deleteById("cliente:clave-1");
+        assertThrows(IllegalStateException.class, () -> cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), () -> {
+            throw new IllegalStateException("Caída");
+        }));
+        verify(repository).reservar(eq("cliente:clave-1"), huella.capture(), any());
+        when(repository.findById("cliente:clave-1"))
+                .thenReturn(Optional.of(enProceso(huella.getValue(), LocalDateTime.now().minusMinutes(10))));
+        when(repository.reclamar(eq("cliente:clave-1"), eq(huella.getValue()), any(), any())).thenReturn(1);
+
+        ResponseEntity<?> reintento = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        assertEquals(201, reintento.getStatusCode().value());
+        assertEquals(1, ejecuciones.get());
+        verify(repository).completar("cliente:clave-1", 201, "{\"id\":\"orden-1\"}");
+    }
+
+    @Test
+    void ejecutar_ReservaVigenteEnBaseDeDatos_DeberiaRetornarConflictSinReclamarla() {
+        ArgumentCaptor<String> huella = ArgumentCaptor.forClass(String.class);
+        cache.ejecutar("cliente:otra", Map.of("producto", "Pan"), this::crearOrden);
+        verify(repository).reservar(eq("cliente:otra"), huella.capture(), any());
+        when(repository.findById("cliente:clave-1"))
+                .thenReturn(Optional.of(enProceso(huella.getValue(), LocalDateTime.now())));
+
+        ResponseEntity<?> respuesta = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        assertEquals(409, respuesta.getStatusCode().value());
+        assertEquals(1, ejecuciones.get());
+        verify(repository, never()).reclamar(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void ejecutar_ReservaAbandonadaReclamadaPorOtraInstancia_DeberiaRetornarConflict() {
+        ArgumentCaptor<String> huella = ArgumentCaptor.forClass(String.class);
+        cache.ejecutar("cliente:otra", Map.of("producto", "Pan"), this::crearOrden);
+        verify(repository).reservar(eq("cliente:otra"), huella.capture(), any());
+        when(repository.findById("cliente:clave-1"))
+                .thenReturn(Optional.of(enProceso(huella.getValue(), LocalDateTime.now().minusMinutes(10))));
+        when(repository.reclamar(anyString(), anyString(), any(), any())).thenReturn(0);
+
+        ResponseEntity<?> respuesta = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        assertEquals(409, respuesta.getStatusCode().value());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    private OrdenIdempotenciaEntity enProceso(final String huella, final LocalDateTime fechaReserva) {
+        OrdenIdempotenciaEntity entidad = new OrdenIdempotenciaEntity();
+        entidad.setClave("cliente:clave-1");
+        entidad.setHuella(huella);
+        entidad.setFechaCreacion(fechaReserva);
+        entidad.setFechaReserva(fechaReserva);
+        return entidad;
+    }
+
+    @Test
+    void ejecutar_RespuestaDeError_NoDeberiaGuardarseParaPermitirReintentos() {
+        cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), () -> {
+            ejecuciones.incrementAndGet();
+            return ResponseEntity.internalServerError().body(Map.of("error", "Error interno"));
+        });
+        ResponseEntity<?> reintento = cache.ejecutar("cliente:clave-1", Map.of("producto", "Pan"), this::crearOrden);
+
+        assertEquals(2, ejecuciones.get());
+        assertEquals(201, reintento.getStatusCode().value());
+        verify(repository).deleteById("cliente:clave-1");
+        verify(repository, times(1)).completar(anyString(), anyInt(), anyString());
+    }
+}
@@ -0,0 +1,66 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductoCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void guardarPrecio_DeberiaDevolverElPrecioGuardado() {
+        ProductoCache cache = new ProductoCache(registry, true, Duration.ofMinutes(1), 10);
+
+        cache.guardarPrecio("Pan", BigDecimal.TEN);
+
+        assertEquals(BigDecimal.TEN, cache.obtenerPrecio("Pan"));
+        assertNull(cache.obtenerPrecio("Leche"));
+    }
+
+    @Test
+    void guardarExistencia_SoloDeberiaGuardarRespuestasPositivas() {
+        ProductoCache cache = new ProductoCache(registry, true, Duration.ofMinutes(1), 10);
+
+        cache.guardarExistencia("Pan", true);
+        cache.guardarExistencia("Fantasma", false);
+
+        assertTrue(cache.existeProducto("Pan"));
+        assertFalse(cache.existeProducto("Fantasma"));
+    }
+
+    @Test
+    void invalidar_DeberiaEliminarPrecioYExistencia() {
+        ProductoCache cache = new ProductoCache(registry, true, Duration.ofMinutes(1), 10);
+        cache.guardarPrecio("Pan", BigDecimal.TEN);
+        cache.guardarExistencia("Pan", true);
+
+        cache.invalidar("Pan");
+
+        assertNull(cache.obtenerPrecio("Pan"));
+        assertFalse(cache.existeProducto("Pan"));
+    }
+
+    @Test
+    void cacheDeshabilitada_NoDeberiaGuardarNada() {
+        ProductoCache cache = new ProductoCache(registry, false, Duration.ofMinutes(1), 10);
+
+        cache.guardarPrecio("Pan", BigDecimal.TEN);
+        cache.guardarExistencia("Pan", true);
+
+        assertNull(cache.obtenerPrecio("Pan"));
+        assertFalse(cache.existeProducto("Pan"));
+    }
+
+    @Test
+    void constructor_DeberiaRegistrarMetricasDeLaCache() {
+        new ProductoCache(registry, true, Duration.ofMinutes(1), 10);
+
+        assertNotNull(registry.find("cache.gets").tag("cache", "productos.precios").meter());
+        assertNotNull(registry.find("cache.evictions").tag("cache", "productos.existencia").meter());
+    }
+}
@@ -0,0 +1,74 @@
+package com.softdev.purchase_order.infrastucture.cache;
+
+import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsuarioCacheTest {
+
+    private final UsuarioResponse usuario = new UsuarioResponse("cliente@correo.com", "Cliente", "123", "Calle 1");
+
+    @Test
+    void obtener_ConsultasConcurrentes_DeberianCompartirLaMismaCarga() {
+        UsuarioCache cache = new UsuarioCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 10);
+        AtomicInteger cargas = new AtomicInteger();
+        CompletableFuture<UsuarioResponse> enCurso = new CompletableFuture<>();
+
+        CompletableFuture<UsuarioResponse> primera = cache.obtener("cliente@correo.com", e -> {
+            cargas.incrementAndGet();
+            return enCurso;
+        });
+        CompletableFuture<UsuarioResponse> segunda = cache.obtener("cliente@correo.com", e -> {
+            cargas.incrementAndGet();
+            return CompletableFuture.completedFuture(usuario);
+        });
+        enCurso.complete(usuario);
+
+        assertEquals(1, cargas.get());
+        assertSame(usuario, primera.join());
+        assertSame(usuario, segunda.join());
+    }
+
+    @Test
+    void obtener_CargaFallida_NoDeberiaGuardarse() {
+        UsuarioCache cache = new UsuarioCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 10);
+        AtomicInteger cargas = new AtomicInteger();
+
+        CompletableFuture<UsuarioResponse> fallida = cache.obtener("cliente@correo.com", e -> {
+            cargas.incrementAndGet();
+            return CompletableFuture.failedFuture(new RuntimeException("user-service caído"));
+        });
+        assertTrue(fallida.isCompletedExceptionally());
+
+        UsuarioResponse resultado = cache.obtener("cliente@correo.com", e -> {
+            cargas.incrementAndGet();
+            return CompletableFuture.completedFuture(usuario);
+        }).join();
+
+        assertEquals(2, cargas.get());
+        assertSame(usuario, resultado);
+    }
+
+    @Test
+    void obtener_CacheDeshabilitada_DeberiaCargarSiempre() {
+        UsuarioCache cache = new UsuarioCache(new SimpleMeterRegistry(), false, Duration.ofMinutes(1), 10);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener("cliente@correo.com", e -> {
+            cargas.incrementAndGet();
+            return CompletableFuture.completedFuture(usuario);
+        }).join();
+        cache.obtener("cliente@correo.com", e -> {
+            cargas.incrementAndGet();
+            return CompletableFuture.completedFuture(usuario);
+        }).join();
+
+        assertEquals(2, cargas.get());
+    }
+}
@@ -1,13 +1,26 @@
 package com.softdev.purchase_order.infrastucture.config;
 
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
 import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
 import com.softdev.purchase_order.domain.repositories.ProductoServicePort;
+import com.softdev.purchase_order.domain.repositories.ProductoServiceReactivoPort;
 import com.softdev.purchase_order.domain.repositories.RealizarOrdenPort;
+import com.softdev.purchase_order.domain.repositories.RealizarOrdenReactivoPort;
 import com.softdev.purchase_order.domain.repositories.UsuarioServicePort;
+import com.softdev.purchase_order.domain.repositories.UsuarioServiceReactivoPort;
+import com.softdev.purchase_order.infrastucture.adapters.CoberturaSolicitudes;
 import com.softdev.purchase_order.infrastucture.messaging.OrdenPublisherService;
+import com.softdev.purchase_order.use_cases.service.RealizarOrdenReactivoService;
 import com.softdev.purchase_order.use_cases.service.RealizarOrdenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,14 +31,44 @@ class BeanConfigurationTest {
 
     @Test
     void testWebClientBuilderNotNull() {
-        assertNotNull(config.webClientBuilder());
+        assertNotNull(config.webClientBuilder(Duration.ofSeconds(2), Duration.ofSeconds(5)));
     }
 
     @Test
     void testWebClientNotNull() {
-        WebClient.Builder builder = config.webClientBuilder();
-        WebClient client = config.webClient(builder);
-        assertNotNull(client);
+        MockEnvironment environment = new MockEnvironment().withProperty("servicios.http.product-service.http2", "true");
+        WebClient.Builder builder = config.webClientBuilder(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        ConnectionProvider conexiones = config.conexionesProductos(environment);
+        try {
+            WebClient client = config.productoWebClient(builder, conexiones, environment,
+                    Duration.ofSeconds(2), Duration.ofSeconds(5));
+            assertNotNull(client);
+        } finally {
+            conexiones.dispose();
+        }
+    }
+
+    @Test
+    void testConexionesPorServicio() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("servicios.http.product-service.max-conexiones", "64")
+                .withProperty("servicios.http.user-service.max-conexiones", "16");
+        ConnectionProvider productos = config.conexionesProductos(environment);
+        ConnectionProvider usuarios = config.conexionesUsuarios(environment);
+        try {
+            assertEquals(64, productos.maxConnections());
+            assertEquals(16, usuarios.maxConnections());
+        } finally {
+            productos.dispose();
+            usuarios.dispose();
+        }
+    }
+
+    @Test
+    void testCoberturaProductos() {
+        CoberturaSolicitudes cobertura = config.coberturaProductos(new SimpleMeterRegistry(), true, 0.95,
+                Duration.ofMillis(50), Duration.ofMillis(5), 0.05);
+        assertEquals(Duration.ofMillis(50), cobertura.getRetraso());
     }
 
     @Test
@@ -34,12 +77,31 @@ class BeanConfigurationTest {
         ProductoServicePort productoService = mock(ProductoServicePort.class);
         UsuarioServicePort usuarioService = mock(UsuarioServicePort.class);
         OrdenPublisherService publisherService = mock(OrdenPublisherService.class);
+        OrdenOutboxPort outboxPort = mock(OrdenOutboxPort.class);
 
         RealizarOrdenPort useCase = config.realizarOrdenUseCase(
-                ordenRepo, productoService, usuarioService, publisherService
+                ordenRepo, productoService, usuarioService, publisherService, outboxPort,
+                mock(PlatformTransactionManager.class), Duration.ofSeconds(5), Duration.ofSeconds(10)
         );
 
         assertNotNull(useCase);
         assertTrue(useCase instanceof RealizarOrdenService);
     }
+
+    @Test
+    void testRealizarOrdenReactivoUseCase() {
+        Scheduler scheduler = config.persistenciaOrdenesScheduler(2, 10);
+        try {
+            RealizarOrdenReactivoPort useCase = config.realizarOrdenReactivoUseCase(
+                    mock(OrdenRepositoryPort.class), mock(ProductoServiceReactivoPort.class),
+                    mock(UsuarioServiceReactivoPort.class), mock(OrdenOutboxPort.class),
+                    mock(PlatformTransactionManager.class), scheduler,
+                    Duration.ofSeconds(5), Duration.ofSeconds(10)
+            );
+
+            assertTrue(useCase instanceof RealizarOrdenReactivoService);
+        } finally {
+            scheduler.dispose();
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.softdev.purchase_order.infrastucture.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolConexionesServicioTest {
+
+    @Test
+    void desde_SinPropiedades_DeberiaUsarLosValoresPorDefecto() {
+        // Act
+        PoolConexionesServicio pool = PoolConexionesServicio.desde(new MockEnvironment(), "user-service");
+
+        // Assert
+        assertEquals("user-service", pool.servicio());
+        assertEquals(50, pool.maxConexiones());
+        assertEquals(100, pool.maxPendientes());
+        assertEquals(Duration.ofMillis(500), pool.tiempoMaxPendiente());
+        assertEquals(Duration.ofSeconds(30), pool.maxInactividad());
+        assertFalse(pool.http2());
+    }
+
+    @Test
+    void desde_ConPropiedades_DeberiaLeerLasDelServicio() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("servicios.http.product-service.max-conexiones", "64")
+                .withProperty("servicios.http.product-service.max-pendientes", "128")
+                .withProperty("servicios.http.product-service.tiempo-max-pendiente", "200ms")
+                .withProperty("servicios.http.product-service.max-vida", "2m")
+                .withProperty("servicios.http.product-service.http2", "true")
+                .withProperty("servicios.http.user-service.max-conexiones", "8");
+
+        // Act
+        PoolConexionesServicio pool = PoolConexionesServicio.desde(environment, "product-service");
+
+        // Assert
+        assertEquals(64, pool.maxConexiones());
+        assertEquals(128, pool.maxPendientes());
+        assertEquals(Duration.ofMillis(200), pool.tiempoMaxPendiente());
+        assertEquals(Duration.ofMinutes(2), pool.maxVida());
+        assertTrue(pool.http2());
+    }
+
+    @Test
+    void crearPool_DeberiaLimitarLasConexiones() {
+        // Arrange
+        PoolConexionesServicio pool = new PoolConexionesServicio("product-service", 12, 24, Duration.ofMillis(100),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30), false);
+
+        // Act
+        ConnectionProvider conexiones = pool.crearPool();
+
+        // Assert
+        try {
+            assertEquals(12, conexiones.maxConnections());
+        } finally {
+            conexiones.dispose();
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.softdev.purchase_order.infrastucture.config;
 
+import com.softdev.purchase_order.infrastucture.security.JwtDecoderEnCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,10 +29,16 @@ class SecurityConfigTest {
 
     @Test
     void testJwtDecoderNotNull() {
-        JwtDecoder decoder = securityConfig.jwtDecoder();
+        JwtDecoder decoder = securityConfig.jwtDecoder(new SimpleMeterRegistry(), false, Duration.ofMinutes(5), 100);
         assertNotNull(decoder);
     }
 
+    @Test
+    void testJwtDecoderConCache() {
+        JwtDecoder decoder = securityConfig.jwtDecoder(new SimpleMeterRegistry(), true, Duration.ofMinutes(5), 100);
+        assertTrue(decoder instanceof JwtDecoderEnCache);
+    }
+
     @Test
     void testJwtAuthenticationConverterNotNull() {
         assertNotNull(securityConfig.jwtAuthenticationConverter());
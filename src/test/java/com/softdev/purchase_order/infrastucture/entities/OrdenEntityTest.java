@@ -46,6 +46,17 @@ class OrdenEntityTest {
         assertNotNull(orden.getId());
     }
 
+    @Test
+    void testIsNewHastaGuardarOCargar() {
+        OrdenEntity orden = new OrdenEntity();
+        orden.setId(UUID.randomUUID());
+        assertTrue(orden.isNew());
+
+        orden.marcarExistente();
+
+        assertFalse(orden.isNew());
+    }
+
     @Test
     void testAddDetalle() {
         OrdenEntity orden = new OrdenEntity();
@@ -56,5 +67,6 @@ class OrdenEntityTest {
 
         assertEquals(1, orden.getDetalles().size());
         assertEquals("Producto Test", orden.getDetalles().get(0).getNombreProducto());
+        assertSame(orden, detalle.getOrden());
     }
 }
@@ -0,0 +1,78 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborMessageConverterTest {
+
+    private final CborMessageConverter converter = new CborMessageConverter("com.softdev.purchase_order.use_cases.dto.response");
+
+    private OrdenConDetallesDTO crearOrden(final int lineas) {
+        OrdenConDetallesDTO orden = new OrdenConDetallesDTO();
+        orden.setId("orden-1");
+        orden.setEmailCliente("cliente@correo.com");
+        List<OrdenConDetallesDTO.DetalleFacturaDTO> detalles = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            OrdenConDetallesDTO.DetalleFacturaDTO detalle = new OrdenConDetallesDTO.DetalleFacturaDTO();
+            detalle.setNombreProducto("Producto " + i);
+            detalle.setCantidad(i + 1);
+            detalle.setPrecioUnitario(2.5);
+            detalle.setSubtotal(2.5 * (i + 1));
+            detalles.add(detalle);
+        }
+        orden.setDetalles(detalles);
+        return orden;
+    }
+
+    @Test
+    void toMessage_DeberiaSerializarEnCborYRecuperarLaOrden() {
+        // Arrange
+        OrdenConDetallesDTO orden = crearOrden(3);
+
+        // Act
+        Message message = converter.toMessage(orden, new MessageProperties());
+        Object leido = converter.fromMessage(message);
+
+        // Assert
+        assertEquals(CborMessageConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(orden, leido);
+    }
+
+    @Test
+    void toMessage_DeberiaSerMasCompactoQueJson() {
+        // Arrange
+        OrdenConDetallesDTO orden = crearOrden(50);
+
+        // Act
+        int tamanoCbor = converter.toMessage(orden, new MessageProperties()).getBody().length;
+        int tamanoJson = new Jackson2JsonMessageConverter().toMessage(orden, new MessageProperties()).getBody().length;
+
+        // Assert
+        assertTrue(tamanoCbor < tamanoJson);
+    }
+
+    @Test
+    void messageConverter_DeberiaLeerCadaMensajeSegunSuContentType() {
+        // Arrange
+        MessageConverter delegante = new RabbitMQConfig().messageConverter("json");
+        OrdenConDetallesDTO orden = crearOrden(1);
+        Message cbor = converter.toMessage(orden, new MessageProperties());
+
+        // Act
+        Message json = delegante.toMessage(orden, new MessageProperties());
+
+        // Assert
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, json.getMessageProperties().getContentType());
+        assertEquals(orden, delegante.fromMessage(cbor));
+        assertEquals(orden, delegante.fromMessage(json));
+    }
+}
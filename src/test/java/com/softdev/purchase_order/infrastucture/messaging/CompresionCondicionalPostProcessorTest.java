@@ -0,0 +1,60 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompresionCondicionalPostProcessorTest {
+
+    private Message crearMensaje(final int tamano) {
+        return new Message("a".repeat(tamano).getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+
+    @Test
+    void postProcessMessage_BajoElUmbral_NoDeberiaComprimir() {
+        // Arrange
+        CompresionCondicionalPostProcessor compresion = new CompresionCondicionalPostProcessor(1024);
+        Message mensaje = crearMensaje(100);
+
+        // Act
+        Message resultado = compresion.postProcessMessage(mensaje);
+
+        // Assert
+        assertSame(mensaje, resultado);
+        assertNull(resultado.getMessageProperties().getContentEncoding());
+    }
+
+    @Test
+    void postProcessMessage_SobreElUmbral_DeberiaComprimirYPoderDescomprimirse() {
+        // Arrange
+        CompresionCondicionalPostProcessor compresion = new CompresionCondicionalPostProcessor(1024);
+        Message mensaje = crearMensaje(10_000);
+
+        // Act
+        Message comprimido = compresion.postProcessMessage(mensaje);
+        String contentEncoding = comprimido.getMessageProperties().getContentEncoding();
+        int tamanoComprimido = comprimido.getBody().length;
+        // El descompresor reutiliza las propiedades del mensaje y borra su content-encoding
+        Message descomprimido = new DelegatingDecompressingPostProcessor().postProcessMessage(comprimido);
+
+        // Assert
+        assertTrue(contentEncoding.startsWith("gzip"));
+        assertTrue(tamanoComprimido < 10_000);
+        assertEquals(10_000, descomprimido.getBody().length);
+    }
+
+    @Test
+    void postProcessMessage_UmbralCero_NoDeberiaComprimir() {
+        // Arrange
+        CompresionCondicionalPostProcessor compresion = new CompresionCondicionalPostProcessor(0);
+        Message mensaje = crearMensaje(10_000);
+
+        // Act & Assert
+        assertSame(mensaje, compresion.postProcessMessage(mensaje));
+    }
+}
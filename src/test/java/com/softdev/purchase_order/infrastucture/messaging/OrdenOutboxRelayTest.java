@@ -0,0 +1,155 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softdev.purchase_order.infrastucture.entities.OrdenOutboxEntity;
+import com.softdev.purchase_order.infrastucture.repositories.OrdenOutboxJpaRepository;
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrdenOutboxRelayTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    private final OrdenOutboxJpaRepository repository = mock(OrdenOutboxJpaRepository.class);
+    private final OrdenPublisherService publisher = mock(OrdenPublisherService.class);
+    private final OrdenOutboxRelay relay = crearRelay(null);
+
+    @SuppressWarnings("unchecked")
+    private OrdenOutboxRelay crearRelay(final OrdenPublicadorPipeline pipeline) {
+        ObjectProvider<OrdenPublicadorPipeline> pipelineProvider = mock(ObjectProvider.class);
+        when(pipelineProvider.getIfAvailable()).thenReturn(pipeline);
+        return new OrdenOutboxRelay(repository, publisher, pipelineProvider, new ObjectMapper(), 10, 3, TIMEOUT);
+    }
+
+    private OrdenOutboxEntity crearEvento(final String payload) {
+        OrdenOutboxEntity evento = new OrdenOutboxEntity();
+        evento.setId(UUID.randomUUID());
+        evento.setOrdenId(UUID.randomUUID());
+        evento.setPayload(payload);
+        evento.setFechaCreacion(LocalDateTime.now());
+        return evento;
+    }
+
+    @Test
+    void publicarPendientes_DeberiaPublicarYEliminarElLote() {
+        // Arrange
+        OrdenOutboxEntity primero = crearEvento("{\"id\": \"1\"}");
+        OrdenOutboxEntity segundo = crearEvento("{\"id\": \"2\"}");
+        when(repository.findSiguienteLote(3, PageRequest.of(0, 10))).thenReturn(List.of(primero, segundo));
+
+        // Act
+        int publicados = relay.publicarPendientes();
+
+        // Assert
+        assertEquals(2, publicados);
+        verify(publisher, times(2)).publicarOrdenConfirmada(any(OrdenConDetallesDTO.class), eq(TIMEOUT));
+        verify(repository).delete(primero);
+        verify(repository).delete(segundo);
+    }
+
+    @Test
+    void publicarPendientes_ErrorAlPublicar_DeberiaDetenerElLoteYConservarElEvento() {
+        // Arrange
+        OrdenOutboxEntity primero = crearEvento("{\"id\": \"1\"}");
+        OrdenOutboxEntity segundo = crearEvento("{\"id\": \"2\"}");
+        when(repository.findSiguienteLote(anyInt(), any())).thenReturn(List.of(primero, segundo));
+        doThrow(new RuntimeException("Broker no disponible")).when(publisher).publicarOrdenConfirmada(any(), any());
+
+        // Act
+        int publicados = relay.publicarPendientes();
+
+        // Assert
+        assertEquals(0, publicados);
+        assertEquals(1, primero.getIntentos());
+        verify(publisher, times(1)).publicarOrdenConfirmada(any(), any());
+        verify(repository, never()).delete(any());
+    }
+
+    @Test
+    void publicarPendientes_SinConfirmacionDelBroker_NoDeberiaEliminarElEvento() {
+        // Arrange
+        OrdenOutboxEntity evento = crearEvento("{\"id\": \"1\"}");
+        when(repository.findSiguienteLote(anyInt(), any())).thenReturn(List.of(evento));
+        doThrow(new RuntimeException("Sin confirmación de RabbitMQ")).when(publisher).publicarOrdenConfirmada(any(), any());
+
+        // Act
+        int publicados = relay.publicarPendientes();
+
+        // Assert
+        assertEquals(0, publicados);
+        assertEquals(1, evento.getIntentos());
+        verify(repository, never()).delete(any());
+        verify(publisher, never()).publicarOrden(any());
+    }
+
+    @Test
+    void publicarPendientes_UltimoIntentoFallido_DeberiaDejarElEventoComoMensajeMuerto() {
+        // Arrange
+        OrdenOutboxEntity evento = crearEvento("{\"id\": \"1\"}");
+        evento.setIntentos(2);
+        when(repository.findSiguienteLote(anyInt(), any())).thenReturn(List.of(evento));
+        doThrow(new RuntimeException("nack")).when(publisher).publicarOrdenConfirmada(any(), any());
+
+        // Act
+        relay.publicarPendientes();
+
+        // Assert: el siguiente lote ya no lo devuelve porque se consulta con intentos < 3
+        assertEquals(3, evento.getIntentos());
+        verify(repository).findSiguienteLote(3, PageRequest.of(0, 10));
+        verify(repository, never()).delete(any());
+    }
+
+    @Test
+    void publicarPendientes_EventoIlegible_DeberiaQuedarComoMensajeMuertoYSeguir() {
+        // Arrange
+        OrdenOutboxEntity ilegible = crearEvento("no es json");
+        OrdenOutboxEntity valido = crearEvento("{\"id\": \"2\"}");
+        when(repository.findSiguienteLote(anyInt(), any())).thenReturn(List.of(ilegible, valido));
+
+        // Act
+        int publicados = relay.publicarPendientes();
+
+        // Assert
+        assertEquals(1, publicados);
+        assertEquals(3, ilegible.getIntentos());
+        verify(repository).delete(valido);
+        verify(repository, never()).delete(ilegible);
+    }
+
+    @Test
+    void publicarPendientes_EnPipeline_DeberiaEliminarSoloLosEventosConfirmados() {
+        // Arrange
+        OrdenPublicadorPipeline pipeline = mock(OrdenPublicadorPipeline.class);
+        OrdenOutboxRelay relayPipeline = crearRelay(pipeline);
+        OrdenOutboxEntity confirmado = crearEvento("{\"id\": \"1\"}");
+        OrdenOutboxEntity rechazado = crearEvento("{\"id\": \"2\"}");
+        when(repository.findSiguienteLote(anyInt(), any())).thenReturn(List.of(confirmado, rechazado));
+        when(pipeline.publicarOrden(any())).thenReturn(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new RuntimeException("nack")));
+
+        // Act
+        int publicados = relayPipeline.publicarPendientes();
+
+        // Assert
+        assertEquals(1, publicados);
+        verify(repository).delete(confirmado);
+        verify(repository, never()).delete(rechazado);
+        assertEquals(1, rechazado.getIntentos());
+        verifyNoInteractions(publisher);
+    }
+}
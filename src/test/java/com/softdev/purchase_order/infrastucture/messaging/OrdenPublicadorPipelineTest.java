@@ -0,0 +1,98 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrdenPublicadorPipelineTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final List<CorrelationData> enviados = new CopyOnWriteArrayList<>();
+
+    private OrdenPublicadorPipeline crearPublicador(final int ventana) {
+        return crearPublicador(ventana, Duration.ofMillis(200));
+    }
+
+    private OrdenPublicadorPipeline crearPublicador(final int ventana, final Duration timeout) {
+        doAnswer(invocation -> {
+            enviados.add(invocation.getArgument(3));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.ROUTING_KEY),
+                any(Object.class), any(CorrelationData.class));
+        return new OrdenPublicadorPipeline(rabbitTemplate, ventana, timeout);
+    }
+
+    private OrdenConDetallesDTO crearOrden(final String id) {
+        OrdenConDetallesDTO orden = new OrdenConDetallesDTO();
+        orden.setId(id);
+        return orden;
+    }
+
+    @Test
+    void publicarOrden_DeberiaEnviarSinEsperarLaConfirmacion() {
+        // Arrange
+        OrdenPublicadorPipeline publicador = crearPublicador(10);
+
+        // Act
+        CompletableFuture<Void> primero = publicador.publicarOrden(crearOrden("1"));
+        CompletableFuture<Void> segundo = publicador.publicarOrden(crearOrden("2"));
+
+        // Assert
+        assertEquals(2, enviados.size());
+        assertFalse(primero.isDone());
+        assertEquals(8, publicador.espaciosDisponibles());
+
+        enviados.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        enviados.get(1).getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+        assertDoesNotThrow(primero::join);
+        assertThrows(CompletionException.class, segundo::join);
+        assertEquals(10, publicador.espaciosDisponibles());
+    }
+
+    @Test
+    void publicarOrden_VentanaLlena_DeberiaEsperarLaConfirmacionPendiente() {
+        // Arrange
+        OrdenPublicadorPipeline publicador = crearPublicador(1, Duration.ofSeconds(10));
+        CompletableFuture<Void> primero = publicador.publicarOrden(crearOrden("1"));
+
+        // Act
+        CompletableFuture<CompletableFuture<Void>> segundo =
+                CompletableFuture.supplyAsync(() -> publicador.publicarOrden(crearOrden("2")));
+
+        // Assert
+        assertFalse(segundo.isDone());
+        enviados.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertDoesNotThrow(primero::join);
+        CompletableFuture<Void> envioSegundo = segundo.join();
+        assertEquals(2, enviados.size());
+        assertFalse(envioSegundo.isDone());
+        enviados.get(1).getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertDoesNotThrow(envioSegundo::join);
+        assertEquals(1, publicador.espaciosDisponibles());
+    }
+
+    @Test
+    void publicarOrden_SinConfirmacion_DeberiaLiberarLaVentanaTrasElTimeout() {
+        // Arrange
+        OrdenPublicadorPipeline publicador = crearPublicador(1);
+
+        // Act
+        CompletableFuture<Void> envio = publicador.publicarOrden(crearOrden("1"));
+
+        // Assert
+        assertThrows(CompletionException.class, envio::join);
+        assertEquals(1, publicador.espaciosDisponibles());
+    }
+}
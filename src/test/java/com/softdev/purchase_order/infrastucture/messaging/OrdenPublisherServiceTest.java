@@ -5,7 +5,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
-import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -16,12 +22,12 @@ import static org.mockito.Mockito.*;
 
 class OrdenPublisherServiceTest {
 
-    private AmqpTemplate amqpTemplate;
+    private RabbitOperations amqpTemplate;
     private OrdenPublisherService publisherService;
 
     @BeforeEach
     void setUp() {
-        amqpTemplate = mock(AmqpTemplate.class);
+        amqpTemplate = mock(RabbitOperations.class);
         publisherService = new OrdenPublisherService(amqpTemplate);
     }
 
@@ -43,6 +49,71 @@ class OrdenPublisherServiceTest {
         );
     }
 
+    private OrdenConDetallesDTO crearOrden(final String id) {
+        OrdenConDetallesDTO orden = new OrdenConDetallesDTO();
+        orden.setId(id);
+        orden.setDireccion("direccion-prueba");
+        return orden;
+    }
+
+    private void responderConfirmacion(final boolean ack, final ReturnedMessage devuelto) {
+        doAnswer(invocacion -> {
+            CorrelationData correlacion = invocacion.getArgument(3);
+            correlacion.setReturned(devuelto);
+            correlacion.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(amqpTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void testPublicarOrdenConfirmada_ConAck_DeberiaEnviarConCorrelacion() {
+        // Arrange
+        OrdenConDetallesDTO orden = crearOrden("ack-1");
+        responderConfirmacion(true, null);
+
+        // Act
+        assertDoesNotThrow(() -> publisherService.publicarOrdenConfirmada(orden, Duration.ofSeconds(1)));
+
+        // Assert
+        verify(amqpTemplate).convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.ROUTING_KEY), eq(orden),
+                argThat((CorrelationData correlacion) -> "ack-1".equals(correlacion.getId())));
+    }
+
+    @Test
+    void testPublicarOrdenConfirmada_ConNack_DeberiaLanzarExcepcion() {
+        // Arrange
+        OrdenConDetallesDTO orden = crearOrden("nack-1");
+        responderConfirmacion(false, null);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> publisherService.publicarOrdenConfirmada(orden, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testPublicarOrdenConfirmada_MensajeDevuelto_DeberiaLanzarExcepcion() {
+        // Arrange
+        OrdenConDetallesDTO orden = crearOrden("devuelto-1");
+        ReturnedMessage devuelto = new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+                312, "NO_ROUTE", RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY);
+        responderConfirmacion(true, devuelto);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> publisherService.publicarOrdenConfirmada(orden, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testPublicarOrdenConfirmada_SinConfirmacion_DeberiaLanzarExcepcionTrasElTimeout() {
+        // Arrange: el broker nunca confirma
+        OrdenConDetallesDTO orden = crearOrden("timeout-1");
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> publisherService.publicarOrdenConfirmada(orden, Duration.ofMillis(50)));
+        assertTrue(exception.getMessage().startsWith("Sin confirmación de RabbitMQ"));
+    }
+
     @Test
     void testPublicarOrden_DeberiaLanzarExcepcionSiFalla() {
         // Arrange
@@ -0,0 +1,40 @@
+package com.softdev.purchase_order.infrastucture.messaging;
+
+import com.rabbitmq.client.Channel;
+import com.softdev.purchase_order.infrastucture.cache.ProductoCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.*;
+
+class PrecioProductoListenerTest {
+
+    private ProductoCache productoCache;
+    private Channel channel;
+    private PrecioProductoListener listener;
+
+    @BeforeEach
+    void setUp() {
+        productoCache = mock(ProductoCache.class);
+        channel = mock(Channel.class);
+        listener = new PrecioProductoListener(productoCache);
+    }
+
+    @Test
+    void onPrecioActualizado_DeberiaInvalidarElProductoYConfirmar() throws Exception {
+        listener.onPrecioActualizado(new PrecioProductoActualizadoEvent("Pan", BigDecimal.ONE), channel, 7L);
+
+        verify(productoCache).invalidar("Pan");
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void onPrecioActualizado_SinNombre_DeberiaInvalidarTodo() throws Exception {
+        listener.onPrecioActualizado(new PrecioProductoActualizadoEvent(null, null), channel, 8L);
+
+        verify(productoCache).invalidarTodo();
+        verify(channel).basicAck(8L, false);
+    }
+}
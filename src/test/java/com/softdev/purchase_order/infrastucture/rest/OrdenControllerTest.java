@@ -2,25 +2,40 @@ package com.softdev.purchase_order.infrastucture.rest;
 
 import com.softdev.purchase_order.domain.entities.Orden;
 import com.softdev.purchase_order.domain.repositories.RealizarOrdenPort;
+import com.softdev.purchase_order.domain.repositories.RealizarOrdenReactivoPort;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.infrastucture.async.ProcesadorOrdenesPendientes;
+import com.softdev.purchase_order.infrastucture.cache.FacturaCache;
+import com.softdev.purchase_order.infrastucture.cache.IdempotenciaCache;
 import com.softdev.purchase_order.infrastucture.security.JwtUtils;
 import com.softdev.purchase_order.use_cases.dto.request.MetodoPagoRequest;
 import com.softdev.purchase_order.use_cases.dto.request.ProductoOrdenRequest;
 import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
+import com.softdev.purchase_order.use_cases.dto.response.EstadoOrdenResponse;
 import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
+import com.softdev.purchase_order.use_cases.exceptions.ServicioNoDisponibleException;
 import com.softdev.purchase_order.use_cases.service.ObtenerOrdenConDetallesService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.mockito.MockedStatic;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class OrdenControllerTest {
@@ -38,7 +53,7 @@ class OrdenControllerTest {
         realizarOrdenPort = mock(RealizarOrdenPort.class);
         obtenerOrdenConDetallesService = mock(ObtenerOrdenConDetallesService.class);
 
-        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, null, null, null);
     }
 
     @AfterEach
@@ -55,7 +70,7 @@ class OrdenControllerTest {
         when(realizarOrdenPort.realizarOrden(any(), anyString())).thenReturn(orden);
 
         // Act
-        var response = controller.realizarOrden(request, "Bearer token");
+        var response = controller.realizarOrden(request, "Bearer token", null, null);
 
         // Assert
         assertEquals(201, response.getStatusCode().value());
@@ -68,7 +83,7 @@ class OrdenControllerTest {
         RealizarOrdenRequest request = new RealizarOrdenRequest(List.of(), crearMetodoPagoValido());
 
         // Act
-        var response = controller.realizarOrden(request, "Bearer token");
+        var response = controller.realizarOrden(request, "Bearer token", null, null);
 
         // Assert
         assertEquals(400, response.getStatusCode().value());
@@ -84,7 +99,7 @@ class OrdenControllerTest {
                 .thenThrow(new RuntimeException("Fallo interno"));
 
         // Act
-        var response = controller.realizarOrden(request, "Bearer token");
+        var response = controller.realizarOrden(request, "Bearer token", null, null);
 
         // Assert
         assertEquals(500, response.getStatusCode().value());
@@ -98,20 +113,66 @@ class OrdenControllerTest {
         OrdenConDetallesDTO dto = new OrdenConDetallesDTO();
         dto.setId(id.toString());
 
+        when(obtenerOrdenConDetallesService.obtenerVersion(id)).thenReturn(Optional.of(0L));
         when(obtenerOrdenConDetallesService.ejecutar(id)).thenReturn(Optional.of(dto));
 
         // Act
-        var response = controller.obtenerFactura(id.toString());
+        var response = controller.obtenerFactura(id.toString(), null);
 
         // Assert
         assertEquals(200, response.getStatusCode().value());
         assertEquals(dto, response.getBody());
+        assertEquals("\"" + id + "-0\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void obtenerFactura_EtagVigente_DeberiaRetornarNotModifiedSinCargarLaFactura() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(obtenerOrdenConDetallesService.obtenerVersion(id)).thenReturn(Optional.of(3L));
+
+        // Act
+        var response = controller.obtenerFactura(id.toString(), "\"" + id + "-3\"");
+
+        // Assert
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals("\"" + id + "-3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(obtenerOrdenConDetallesService, never()).ejecutar(any());
+    }
+
+    @Test
+    void obtenerFactura_EtagAnterior_DeberiaRetornarLaFacturaConElNuevoEtag() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        OrdenConDetallesDTO dto = new OrdenConDetallesDTO();
+        dto.setId(id.toString());
+        when(obtenerOrdenConDetallesService.obtenerVersion(id)).thenReturn(Optional.of(4L));
+        when(obtenerOrdenConDetallesService.ejecutar(id)).thenReturn(Optional.of(dto));
+
+        // Act
+        var response = controller.obtenerFactura(id.toString(), "\"" + id + "-3\"");
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"" + id + "-4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void coincideEtag_DeberiaAceptarListasEtagsDebilesYComodin() {
+        String etag = "\"abc-1\"";
+
+        assertTrue(OrdenController.coincideEtag("\"otro-1\", \"abc-1\"", etag));
+        assertTrue(OrdenController.coincideEtag("W/\"abc-1\"", etag));
+        assertTrue(OrdenController.coincideEtag("*", etag));
+        assertFalse(OrdenController.coincideEtag("\"abc-2\"", etag));
+        assertFalse(OrdenController.coincideEtag(null, etag));
     }
 
     @Test
     void obtenerFactura_IdInvalido_DeberiaRetornarBadRequest() {
         // Act
-        var response = controller.obtenerFactura("id-invalido");
+        var response = controller.obtenerFactura("id-invalido", null);
 
         // Assert
         assertEquals(400, response.getStatusCode().value());
@@ -121,10 +182,80 @@ class OrdenControllerTest {
     void obtenerFactura_NoEncontrada_DeberiaRetornarNotFound() {
         // Arrange
         UUID id = UUID.randomUUID();
+        when(obtenerOrdenConDetallesService.obtenerVersion(id)).thenReturn(Optional.empty());
+
+        // Act
+        var response = controller.obtenerFactura(id.toString(), null);
+
+        // Assert
+        assertEquals(404, response.getStatusCode().value());
+        verify(obtenerOrdenConDetallesService, never()).ejecutar(any());
+    }
+
+    @Test
+    void obtenerFactura_ConCache_DeberiaResponderElJsonGuardadoSinConsultarDeNuevo() {
+        // Arrange
+        FacturaCache facturaCache = new FacturaCache(new SimpleMeterRegistry(), new ObjectMapper(), true,
+                Duration.ofMinutes(1), 10);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, null, null,
+                facturaCache);
+        UUID id = UUID.randomUUID();
+        OrdenConDetallesDTO dto = new OrdenConDetallesDTO();
+        dto.setId(id.toString());
+        when(obtenerOrdenConDetallesService.obtenerVersion(id)).thenReturn(Optional.of(0L));
+        when(obtenerOrdenConDetallesService.ejecutar(id)).thenReturn(Optional.of(dto));
+
+        // Act
+        var primera = controller.obtenerFactura(id.toString(), null);
+        var segunda = controller.obtenerFactura(id.toString(), null);
+
+        // Assert
+        assertEquals(200, segunda.getStatusCode().value());
+        assertEquals(MediaType.APPLICATION_JSON, segunda.getHeaders().getContentType());
+        assertSame(primera.getBody(), segunda.getBody());
+        assertTrue(new String((byte[]) segunda.getBody()).contains(id.toString()));
+        assertEquals(primera.getHeaders().getETag(), segunda.getHeaders().getETag());
+        verify(obtenerOrdenConDetallesService, times(1)).ejecutar(id);
+        verify(obtenerOrdenConDetallesService, times(1)).obtenerVersion(id);
+    }
+
+    @Test
+    void obtenerFactura_ConCacheYEtagVigente_DeberiaRetornarNotModifiedSinConsultarLaVersion() {
+        // Arrange
+        FacturaCache facturaCache = new FacturaCache(new SimpleMeterRegistry(), new ObjectMapper(), true,
+                Duration.ofMinutes(1), 10);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, null, null,
+                facturaCache);
+        UUID id = UUID.randomUUID();
+        OrdenConDetallesDTO dto = new OrdenConDetallesDTO();
+        dto.setId(id.toString());
+        when(obtenerOrdenConDetallesService.obtenerVersion(id)).thenReturn(Optional.of(2L));
+        when(obtenerOrdenConDetallesService.ejecutar(id)).thenReturn(Optional.of(dto));
+        String etag = controller.obtenerFactura(id.toString(), null).getHeaders().getETag();
+
+        // Act
+        var response = controller.obtenerFactura(id.toString(), etag);
+
+        // Assert
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals(OrdenController.etagFactura(id, 2), response.getHeaders().getETag());
+        verify(obtenerOrdenConDetallesService, times(1)).obtenerVersion(id);
+        verify(obtenerOrdenConDetallesService, times(1)).ejecutar(id);
+    }
+
+    @Test
+    void obtenerFactura_ConCacheNoEncontrada_DeberiaRetornarNotFound() {
+        // Arrange
+        FacturaCache facturaCache = new FacturaCache(new SimpleMeterRegistry(), new ObjectMapper(), true,
+                Duration.ofMinutes(1), 10);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, null, null,
+                facturaCache);
+        UUID id = UUID.randomUUID();
+        when(obtenerOrdenConDetallesService.obtenerVersion(id)).thenReturn(Optional.of(0L));
         when(obtenerOrdenConDetallesService.ejecutar(id)).thenReturn(Optional.empty());
 
         // Act
-        var response = controller.obtenerFactura(id.toString());
+        var response = controller.obtenerFactura(id.toString(), null);
 
         // Assert
         assertEquals(404, response.getStatusCode().value());
@@ -137,7 +268,7 @@ void realizarOrden_TokenSinEmail_DeberiaRetornarBadRequest() {
     RealizarOrdenRequest request = crearRequestValido();
 
     // Act
-    var response = controller.realizarOrden(request, "Bearer token");
+    var response = controller.realizarOrden(request, "Bearer token", null, null);
 
     // Assert
     assertEquals(400, response.getStatusCode().value());
@@ -153,7 +284,7 @@ void realizarOrden_CantidadProductoInvalida_DeberiaRetornarBadRequest() {
     );
 
     // Act
-    var response = controller.realizarOrden(request, "Bearer token");
+    var response = controller.realizarOrden(request, "Bearer token", null, null);
 
     // Assert
     assertEquals(400, response.getStatusCode().value());
@@ -176,7 +307,7 @@ void realizarOrden_MetodoPagoInvalido_DeberiaRetornarBadRequest() {
     );
 
     // Act
-    var response = controller.realizarOrden(request, "Bearer token");
+    var response = controller.realizarOrden(request, "Bearer token", null, null);
 
     // Assert
     assertEquals(400, response.getStatusCode().value());
@@ -184,6 +315,174 @@ void realizarOrden_MetodoPagoInvalido_DeberiaRetornarBadRequest() {
 }
 
 
+    @Test
+    void realizarOrden_ConClaveIdempotencia_DeberiaDelegarEnElAlmacenConClavePorCliente() {
+        // Arrange
+        IdempotenciaCache idempotenciaCache = mock(IdempotenciaCache.class);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, idempotenciaCache, null, null, null);
+        RealizarOrdenRequest request = crearRequestValido();
+        when(idempotenciaCache.ejecutar(eq("cliente@email.com:clave-1"), eq(request), any()))
+                .thenAnswer(invocacion -> ResponseEntity.ok("repetida"));
+
+        // Act
+        var response = controller.realizarOrden(request, "Bearer token", "clave-1", null);
+
+        // Assert
+        assertEquals("repetida", response.getBody());
+        verifyNoInteractions(realizarOrdenPort);
+    }
+
+    @Test
+    void realizarOrden_ClaveIdempotenciaDemasiadoLarga_DeberiaRetornarBadRequest() {
+        // Arrange
+        IdempotenciaCache idempotenciaCache = mock(IdempotenciaCache.class);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, idempotenciaCache, null, null, null);
+
+        // Act
+        var response = controller.realizarOrden(crearRequestValido(), "Bearer token", "x".repeat(256), null);
+
+        // Assert
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(idempotenciaCache, realizarOrdenPort);
+    }
+
+    @Test
+    void realizarOrden_PreferRespondAsync_DeberiaAceptarLaOrdenConEstadoPendiente() {
+        // Arrange
+        ProcesadorOrdenesPendientes procesador = mock(ProcesadorOrdenesPendientes.class);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, procesador, null, null);
+        Orden pendiente = crearOrdenEjemplo();
+        pendiente.setEstado(EstadoOrden.PENDIENTE);
+        when(procesador.aceptar(any(), eq("cliente@email.com"))).thenReturn(pendiente);
+
+        // Act
+        var response = controller.realizarOrden(crearRequestValido(), "Bearer token", null, "respond-async");
+
+        // Assert
+        assertEquals(202, response.getStatusCode().value());
+        EstadoOrdenResponse estado = (EstadoOrdenResponse) response.getBody();
+        assertEquals("PENDIENTE", estado.getEstado());
+        assertEquals("/ordenes/" + pendiente.getId() + "/estado", response.getHeaders().getLocation().toString());
+        verify(realizarOrdenPort, never()).realizarOrden(any(), anyString());
+    }
+
+    @Test
+    void realizarOrden_PreferRespondAsyncSinCupos_DeberiaRetornar503() {
+        // Arrange
+        ProcesadorOrdenesPendientes procesador = mock(ProcesadorOrdenesPendientes.class);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, procesador, null, null);
+        when(procesador.aceptar(any(), anyString())).thenThrow(new RejectedExecutionException("sin cupos"));
+
+        // Act
+        var response = controller.realizarOrden(crearRequestValido(), "Bearer token", null, "respond-async");
+
+        // Assert
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void realizarOrden_PreferRespondAsyncDeshabilitado_DeberiaProcesarLaOrdenDeInmediato() {
+        // Arrange
+        when(realizarOrdenPort.realizarOrden(any(), anyString())).thenReturn(crearOrdenEjemplo());
+
+        // Act
+        var response = controller.realizarOrden(crearRequestValido(), "Bearer token", null, "respond-async");
+
+        // Assert
+        assertEquals(201, response.getStatusCode().value());
+    }
+
+    @Test
+    void realizarOrden_ServicioExternoNoDisponible_DeberiaRetornar503() {
+        // Arrange
+        when(realizarOrdenPort.realizarOrden(any(), anyString())).thenThrow(
+                new ServicioNoDisponibleException("El servicio product-service no está disponible", null));
+
+        // Act
+        var response = controller.realizarOrden(crearRequestValido(), "Bearer token", null, null);
+
+        // Assert
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void realizarOrdenReactiva_DeberiaCrearOrden() {
+        // Arrange
+        RealizarOrdenReactivoPort reactivoPort = mock(RealizarOrdenReactivoPort.class);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, null, reactivoPort, null);
+        when(reactivoPort.realizarOrden(any(), eq("cliente@email.com"))).thenReturn(Mono.just(crearOrdenEjemplo()));
+
+        // Act
+        var response = controller.realizarOrdenReactiva(crearRequestValido()).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(201, response.getStatusCode().value());
+        verify(realizarOrdenPort, never()).realizarOrden(any(), anyString());
+    }
+
+    @Test
+    void realizarOrdenReactiva_ConProductosVacios_DeberiaRetornarBadRequestSinLlamarAlServicio() {
+        // Arrange
+        RealizarOrdenReactivoPort reactivoPort = mock(RealizarOrdenReactivoPort.class);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, null, reactivoPort, null);
+        RealizarOrdenRequest request = new RealizarOrdenRequest(List.of(), crearMetodoPagoValido());
+
+        // Act
+        var response = controller.realizarOrdenReactiva(request).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(reactivoPort);
+    }
+
+    @Test
+    void realizarOrdenReactiva_ErrorDelServicio_DeberiaRetornar500() {
+        // Arrange
+        RealizarOrdenReactivoPort reactivoPort = mock(RealizarOrdenReactivoPort.class);
+        controller = new OrdenController(realizarOrdenPort, obtenerOrdenConDetallesService, null, null, reactivoPort, null);
+        when(reactivoPort.realizarOrden(any(), anyString())).thenReturn(Mono.error(new RuntimeException("fallo")));
+
+        // Act
+        var response = controller.realizarOrdenReactiva(crearRequestValido()).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(500, response.getStatusCode().value());
+    }
+
+    @Test
+    void obtenerEstado_DeberiaRetornarElEstadoDeLaOrden() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(obtenerOrdenConDetallesService.obtenerEstado(id)).thenReturn(Optional.of(EstadoOrden.RECHAZADA));
+
+        // Act
+        var response = controller.obtenerEstado(id.toString());
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        EstadoOrdenResponse estado = (EstadoOrdenResponse) response.getBody();
+        assertEquals("RECHAZADA", estado.getEstado());
+        assertNull(estado.getUrlFactura());
+    }
+
+    @Test
+    void obtenerEstado_NoEncontrada_DeberiaRetornarNotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(obtenerOrdenConDetallesService.obtenerEstado(id)).thenReturn(Optional.empty());
+
+        // Act
+        var response = controller.obtenerEstado(id.toString());
+
+        // Assert
+        assertEquals(404, response.getStatusCode().value());
+    }
+
     // 🔧 Helpers para datos de prueba
     private RealizarOrdenRequest crearRequestValido() {
         return new RealizarOrdenRequest(
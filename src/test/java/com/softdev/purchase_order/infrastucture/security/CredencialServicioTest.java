@@ -0,0 +1,47 @@
+package com.softdev.purchase_order.infrastucture.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CredencialServicioTest {
+
+    private final JwtDecoder decoder = mock(JwtDecoder.class);
+
+    @Test
+    void crearContexto_TokenValido_DeberiaAutenticarConElToken() {
+        // Arrange
+        Jwt jwt = Jwt.withTokenValue("token-servicio").header("alg", "HS512").subject("purchase-order").build();
+        when(decoder.decode("token-servicio")).thenReturn(jwt);
+
+        // Act
+        Optional<SecurityContext> contexto = new CredencialServicio(decoder, "token-servicio").crearContexto();
+
+        // Assert
+        assertTrue(contexto.isPresent());
+        JwtAuthenticationToken autenticacion = (JwtAuthenticationToken) contexto.get().getAuthentication();
+        assertEquals("token-servicio", autenticacion.getToken().getTokenValue());
+    }
+
+    @Test
+    void crearContexto_SinToken_DeberiaRetornarVacio() {
+        assertTrue(new CredencialServicio(decoder, "").crearContexto().isEmpty());
+        verify(decoder, never()).decode(anyString());
+    }
+
+    @Test
+    void crearContexto_TokenVencido_DeberiaRetornarVacio() {
+        when(decoder.decode("vencido")).thenThrow(new BadJwtException("Jwt expired"));
+
+        assertTrue(new CredencialServicio(decoder, "vencido").crearContexto().isEmpty());
+    }
+}
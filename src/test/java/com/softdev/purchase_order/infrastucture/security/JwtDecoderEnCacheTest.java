@@ -0,0 +1,97 @@
+package com.softdev.purchase_order.infrastucture.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtDecoderEnCacheTest {
+
+    private static final Instant AHORA = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicLong ticker = new AtomicLong();
+    private JwtDecoder delegado;
+    private JwtDecoderEnCache decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegado = mock(JwtDecoder.class);
+        decoder = new JwtDecoderEnCache(delegado, new SimpleMeterRegistry(), Duration.ofMinutes(5), 100,
+                Clock.fixed(AHORA, ZoneOffset.UTC), ticker::get);
+    }
+
+    @Test
+    void decode_MismoToken_DeberiaValidarloUnaSolaVez() {
+        // Arrange
+        Jwt jwt = crearJwt("token-1", AHORA.plus(Duration.ofMinutes(30)));
+        when(delegado.decode("token-1")).thenReturn(jwt);
+
+        // Act
+        Jwt primero = decoder.decode("token-1");
+        Jwt segundo = decoder.decode("token-1");
+
+        // Assert
+        assertSame(jwt, primero);
+        assertSame(jwt, segundo);
+        verify(delegado, times(1)).decode("token-1");
+    }
+
+    @Test
+    void decode_TokenVencido_DeberiaValidarloDeNuevo() {
+        // Arrange
+        when(delegado.decode("token-1")).thenReturn(crearJwt("token-1", AHORA.plus(Duration.ofSeconds(30))));
+        decoder.decode("token-1");
+
+        // Act
+        ticker.addAndGet(Duration.ofSeconds(31).toNanos());
+        decoder.decode("token-1");
+
+        // Assert
+        verify(delegado, times(2)).decode("token-1");
+    }
+
+    @Test
+    void decode_TtlMenorQueExp_DeberiaVencerConElTtl() {
+        // Arrange
+        when(delegado.decode("token-1")).thenReturn(crearJwt("token-1", AHORA.plus(Duration.ofHours(2))));
+        decoder.decode("token-1");
+
+        // Act
+        ticker.addAndGet(Duration.ofMinutes(6).toNanos());
+        decoder.decode("token-1");
+
+        // Assert
+        verify(delegado, times(2)).decode("token-1");
+    }
+
+    @Test
+    void decode_TokenInvalido_NoDeberiaGuardarse() {
+        // Arrange
+        when(delegado.decode("invalido")).thenThrow(new BadJwtException("Firma inválida"));
+
+        // Act & Assert
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalido"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("invalido"));
+        verify(delegado, times(2)).decode("invalido");
+    }
+
+    private Jwt crearJwt(final String token, final Instant vencimiento) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS512")
+                .subject("cliente@correo.com")
+                .issuedAt(AHORA)
+                .expiresAt(vencimiento)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.softdev.purchase_order.infrastucture.security;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -37,6 +38,35 @@ class JwtUtilsTest {
         // Assert
         assertEquals("cliente@email.com", claim);
     }
+    @Test
+    void testGetTokenReactivo_DeberiaPreferirElContextoDeReactor() {
+        Jwt jwtHilo = mock(Jwt.class);
+        when(jwtHilo.getTokenValue()).thenReturn("token-hilo");
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwtHilo));
+        Jwt jwtReactor = mock(Jwt.class);
+        when(jwtReactor.getTokenValue()).thenReturn("token-reactor");
+
+        String token = JwtUtils.getTokenReactivo()
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new JwtAuthenticationToken(jwtReactor)))
+                .block();
+
+        assertEquals("token-reactor", token);
+    }
+
+    @Test
+    void testGetTokenReactivo_SinContextoDeReactor_DeberiaUsarElDelHilo() {
+        Jwt jwt = mock(Jwt.class);
+        when(jwt.getTokenValue()).thenReturn("token-hilo");
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+
+        assertEquals("token-hilo", JwtUtils.getTokenReactivo().block());
+    }
+
+    @Test
+    void testGetTokenReactivo_SinAutenticacion_DeberiaRetornarCadenaVacia() {
+        assertEquals("", JwtUtils.getTokenReactivo().block());
+    }
+
     @Test
     void testConstructor_DeberiaCubrirConstructorPrivado() throws Exception {
         var constructor = JwtUtils.class.getDeclaredConstructor();
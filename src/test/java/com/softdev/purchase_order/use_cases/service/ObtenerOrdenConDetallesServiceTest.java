@@ -4,7 +4,6 @@ import com.softdev.purchase_order.domain.entities.DetalleOrden;
 import com.softdev.purchase_order.domain.entities.MetodoPago;
 import com.softdev.purchase_order.domain.entities.Orden;
 import com.softdev.purchase_order.domain.entities.EstadoOrden;
-import com.softdev.purchase_order.domain.repositories.DetalleOrdenRepositoryPort;
 import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
 import com.softdev.purchase_order.use_cases.dto.response.OrdenConDetallesDTO;
 
@@ -18,23 +17,19 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class ObtenerOrdenConDetallesServiceTest {
 
     private OrdenRepositoryPort ordenRepositoryPort;
-    private DetalleOrdenRepositoryPort detalleOrdenRepositoryPort;
     private ObtenerOrdenConDetallesService service;
 
     @BeforeEach
     void setUp() {
         ordenRepositoryPort = mock(OrdenRepositoryPort.class);
-        detalleOrdenRepositoryPort = mock(DetalleOrdenRepositoryPort.class);
 
-        service = new ObtenerOrdenConDetallesService(
-                ordenRepositoryPort,
-                detalleOrdenRepositoryPort
-        );
+        service = new ObtenerOrdenConDetallesService(ordenRepositoryPort);
     }
 
     @Test
@@ -70,8 +65,7 @@ class ObtenerOrdenConDetallesServiceTest {
                 EstadoOrden.CREADA
         );
 
-        when(ordenRepositoryPort.findById(ordenId)).thenReturn(Optional.of(orden));
-        when(detalleOrdenRepositoryPort.findByOrdenId(ordenId.toString())).thenReturn(List.of(detalle));
+        when(ordenRepositoryPort.findConDetallesById(ordenId)).thenReturn(Optional.of(orden));
 
         // Act
         Optional<OrdenConDetallesDTO> result = service.ejecutar(ordenId);
@@ -88,22 +82,36 @@ class ObtenerOrdenConDetallesServiceTest {
         assertEquals("ProductoTest", dto.getDetalles().get(0).getNombreProducto());
         assertEquals("Tarjeta de crédito", dto.getMetodoPago().getNombre());
 
-        verify(ordenRepositoryPort).findById(ordenId);
-        verify(detalleOrdenRepositoryPort).findByOrdenId(ordenId.toString());
+        verify(ordenRepositoryPort).findConDetallesById(ordenId);
+        verify(ordenRepositoryPort, never()).findById(any());
     }
 
     @Test
     void ejecutar_deberiaRetornarEmpty_SiNoExisteLaOrden() {
         // Arrange
         UUID ordenId = UUID.randomUUID();
-        when(ordenRepositoryPort.findById(ordenId)).thenReturn(Optional.empty());
+        when(ordenRepositoryPort.findConDetallesById(ordenId)).thenReturn(Optional.empty());
 
         // Act
         Optional<OrdenConDetallesDTO> result = service.ejecutar(ordenId);
 
         // Assert
         assertTrue(result.isEmpty());
-        verify(ordenRepositoryPort).findById(ordenId);
-        verifyNoInteractions(detalleOrdenRepositoryPort);
+        verify(ordenRepositoryPort).findConDetallesById(ordenId);
+    }
+
+    @Test
+    void obtenerVersion_deberiaConsultarSoloLaVersion() {
+        // Arrange
+        UUID ordenId = UUID.randomUUID();
+        when(ordenRepositoryPort.findVersionById(ordenId)).thenReturn(Optional.of(2L));
+
+        // Act
+        Optional<Long> version = service.obtenerVersion(ordenId);
+
+        // Assert
+        assertEquals(Optional.of(2L), version);
+        verify(ordenRepositoryPort, never()).findConDetallesById(any());
+        verify(ordenRepositoryPort, never()).findById(any());
     }
 }
@@ -0,0 +1,196 @@
+package com.softdev.purchase_order.use_cases.service;
+
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
+import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
+import com.softdev.purchase_order.domain.repositories.ProductoServiceReactivoPort;
+import com.softdev.purchase_order.domain.repositories.UsuarioServiceReactivoPort;
+import com.softdev.purchase_order.use_cases.dto.request.MetodoPagoRequest;
+import com.softdev.purchase_order.use_cases.dto.request.ProductoOrdenRequest;
+import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
+import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RealizarOrdenReactivoServiceTest {
+
+    private OrdenRepositoryPort ordenRepositoryPort;
+    private ProductoServiceReactivoPort productoServicePort;
+    private UsuarioServiceReactivoPort usuarioServicePort;
+    private OrdenOutboxPort ordenOutboxPort;
+    private RealizarOrdenReactivoService service;
+
+    @BeforeEach
+    void setUp() {
+        ordenRepositoryPort = mock(OrdenRepositoryPort.class);
+        productoServicePort = mock(ProductoServiceReactivoPort.class);
+        usuarioServicePort = mock(UsuarioServiceReactivoPort.class);
+        ordenOutboxPort = mock(OrdenOutboxPort.class);
+
+        service = new RealizarOrdenReactivoService(ordenRepositoryPort, productoServicePort, usuarioServicePort,
+                ordenOutboxPort, TransactionOperations.withoutTransaction(), Schedulers.immediate(),
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        when(productoServicePort.confirmarReservaReactivo(anyString())).thenReturn(Mono.empty());
+        when(productoServicePort.liberarReservaReactivo(anyString())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void realizarOrden_deberiaGuardarLaOrdenYConfirmarLaReserva() {
+        // Arrange
+        when(usuarioServicePort.obtenerUsuarioReactivo("cliente@correo.com")).thenReturn(Mono.just(crearUsuario()));
+        when(productoServicePort.cotizarProductosReactivo(Map.of("Pan", 3))).thenReturn(Mono.just(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5)))));
+        when(productoServicePort.reservarStockReactivo(Map.of("Pan", 3))).thenReturn(Mono.just("reserva-1"));
+        when(ordenRepositoryPort.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Orden orden = service.realizarOrden(crearRequest(
+                new ProductoOrdenRequest("Pan", 2), new ProductoOrdenRequest("Pan", 1)), "cliente@correo.com").block();
+
+        // Assert
+        assertNotNull(orden);
+        assertEquals(EstadoOrden.CREADA, orden.getEstado());
+        assertEquals("Cliente Prueba", orden.getNombreCliente());
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(orden.getValorTotal()));
+        verify(ordenOutboxPort).registrarOrdenCreada(orden);
+        verify(productoServicePort).confirmarReservaReactivo("reserva-1");
+        verify(productoServicePort, never()).liberarReservaReactivo(anyString());
+    }
+
+    @Test
+    void realizarOrden_stockInsuficiente_deberiaFallarSinReservar() {
+        // Arrange
+        when(usuarioServicePort.obtenerUsuarioReactivo(anyString())).thenReturn(Mono.just(crearUsuario()));
+        when(productoServicePort.cotizarProductosReactivo(any())).thenReturn(Mono.just(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 2, BigDecimal.valueOf(5)))));
+
+        // Act & Assert
+        Mono<Orden> resultado = service.realizarOrden(crearRequest(new ProductoOrdenRequest("Pan", 5)), "cliente@correo.com");
+        RuntimeException exception = assertThrows(RuntimeException.class, resultado::block);
+
+        assertTrue(exception.getMessage().contains("No hay suficiente stock para el producto 'Pan'"));
+        verify(productoServicePort, never()).reservarStockReactivo(any());
+        verifyNoInteractions(ordenRepositoryPort);
+    }
+
+    @Test
+    void realizarOrden_errorAlGuardar_deberiaLiberarLaReserva() {
+        // Arrange
+        when(usuarioServicePort.obtenerUsuarioReactivo(anyString())).thenReturn(Mono.just(crearUsuario()));
+        when(productoServicePort.cotizarProductosReactivo(any())).thenReturn(Mono.just(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5)))));
+        when(productoServicePort.reservarStockReactivo(any())).thenReturn(Mono.just("reserva-1"));
+        when(ordenRepositoryPort.save(any())).thenThrow(new RuntimeException("Base de datos no disponible"));
+
+        // Act & Assert
+        Mono<Orden> resultado = service.realizarOrden(crearRequest(new ProductoOrdenRequest("Pan", 2)), "cliente@correo.com");
+        RuntimeException exception = assertThrows(RuntimeException.class, resultado::block);
+
+        assertEquals("Base de datos no disponible", exception.getMessage());
+        verify(productoServicePort).liberarReservaReactivo("reserva-1");
+        verify(productoServicePort, never()).confirmarReservaReactivo(anyString());
+        verifyNoInteractions(ordenOutboxPort);
+    }
+
+    @Test
+    void realizarOrden_clienteCancelaDuranteElGuardado_deberiaConfirmarLaReserva() throws Exception {
+        // Arrange
+        when(usuarioServicePort.obtenerUsuarioReactivo(anyString())).thenReturn(Mono.just(crearUsuario()));
+        when(productoServicePort.cotizarProductosReactivo(any())).thenReturn(Mono.just(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5)))));
+        when(productoServicePort.reservarStockReactivo(any())).thenReturn(Mono.just("reserva-1"));
+        CountDownLatch guardando = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        when(ordenRepositoryPort.save(any())).thenAnswer(invocation -> {
+            guardando.countDown();
+            continuar.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        service = new RealizarOrdenReactivoService(ordenRepositoryPort, productoServicePort, usuarioServicePort,
+                ordenOutboxPort, TransactionOperations.withoutTransaction(), Schedulers.boundedElastic(),
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        // Act: el cliente se desconecta mientras la orden se guarda
+        Disposable suscripcion = service.realizarOrden(crearRequest(new ProductoOrdenRequest("Pan", 2)),
+                "cliente@correo.com").subscribe();
+        assertTrue(guardando.await(5, TimeUnit.SECONDS));
+        suscripcion.dispose();
+        continuar.countDown();
+
+        // Assert
+        verify(productoServicePort, timeout(5000)).confirmarReservaReactivo("reserva-1");
+        verify(ordenOutboxPort).registrarOrdenCreada(any());
+        verify(productoServicePort, never()).liberarReservaReactivo(anyString());
+    }
+
+    @Test
+    void realizarOrden_clienteCancelaDuranteLaReserva_deberiaLiberarlaSiElGuardadoFalla() throws Exception {
+        // Arrange
+        when(usuarioServicePort.obtenerUsuarioReactivo(anyString())).thenReturn(Mono.just(crearUsuario()));
+        when(productoServicePort.cotizarProductosReactivo(any())).thenReturn(Mono.just(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5)))));
+        Sinks.One<String> reserva = Sinks.one();
+        when(productoServicePort.reservarStockReactivo(any())).thenReturn(reserva.asMono());
+        when(ordenRepositoryPort.save(any())).thenThrow(new RuntimeException("Base de datos no disponible"));
+
+        // Act: el cliente se desconecta antes de que responda la reserva
+        Disposable suscripcion = service.realizarOrden(crearRequest(new ProductoOrdenRequest("Pan", 2)),
+                "cliente@correo.com").subscribe(orden -> { }, error -> { });
+        suscripcion.dispose();
+        reserva.tryEmitValue("reserva-1");
+
+        // Assert
+        verify(productoServicePort, timeout(5000)).liberarReservaReactivo("reserva-1");
+    }
+
+    @Test
+    void realizarOrden_usuarioLento_deberiaFallarPorTimeout() {
+        // Arrange
+        service = new RealizarOrdenReactivoService(ordenRepositoryPort, productoServicePort, usuarioServicePort,
+                ordenOutboxPort, TransactionOperations.withoutTransaction(), Schedulers.immediate(),
+                Duration.ofMillis(50), Duration.ofSeconds(5));
+        when(usuarioServicePort.obtenerUsuarioReactivo(anyString())).thenReturn(Mono.never());
+        when(productoServicePort.cotizarProductosReactivo(any())).thenReturn(Mono.just(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.ONE))));
+
+        // Act & Assert
+        Mono<Orden> resultado = service.realizarOrden(crearRequest(new ProductoOrdenRequest("Pan", 1)), "cliente@correo.com");
+        RuntimeException exception = assertThrows(RuntimeException.class, resultado::block);
+
+        assertTrue(exception.getMessage().contains("la consulta del usuario"));
+        verifyNoInteractions(ordenRepositoryPort);
+    }
+
+    private RealizarOrdenRequest crearRequest(final ProductoOrdenRequest... productos) {
+        return new RealizarOrdenRequest(
+                List.of(productos),
+                new MetodoPagoRequest("VISA", "1234567812345678", "12/30", "123", "Cliente Prueba")
+        );
+    }
+
+    private UsuarioResponse crearUsuario() {
+        return new UsuarioResponse("cliente@correo.com", "Cliente Prueba", "12345678", "Dirección Prueba");
+    }
+}
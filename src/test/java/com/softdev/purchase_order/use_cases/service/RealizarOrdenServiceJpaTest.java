@@ -0,0 +1,102 @@
+package com.softdev.purchase_order.use_cases.service;
+
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
+import com.softdev.purchase_order.domain.entities.DetalleOrden;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
+import com.softdev.purchase_order.domain.entities.MetodoPago;
+import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
+import com.softdev.purchase_order.domain.repositories.ProductoServicePort;
+import com.softdev.purchase_order.domain.repositories.UsuarioServicePort;
+import com.softdev.purchase_order.infrastucture.adapters.OrdenRepositoryAdapter;
+import com.softdev.purchase_order.infrastucture.messaging.OrdenPublisherService;
+import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Completa órdenes pendientes contra H2 en memoria sin una transacción alrededor de la prueba, como
+ * ocurre en los hilos de procesamiento en segundo plano.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import(OrdenRepositoryAdapter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RealizarOrdenServiceJpaTest {
+
+    @Autowired
+    private OrdenRepositoryAdapter ordenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ProductoServicePort productoServicePort = mock(ProductoServicePort.class);
+    private final UsuarioServicePort usuarioServicePort = mock(UsuarioServicePort.class);
+    private final OrdenOutboxPort ordenOutboxPort = mock(OrdenOutboxPort.class);
+    private RealizarOrdenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RealizarOrdenService(ordenRepository, productoServicePort, usuarioServicePort,
+                mock(OrdenPublisherService.class), ordenOutboxPort, new TransactionTemplate(transactionManager),
+                Runnable::run, null, null);
+    }
+
+    @Test
+    void procesarOrdenPendiente_SinTransaccionExterna_DeberiaCargarLosDetallesYCompletarLaOrden() {
+        // Arrange
+        Orden pendiente = ordenRepository.save(crearOrdenPendiente());
+        when(usuarioServicePort.obtenerUsuario("cliente@correo.com")).thenReturn(
+                new UsuarioResponse("cliente@correo.com", "Cliente Prueba", "12345678", "Dirección Prueba"));
+        when(productoServicePort.cotizarProductos(Map.of("Pan", 2))).thenReturn(
+                Map.of("Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5))));
+        when(productoServicePort.reservarStock(any())).thenReturn("reserva-1");
+
+        // Act
+        Orden orden = service.procesarOrdenPendiente(pendiente.getId());
+
+        // Assert
+        assertEquals(EstadoOrden.CREADA, orden.getEstado());
+        Orden guardada = ordenRepository.findConDetallesById(pendiente.getId()).orElseThrow();
+        assertEquals(EstadoOrden.CREADA, guardada.getEstado());
+        assertEquals(1, guardada.getDetalles().size());
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(guardada.getValorTotal()));
+        verify(ordenOutboxPort).registrarOrdenCreada(any());
+        verify(productoServicePort).confirmarReserva("reserva-1");
+    }
+
+    private Orden crearOrdenPendiente() {
+        return new Orden(
+                UUID.randomUUID(),
+                "cliente@correo.com",
+                null,
+                null,
+                null,
+                List.of(new DetalleOrden("Pan", 2, BigDecimal.ZERO)),
+                new MetodoPago("VISA", "1234567812345678", "12/30", "123", "Cliente Prueba"),
+                BigDecimal.ZERO,
+                LocalDateTime.now(),
+                EstadoOrden.PENDIENTE
+        );
+    }
+}
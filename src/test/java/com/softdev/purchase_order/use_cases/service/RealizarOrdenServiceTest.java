@@ -1,22 +1,43 @@
 package com.softdev.purchase_order.use_cases.service;
 
+import com.softdev.purchase_order.domain.entities.CotizacionProducto;
 import com.softdev.purchase_order.domain.entities.DetalleOrden;
+import com.softdev.purchase_order.domain.entities.EstadoOrden;
 import com.softdev.purchase_order.domain.entities.MetodoPago;
 import com.softdev.purchase_order.domain.entities.Orden;
+import com.softdev.purchase_order.domain.repositories.OrdenOutboxPort;
 import com.softdev.purchase_order.domain.repositories.OrdenRepositoryPort;
 import com.softdev.purchase_order.domain.repositories.ProductoServicePort;
 import com.softdev.purchase_order.domain.repositories.UsuarioServicePort;
 import com.softdev.purchase_order.infrastucture.messaging.OrdenPublisherService;
+import com.softdev.purchase_order.use_cases.dto.request.MetodoPagoRequest;
+import com.softdev.purchase_order.use_cases.dto.request.ProductoOrdenRequest;
+import com.softdev.purchase_order.use_cases.dto.request.RealizarOrdenRequest;
 import com.softdev.purchase_order.use_cases.dto.response.UsuarioResponse;
+import com.softdev.purchase_order.use_cases.exceptions.ServicioNoDisponibleException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class RealizarOrdenServiceTest {
@@ -25,6 +46,7 @@ class RealizarOrdenServiceTest {
     private ProductoServicePort productoServicePort;
     private UsuarioServicePort usuarioServicePort;
     private OrdenPublisherService ordenPublisherService;
+    private OrdenOutboxPort ordenOutboxPort;
     private RealizarOrdenService service;
 
     @BeforeEach
@@ -33,12 +55,14 @@ class RealizarOrdenServiceTest {
         productoServicePort = mock(ProductoServicePort.class);
         usuarioServicePort = mock(UsuarioServicePort.class);
         ordenPublisherService = mock(OrdenPublisherService.class);
+        ordenOutboxPort = mock(OrdenOutboxPort.class);
 
         service = new RealizarOrdenService(
                 ordenRepositoryPort,
                 productoServicePort,
                 usuarioServicePort,
-                ordenPublisherService
+                ordenPublisherService,
+                ordenOutboxPort
         );
     }
 
@@ -82,4 +106,342 @@ class RealizarOrdenServiceTest {
         verify(ordenPublisherService, times(1))
                 .publicarOrdenConMensaje(any(), eq("Reenvío de orden"));
     }
+
+    @Test
+    void realizarOrden_deberiaCotizarTodosLosProductosEnUnaSolaLlamada() {
+        // Arrange
+        RealizarOrdenRequest request = crearRequest(
+                new ProductoOrdenRequest("Pan", 2),
+                new ProductoOrdenRequest("Leche", 1),
+                new ProductoOrdenRequest("Pan", 1)
+        );
+        when(usuarioServicePort.obtenerUsuario("cliente@correo.com")).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(Map.of("Pan", 3, "Leche", 1))).thenReturn(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5)),
+                "Leche", new CotizacionProducto("Leche", true, 4, BigDecimal.valueOf(8))
+        ));
+        when(productoServicePort.reservarStock(any())).thenReturn("reserva-1");
+        when(ordenRepositoryPort.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Orden orden = service.realizarOrden(request, "cliente@correo.com");
+
+        // Assert
+        assertEquals(3, orden.getDetalles().size());
+        assertEquals(0, BigDecimal.valueOf(23).compareTo(orden.getValorTotal()));
+        verify(productoServicePort, times(1)).cotizarProductos(any());
+        verify(productoServicePort).reservarStock(Map.of("Pan", 3, "Leche", 1));
+        verify(productoServicePort).confirmarReserva("reserva-1");
+        verify(productoServicePort, never()).actualizarStock(anyString(), anyInt());
+        verify(productoServicePort, never()).existeProducto(anyString());
+        verify(productoServicePort, never()).verificarStock(anyString(), anyInt());
+        verify(productoServicePort, never()).obtenerPrecio(anyString());
+        verify(ordenOutboxPort).registrarOrdenCreada(orden);
+        verifyNoInteractions(ordenPublisherService);
+    }
+
+    @Test
+    void realizarOrden_productoInexistente_deberiaFallarSinDescontarStock() {
+        // Arrange
+        RealizarOrdenRequest request = crearRequest(new ProductoOrdenRequest("Fantasma", 1));
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(any())).thenReturn(Map.of(
+                "Fantasma", new CotizacionProducto("Fantasma", false, 0, BigDecimal.ZERO)
+        ));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.realizarOrden(request, "cliente@correo.com"));
+
+        assertEquals("El producto 'Fantasma' no existe", exception.getMessage());
+        verify(productoServicePort, never()).reservarStock(any());
+        verifyNoInteractions(ordenRepositoryPort);
+    }
+
+    @Test
+    void realizarOrden_stockInsuficiente_deberiaFallarSinDescontarStock() {
+        // Arrange
+        RealizarOrdenRequest request = crearRequest(new ProductoOrdenRequest("Pan", 5));
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(any())).thenReturn(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 2, BigDecimal.valueOf(5))
+        ));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.realizarOrden(request, "cliente@correo.com"));
+
+        assertTrue(exception.getMessage().contains("No hay suficiente stock para el producto 'Pan'"));
+        verify(productoServicePort, never()).reservarStock(any());
+    }
+
+    @Test
+    void realizarOrden_errorAlGuardar_deberiaLiberarLaReserva() {
+        // Arrange
+        RealizarOrdenRequest request = crearRequest(new ProductoOrdenRequest("Pan", 2));
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(any())).thenReturn(Map.of(
+                "Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5))
+        ));
+        when(productoServicePort.reservarStock(any())).thenReturn("reserva-1");
+        when(ordenRepositoryPort.save(any())).thenThrow(new RuntimeException("Base de datos no disponible"));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.realizarOrden(request, "cliente@correo.com"));
+
+        assertEquals("Base de datos no disponible", exception.getMessage());
+        verify(productoServicePort).liberarReserva("reserva-1");
+        verify(productoServicePort, never()).confirmarReserva(anyString());
+        verifyNoInteractions(ordenOutboxPort);
+    }
+
+    @Test
+    void realizarOrden_deberiaConsultarUsuarioYProductosEnParalelo() throws Exception {
+        // Arrange: cada rama espera a que la otra haya empezado
+        CountDownLatch usuarioIniciado = new CountDownLatch(1);
+        CountDownLatch productosIniciados = new CountDownLatch(1);
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenAnswer(invocation -> {
+            usuarioIniciado.countDown();
+            assertTrue(productosIniciados.await(2, TimeUnit.SECONDS));
+            return crearUsuario();
+        });
+        when(productoServicePort.cotizarProductos(any())).thenAnswer(invocation -> {
+            productosIniciados.countDown();
+            assertTrue(usuarioIniciado.await(2, TimeUnit.SECONDS));
+            return Map.of("Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.ONE));
+        });
+        when(ordenRepositoryPort.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            RealizarOrdenService paralelo = new RealizarOrdenService(ordenRepositoryPort, productoServicePort,
+                    usuarioServicePort, ordenPublisherService, ordenOutboxPort, TransactionOperations.withoutTransaction(), executor,
+                    Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+            // Act
+            Orden orden = paralelo.realizarOrden(crearRequest(new ProductoOrdenRequest("Pan", 1)), "cliente@correo.com");
+
+            // Assert
+            assertEquals("Cliente Prueba", orden.getNombreCliente());
+        }
+    }
+
+    @Test
+    void realizarOrden_usuarioLento_deberiaFallarPorTimeout() {
+        // Arrange
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return crearUsuario();
+        });
+        when(productoServicePort.cotizarProductos(any())).thenReturn(
+                Map.of("Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.ONE)));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            RealizarOrdenService paralelo = new RealizarOrdenService(ordenRepositoryPort, productoServicePort,
+                    usuarioServicePort, ordenPublisherService, ordenOutboxPort, TransactionOperations.withoutTransaction(), executor,
+                    Duration.ofMillis(50), Duration.ofSeconds(5));
+
+            // Act & Assert
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> paralelo.realizarOrden(crearRequest(new ProductoOrdenRequest("Pan", 1)), "cliente@correo.com"));
+            assertTrue(exception.getMessage().contains("la consulta del usuario"));
+            verifyNoInteractions(ordenRepositoryPort);
+        }
+    }
+
+    @Test
+    void aceptarOrden_deberiaGuardarLaOrdenPendienteSinConsultarOtrosServicios() {
+        // Arrange
+        when(ordenRepositoryPort.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Orden orden = service.aceptarOrden(crearRequest(new ProductoOrdenRequest("Pan", 2)), "cliente@correo.com");
+
+        // Assert
+        assertEquals(EstadoOrden.PENDIENTE, orden.getEstado());
+        assertEquals(1, orden.getDetalles().size());
+        assertEquals(2, orden.getDetalles().get(0).getCantidad());
+        verifyNoInteractions(usuarioServicePort, productoServicePort, ordenOutboxPort);
+    }
+
+    @Test
+    void procesarOrdenPendiente_deberiaCompletarLaOrdenYRegistrarSuEvento() {
+        // Arrange
+        Orden pendiente = crearOrdenPendiente();
+        when(ordenRepositoryPort.findConDetallesById(pendiente.getId())).thenReturn(Optional.of(pendiente));
+        when(usuarioServicePort.obtenerUsuario("cliente@correo.com")).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(Map.of("Pan", 2))).thenReturn(
+                Map.of("Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5))));
+        when(productoServicePort.reservarStock(any())).thenReturn("reserva-1");
+        when(ordenRepositoryPort.actualizar(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Orden orden = service.procesarOrdenPendiente(pendiente.getId());
+
+        // Assert
+        assertEquals(EstadoOrden.CREADA, orden.getEstado());
+        assertEquals(pendiente.getId(), orden.getId());
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(orden.getValorTotal()));
+        assertEquals("Cliente Prueba", orden.getNombreCliente());
+        verify(ordenOutboxPort).registrarOrdenCreada(orden);
+        verify(productoServicePort).confirmarReserva("reserva-1");
+        verify(ordenRepositoryPort, never()).save(any());
+    }
+
+    @Test
+    void procesarOrdenPendiente_sinStock_deberiaRechazarLaOrden() {
+        // Arrange
+        Orden pendiente = crearOrdenPendiente();
+        when(ordenRepositoryPort.findConDetallesById(pendiente.getId())).thenReturn(Optional.of(pendiente));
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(any())).thenReturn(
+                Map.of("Pan", new CotizacionProducto("Pan", true, 1, BigDecimal.valueOf(5))));
+        when(ordenRepositoryPort.actualizar(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Orden orden = service.procesarOrdenPendiente(pendiente.getId());
+
+        // Assert
+        assertEquals(EstadoOrden.RECHAZADA, orden.getEstado());
+        verify(productoServicePort, never()).reservarStock(any());
+        verifyNoInteractions(ordenOutboxPort);
+    }
+
+    @Test
+    void procesarOrdenPendiente_servicioNoDisponible_deberiaSeguirPendiente() {
+        // Arrange
+        Orden pendiente = crearOrdenPendiente();
+        when(ordenRepositoryPort.findConDetallesById(pendiente.getId())).thenReturn(Optional.of(pendiente));
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(any())).thenThrow(
+                new ServicioNoDisponibleException("El servicio product-service no está disponible", null));
+
+        // Act & Assert
+        assertThrows(ServicioNoDisponibleException.class, () -> service.procesarOrdenPendiente(pendiente.getId()));
+        assertEquals(EstadoOrden.PENDIENTE, pendiente.getEstado());
+        verify(ordenRepositoryPort, never()).actualizar(any());
+        verifyNoInteractions(ordenOutboxPort);
+    }
+
+    @Test
+    void procesarOrdenPendiente_deberiaConsultarLosServiciosFueraDeLaTransaccion() {
+        // Arrange: la transacción de prueba marca cuándo está abierta
+        AtomicBoolean enTransaccion = new AtomicBoolean();
+        TransactionOperations transaccion = new TransactionOperations() {
+            @Override
+            public <T> T execute(final TransactionCallback<T> accion) {
+                enTransaccion.set(true);
+                try {
+                    return accion.doInTransaction(null);
+                } finally {
+                    enTransaccion.set(false);
+                }
+            }
+        };
+        RealizarOrdenService transaccional = new RealizarOrdenService(ordenRepositoryPort, productoServicePort,
+                usuarioServicePort, ordenPublisherService, ordenOutboxPort, transaccion, Runnable::run, null, null);
+        Orden pendiente = crearOrdenPendiente();
+        when(ordenRepositoryPort.findConDetallesById(pendiente.getId())).thenReturn(Optional.of(pendiente));
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenAnswer(invocation -> {
+            assertFalse(enTransaccion.get());
+            return crearUsuario();
+        });
+        when(productoServicePort.cotizarProductos(any())).thenAnswer(invocation -> {
+            assertFalse(enTransaccion.get());
+            return Map.of("Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5)));
+        });
+        when(productoServicePort.reservarStock(any())).thenAnswer(invocation -> {
+            assertFalse(enTransaccion.get());
+            return "reserva-1";
+        });
+        when(ordenRepositoryPort.actualizar(any())).thenAnswer(invocation -> {
+            assertTrue(enTransaccion.get());
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        Orden orden = transaccional.procesarOrdenPendiente(pendiente.getId());
+
+        // Assert
+        assertEquals(EstadoOrden.CREADA, orden.getEstado());
+        verify(ordenOutboxPort).registrarOrdenCreada(orden);
+    }
+
+    @Test
+    void procesarOrdenPendiente_completadaPorOtraEjecucion_deberiaLiberarLaReserva() {
+        // Arrange: otra ejecución completa la orden mientras se consultan los servicios
+        Orden pendiente = crearOrdenPendiente();
+        Orden completada = crearOrdenPendiente();
+        completada.setEstado(EstadoOrden.CREADA);
+        when(ordenRepositoryPort.findConDetallesById(pendiente.getId())).thenReturn(Optional.of(pendiente), Optional.of(completada));
+        when(usuarioServicePort.obtenerUsuario(anyString())).thenReturn(crearUsuario());
+        when(productoServicePort.cotizarProductos(any())).thenReturn(
+                Map.of("Pan", new CotizacionProducto("Pan", true, 10, BigDecimal.valueOf(5))));
+        when(productoServicePort.reservarStock(any())).thenReturn("reserva-1");
+
+        // Act
+        Orden orden = service.procesarOrdenPendiente(pendiente.getId());
+
+        // Assert
+        assertSame(completada, orden);
+        verify(productoServicePort).liberarReserva("reserva-1");
+        verify(ordenRepositoryPort, never()).actualizar(any());
+        verifyNoInteractions(ordenOutboxPort);
+    }
+
+    @Test
+    void procesarOrdenPendiente_ordenYaProcesada_noDeberiaRepetirse() {
+        // Arrange
+        Orden procesada = crearOrdenPendiente();
+        procesada.setEstado(EstadoOrden.CREADA);
+        when(ordenRepositoryPort.findConDetallesById(procesada.getId())).thenReturn(Optional.of(procesada));
+
+        // Act
+        Orden orden = service.procesarOrdenPendiente(procesada.getId());
+
+        // Assert
+        assertSame(procesada, orden);
+        verifyNoInteractions(usuarioServicePort, productoServicePort, ordenOutboxPort);
+    }
+
+    @Test
+    void rechazarOrdenPendiente_deberiaRechazarSinConsultarLosServicios() {
+        // Arrange
+        Orden pendiente = crearOrdenPendiente();
+        when(ordenRepositoryPort.findConDetallesById(pendiente.getId())).thenReturn(Optional.of(pendiente));
+        when(ordenRepositoryPort.actualizar(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Orden orden = service.rechazarOrdenPendiente(pendiente.getId());
+
+        // Assert
+        assertEquals(EstadoOrden.RECHAZADA, orden.getEstado());
+        verifyNoInteractions(usuarioServicePort, productoServicePort, ordenOutboxPort);
+    }
+
+    private Orden crearOrdenPendiente() {
+        return new Orden(
+                UUID.randomUUID(),
+                "cliente@correo.com",
+                null,
+                null,
+                null,
+                List.of(new DetalleOrden("Pan", 2, BigDecimal.ZERO)),
+                new MetodoPago("VISA", "1234567812345678", "12/30", "123", "Cliente Prueba"),
+                BigDecimal.ZERO,
+                LocalDateTime.now(),
+                EstadoOrden.PENDIENTE
+        );
+    }
+
+    private RealizarOrdenRequest crearRequest(final ProductoOrdenRequest... productos) {
+        return new RealizarOrdenRequest(
+                List.of(productos),
+                new MetodoPagoRequest("VISA", "1234567812345678", "12/30", "123", "Cliente Prueba")
+        );
+    }
+
+    private UsuarioResponse crearUsuario() {
+        return new UsuarioResponse("cliente@correo.com", "Cliente Prueba", "12345678", "Dirección Prueba");
+    }
 }